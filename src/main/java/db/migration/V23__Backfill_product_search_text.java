@@ -0,0 +1,75 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fills products.search_text (added by V22) for existing rows. Written in Java because the
+ * diacritic folding has no SQL equivalent. The folding is a copy of Product.buildSearchText
+ * as of this migration, so the migration keeps producing the same values if that changes.
+ * Walks the table by primary key in chunks so memory stays flat on large catalogs.
+ */
+public class V23__Backfill_product_search_text extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 2000;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, name, sku, barcode FROM products WHERE id > ? AND search_text IS NULL ORDER BY id LIMIT ?");
+             // updated_at is ON UPDATE CURRENT_TIMESTAMP; keep it so the backfill does not look like an edit to sync clients
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE products SET search_text = ?, updated_at = updated_at WHERE id = ?")) {
+            long lastId = 0;
+            while (true) {
+                select.setLong(1, lastId);
+                select.setInt(2, CHUNK_SIZE);
+                int rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong("id");
+                        update.setString(1, searchText(
+                                rs.getString("name"), rs.getString("sku"), rs.getString("barcode")));
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows == 0) break;
+                update.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * e.g. "Cà phê sữa", "CF-01" -> "ca phe sua cf-01", at most 512 characters.
+     */
+    static String searchText(String name, String sku, String barcode) {
+        String text = Stream.of(name, sku, barcode)
+                .map(V23__Backfill_product_search_text::fold)
+                .filter(part -> !part.isEmpty())
+                .collect(Collectors.joining(" "));
+        return text.length() > 512 ? text.substring(0, 512) : text;
+    }
+
+    private static String fold(String value) {
+        if (value == null || value.isEmpty()) return "";
+        // đ/Đ are letters of their own, not d plus a combining mark, so NFD leaves them intact
+        String decomposed = Normalizer.normalize(value.replace('\u0111', 'd').replace('\u0110', 'D'), Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
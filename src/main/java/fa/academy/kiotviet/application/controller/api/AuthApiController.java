@@ -13,6 +13,7 @@ import fa.academy.kiotviet.core.usermanagement.service.registration.Registration
 import fa.academy.kiotviet.core.usermanagement.service.auth.PasswordResetService;
 import jakarta.servlet.http.HttpServletRequest;
 import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
+import fa.academy.kiotviet.infrastructure.security.VerifiedToken;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -39,8 +40,8 @@ public class AuthApiController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@Valid @RequestBody LoginRequest loginRequest) {
-        LoginResult result = authService.login(loginRequest);
+    public ResponseEntity<?> loginUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest httpRequest) {
+        LoginResult result = authService.login(loginRequest, httpRequest);
         if (result.isMfaRequired()) {
             java.util.Map<String, Object> payload = java.util.Map.of(
                     "status", "MFA_REQUIRED",
@@ -77,7 +78,8 @@ public class AuthApiController {
     }
 
     @PostMapping("/logout")
-    public SuccessResponse<Void> logout() {
+    public SuccessResponse<Void> logout(
+            @RequestAttribute(name = JwtAuthenticationFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken accessToken) {
         // Get current authenticated user from security context
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -89,8 +91,8 @@ public class AuthApiController {
         JwtAuthenticationFilter.UserPrincipal userPrincipal = (JwtAuthenticationFilter.UserPrincipal) authentication
                 .getPrincipal();
 
-        // Logout current user by invalidating their refresh tokens
-        authService.logout(userPrincipal.getUserId());
+        // Logout current user by invalidating their refresh tokens and access tokens
+        authService.logout(userPrincipal.getUserId(), accessToken);
         return ResponseFactory.success(null, "Logout successful");
     }
 
@@ -63,7 +63,7 @@ public class BrandController {
      * Create a new brand
      */
     @PostMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<BrandDto> createBrand(@Valid @RequestBody BrandCreateRequest request) {
         Long companyId = currentCompanyId();
         BrandDto brand = brandService.create(companyId, request);
@@ -74,7 +74,7 @@ public class BrandController {
      * Update an existing brand
      */
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<BrandDto> updateBrand(
             @PathVariable Long id,
             @Valid @RequestBody BrandUpdateRequest request) {
@@ -88,7 +88,7 @@ public class BrandController {
      * Soft delete a brand (mark as inactive)
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<String> deleteBrand(@PathVariable Long id) {
         Long companyId = currentCompanyId();
         brandService.softDelete(companyId, id);
@@ -6,13 +6,18 @@ import fa.academy.kiotviet.application.dto.productcatalog.response.*;
 import fa.academy.kiotviet.application.service.ResponseFactory;
 import fa.academy.kiotviet.core.productcatalog.domain.Category;
 import fa.academy.kiotviet.core.productcatalog.service.CategoryService;
+import fa.academy.kiotviet.core.productcatalog.service.CategoryTreeCache;
 import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,35 +35,20 @@ public class CategoryApiController {
     private final CategoryService categoryService;
 
     /**
-     * Get all categories as flat list (for tree building in frontend)
+     * Get all categories as a flat list and as a tree with product counts. The tree is cached per
+     * company and revalidated with its ETag, so unchanged categories are answered with 304.
      */
     @GetMapping
-    public SuccessResponse<CategoryTreeDto> getAllCategories() {
+    public SuccessResponse<CategoryTreeDto> getAllCategories(WebRequest webRequest, HttpServletResponse response) {
         Long companyId = currentCompanyId();
-        List<Category> categories = categoryService.getAllCategories(companyId);
+        CategoryTreeCache.CategoryTree tree = categoryService.getCategoryTree(companyId);
 
-        List<CategoryDto> categoryDtos = categories.stream()
-                .map(this::toCategoryDto)
-                .collect(Collectors.toList());
-
-        List<CategoryDto> rootCategories = categoryDtos.stream()
-                .filter(CategoryDto::getIsRoot)
-                .collect(Collectors.toList());
-
-        Integer maxDepth = categoryDtos.stream()
-                .mapToInt(dto -> dto.getLevel() + 1)
-                .max()
-                .orElse(1);
-
-        CategoryTreeDto response = CategoryTreeDto.builder()
-                .categories(categoryDtos)
-                .rootCategories(rootCategories)
-                .totalCategories(categoryDtos.size())
-                .maxDepth(maxDepth)
-                .hasHierarchy(maxDepth > 1)
-                .build();
-
-        return ResponseFactory.success(response, "Categories retrieved successfully");
+        // Private: the tree belongs to the signed-in company; set here so Spring Security keeps it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (webRequest.checkNotModified(tree.etag())) {
+            return null;
+        }
+        return ResponseFactory.success(tree.tree(), "Categories retrieved successfully");
     }
 
     /**
@@ -115,7 +105,7 @@ public class CategoryApiController {
      * Create a new category (root or subcategory)
      */
     @PostMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<CategoryDto> createCategory(@Valid @RequestBody CategoryCreateRequest request) {
         Long companyId = currentCompanyId();
 
@@ -149,7 +139,7 @@ public class CategoryApiController {
      * Update category details (not hierarchy changes)
      */
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<CategoryDto> updateCategory(
             @PathVariable Long id,
             @Valid @RequestBody CategoryUpdateRequest request) {
@@ -172,7 +162,7 @@ public class CategoryApiController {
      * Move a category to a new parent
      */
     @PutMapping("/{id}/move")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<CategoryDto> moveCategory(
             @PathVariable Long id,
             @Valid @RequestBody CategoryMoveRequest request) {
@@ -192,7 +182,7 @@ public class CategoryApiController {
      * Soft delete a category (and all its descendants)
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<String> deleteCategory(@PathVariable Long id) {
         Long companyId = currentCompanyId();
         categoryService.deleteCategory(companyId, id);
@@ -203,7 +193,7 @@ public class CategoryApiController {
      * Restore a deleted category (and its descendants)
      */
     @PutMapping("/{id}/restore")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<CategoryDto> restoreCategory(@PathVariable Long id) {
         Long companyId = currentCompanyId();
         Category category = categoryService.restoreCategory(companyId, id);
@@ -228,7 +218,7 @@ public class CategoryApiController {
      * Reorder categories within the same parent level
      */
     @PutMapping("/reorder")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<String> reorderCategories(@Valid @RequestBody CategoryReorderRequest request) {
         Long companyId = currentCompanyId();
         categoryService.reorderCategories(companyId, request.getCategoryIds());
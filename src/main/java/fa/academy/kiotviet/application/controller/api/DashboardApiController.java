@@ -93,10 +93,11 @@ public class DashboardApiController {
     }
 
     @GetMapping("/inventory-status")
-    public ResponseEntity<SuccessResponse<Map<String, Object>>> getInventoryStatus() {
+    public ResponseEntity<SuccessResponse<Map<String, Object>>> getInventoryStatus(
+            @RequestParam(defaultValue = "false") boolean byCategory) {
         try {
             Long companyId = SecurityUtil.getCurrentCompanyId();
-            Map<String, Object> inventoryStatus = dashboardStatisticsService.getInventoryStatus(companyId);
+            Map<String, Object> inventoryStatus = dashboardStatisticsService.getInventoryStatus(companyId, byCategory);
 
             return ResponseEntity.ok(SuccessResponse.of(inventoryStatus, "Inventory status retrieved successfully"));
         } catch (Exception e) {
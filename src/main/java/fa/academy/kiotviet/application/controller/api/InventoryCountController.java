@@ -35,7 +35,7 @@ import java.time.LocalDate;
 @RequestMapping("/api/inventory-counts")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*", maxAge = 3600)
-@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('INVENTORY_MANAGE')")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'INVENTORY_MANAGE')")
 public class InventoryCountController {
 
     private final InventoryCountService inventoryCountService;
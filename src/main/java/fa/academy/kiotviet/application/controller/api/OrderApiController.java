@@ -13,14 +13,20 @@ import fa.academy.kiotviet.core.orders.service.OrderService;
 import fa.academy.kiotviet.core.customers.repository.CustomerRepository;
 import fa.academy.kiotviet.core.customers.domain.Customer;
 import fa.academy.kiotviet.core.orders.repository.OrderItemRepository;
+import fa.academy.kiotviet.core.shared.exception.BusinessRuleException;
 import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetFormat;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -62,8 +68,30 @@ public class OrderApiController {
         return ResponseFactory.success(response, "Orders retrieved successfully");
     }
 
+    /**
+     * Export orders matching the list filters as .xlsx or CSV, streamed to the response.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'ORDER_MANAGE')")
+    public void exportOrders(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fromDate,
+            @RequestParam(required = false) String toDate,
+            @RequestParam(defaultValue = "xlsx") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        Long companyId = currentCompanyId();
+        SpreadsheetFormat exportFormat = SpreadsheetFormat.fromExtension(format)
+                .orElseThrow(() -> new BusinessRuleException("Invalid export format", "EXPORT_FORMAT_INVALID"));
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + LocalDate.now() + "." + exportFormat.extension() + "\"");
+        orderService.export(companyId, q, status, fromDate, toDate, exportFormat, response.getOutputStream());
+    }
+
     @DeleteMapping("/bulk")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('ORDER_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'ORDER_MANAGE')")
     public SuccessResponse<String> bulkDelete(@RequestBody List<Long> ids) {
         Long companyId = currentCompanyId();
         orderService.deleteBulk(companyId, ids);
@@ -71,7 +99,7 @@ public class OrderApiController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('ORDER_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'ORDER_MANAGE')")
     public SuccessResponse<OrderCreateResponse> createOrder(@RequestBody OrderCreateRequest request) {
         Long companyId = currentCompanyId();
         Order saved = orderService.create(companyId, request);
@@ -90,7 +118,7 @@ public class OrderApiController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('ORDER_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'ORDER_MANAGE')")
     public SuccessResponse<OrderCreateResponse> updateOrder(@PathVariable Long id, @RequestBody OrderCreateRequest request) {
         Long companyId = currentCompanyId();
         Order saved = orderService.update(companyId, id, request);
@@ -1,25 +1,43 @@
 package fa.academy.kiotviet.application.controller.api;
 
 import fa.academy.kiotviet.application.dto.shared.SuccessResponse;
+import fa.academy.kiotviet.application.dto.productcatalog.request.ProductBulkUpdateRequest;
 import fa.academy.kiotviet.application.dto.productcatalog.request.ProductCreateRequest;
 import fa.academy.kiotviet.application.dto.productcatalog.request.ProductUpdateRequest;
 import fa.academy.kiotviet.application.dto.productcatalog.response.ProductAutocompleteItem;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductBulkUpdateResultDto;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductChangesDto;
 import fa.academy.kiotviet.application.dto.productcatalog.response.ProductDto;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductImageUploadDto;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductImportStatusDto;
 import fa.academy.kiotviet.application.service.ResponseFactory;
 import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.service.ProductImportService;
 import fa.academy.kiotviet.core.productcatalog.service.ProductService;
+import fa.academy.kiotviet.core.shared.exception.BusinessRuleException;
 import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
-import fa.academy.kiotviet.infrastructure.storage.FileStorageService;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetFormat;
+import fa.academy.kiotviet.infrastructure.storage.ImageProcessingJob;
+import fa.academy.kiotviet.infrastructure.storage.ImageProcessingQueue;
+import fa.academy.kiotviet.infrastructure.storage.StoredImage;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -33,7 +51,8 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
-    private final FileStorageService fileStorageService;
+    private final ProductImportService productImportService;
+    private final ImageProcessingQueue imageProcessingQueue;
 
     /**
      * Get products with pagination, filtering, and sorting
@@ -49,19 +68,45 @@ public class ProductController {
             @RequestParam(required = false) List<Long> brandIds,
             @RequestParam(required = false) Product.ProductStatus status,
             @RequestParam(required = false) Boolean tracked,
+            @RequestParam(required = false) Product.StockStatus stockStatus,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(required = false) String sortBy, // name when omitted; relevance when searching
             @RequestParam(defaultValue = "asc") String sortDir) {
 
         Long companyId = currentCompanyId();
         Page<ProductDto> products = productService.list(
                 companyId, search, categoryId, categoryIds, supplierId, supplierIds, brandId, brandIds, status, tracked,
-                page, size, sortBy, sortDir);
+                stockStatus, page, size, sortBy, sortDir);
 
         return ResponseFactory.success(products, "Products retrieved successfully");
     }
 
+    /**
+     * Export products matching the list filters as .xlsx or CSV, streamed to the response
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
+    public void exportProducts(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> supplierIds,
+            @RequestParam(required = false) List<Long> brandIds,
+            @RequestParam(required = false) Product.ProductStatus status,
+            @RequestParam(required = false) Boolean tracked,
+            @RequestParam(defaultValue = "xlsx") String format,
+            HttpServletResponse response) throws IOException {
+
+        Long companyId = currentCompanyId();
+        SpreadsheetFormat exportFormat = SpreadsheetFormat.fromExtension(format)
+                .orElseThrow(() -> new BusinessRuleException("Invalid export format", "EXPORT_FORMAT_INVALID"));
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"products-" + LocalDate.now() + "." + exportFormat.extension() + "\"");
+        productService.export(companyId, search, categoryIds, supplierIds, brandIds, status, tracked,
+                exportFormat, response.getOutputStream());
+    }
+
     /**
      * Get a single product by ID
      */
@@ -76,7 +121,7 @@ public class ProductController {
      * Create a new product
      */
     @PostMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<ProductDto> createProduct(@Valid @RequestBody ProductCreateRequest request) {
         Long companyId = currentCompanyId();
         ProductDto product = productService.create(companyId, request);
@@ -84,21 +129,81 @@ public class ProductController {
     }
 
     /**
-     * Upload product image
+     * Upload product image; processed in the background into small, medium and large variants
      */
     @PostMapping("/upload-image")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
-    public SuccessResponse<String> uploadImage(@RequestParam("file") MultipartFile file) {
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
+    public SuccessResponse<ProductImageUploadDto> uploadImage(@RequestParam("file") MultipartFile file) {
+        Long companyId = currentCompanyId();
+        ImageProcessingJob job = imageProcessingQueue.submitProductImage(companyId, file);
+        return ResponseFactory.accepted(toUploadDto(job), "Image upload accepted");
+    }
+
+    /**
+     * Get processing state of an uploaded product image
+     */
+    @GetMapping("/upload-image/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
+    public SuccessResponse<ProductImageUploadDto> getImageUploadStatus(@PathVariable String jobId) {
+        Long companyId = currentCompanyId();
+        ImageProcessingJob job = imageProcessingQueue.find(companyId, jobId);
+        return ResponseFactory.success(toUploadDto(job), "Image upload status retrieved");
+    }
+
+    /**
+     * Start a background import of products from an .xlsx or CSV file
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
+    public SuccessResponse<ProductImportStatusDto> importProducts(@RequestParam("file") MultipartFile file) {
         Long companyId = currentCompanyId();
-        String imageUrl = fileStorageService.storeProductImage(companyId, file);
-        return ResponseFactory.success(imageUrl, "Image uploaded successfully");
+        ProductImportStatusDto job = productImportService.start(companyId, file);
+        return ResponseFactory.accepted(job, "Import started");
+    }
+
+    /**
+     * Get progress of a product import
+     */
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
+    public SuccessResponse<ProductImportStatusDto> getImportStatus(@PathVariable String jobId) {
+        Long companyId = currentCompanyId();
+        ProductImportStatusDto job = productImportService.status(companyId, jobId);
+        return ResponseFactory.success(job, "Import status retrieved");
+    }
+
+    /**
+     * Download the rows a finished import skipped, with the reason for each
+     */
+    @GetMapping("/import/{jobId}/errors")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
+    public ResponseEntity<Resource> downloadImportErrors(@PathVariable String jobId) {
+        Long companyId = currentCompanyId();
+        FileSystemResource report = new FileSystemResource(productImportService.errorReport(companyId, jobId));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors-" + jobId + ".csv\"")
+                .body(report);
+    }
+
+    /**
+     * Change price, status, stock levels or tracking of every product matching a filter
+     */
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
+    public SuccessResponse<ProductBulkUpdateResultDto> bulkUpdateProducts(
+            @Valid @RequestBody ProductBulkUpdateRequest request) {
+
+        Long companyId = currentCompanyId();
+        ProductBulkUpdateResultDto result = productService.bulkUpdate(companyId, request);
+        return ResponseFactory.success(result, "Products updated successfully");
     }
 
     /**
      * Update an existing product
      */
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<ProductDto> updateProduct(
             @PathVariable Long id,
             @Valid @RequestBody ProductUpdateRequest request) {
@@ -112,7 +217,7 @@ public class ProductController {
      * Soft delete a product (mark as discontinued)
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<String> deleteProduct(@PathVariable Long id) {
         Long companyId = currentCompanyId();
         productService.softDelete(companyId, id);
@@ -147,6 +252,19 @@ public class ProductController {
         return ResponseFactory.success(item, "Product found by code");
     }
 
+    /**
+     * Products created, updated or discontinued since a sync cursor, for POS clients that keep
+     * a local copy of the catalog
+     */
+    @GetMapping("/changes")
+    public SuccessResponse<ProductChangesDto> getProductChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        Long companyId = currentCompanyId();
+        ProductChangesDto changes = productService.changesSince(companyId, since, limit);
+        return ResponseFactory.success(changes, "Product changes retrieved");
+    }
+
     /**
      * Get products that are low on stock
      */
@@ -203,7 +321,7 @@ public class ProductController {
 
         Long companyId = currentCompanyId();
         Page<ProductDto> products = productService.list(
-                companyId, null, categoryId, null, null, null, null, null, null, null,
+                companyId, null, categoryId, null, null, null, null, null, null, null, null,
                 page, size, sortBy, sortDir);
 
         return ResponseFactory.success(products, "Products in category retrieved");
@@ -222,7 +340,7 @@ public class ProductController {
 
         Long companyId = currentCompanyId();
         Page<ProductDto> products = productService.list(
-                companyId, null, null, null, supplierId, null, null, null, null, null,
+                companyId, null, null, null, supplierId, null, null, null, null, null, null,
                 page, size, sortBy, sortDir);
 
         return ResponseFactory.success(products, "Products from supplier retrieved");
@@ -241,7 +359,7 @@ public class ProductController {
 
         Long companyId = currentCompanyId();
         Page<ProductDto> products = productService.list(
-                companyId, null, null, null, null, null, brandId, null, null, null,
+                companyId, null, null, null, null, null, brandId, null, null, null, null,
                 page, size, sortBy, sortDir);
 
         return ResponseFactory.success(products, "Products from brand retrieved");
@@ -259,12 +377,30 @@ public class ProductController {
 
         Long companyId = currentCompanyId();
         Page<ProductDto> products = productService.list(
-                companyId, null, null, null, null, null, null, null, Product.ProductStatus.ACTIVE, null,
+                companyId, null, null, null, null, null, null, null, Product.ProductStatus.ACTIVE, null, null,
                 page, size, sortBy, sortDir);
 
         return ResponseFactory.success(products, "Active products retrieved");
     }
 
+    private static ProductImageUploadDto toUploadDto(ImageProcessingJob job) {
+        StoredImage image = job.getImage();
+        return ProductImageUploadDto.builder()
+                .jobId(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus().name())
+                .message(job.getMessage())
+                .url(image != null ? image.largeUrl() : null)
+                .contentHash(image != null ? image.contentHash() : null)
+                .smallUrl(image != null ? image.smallUrl() : null)
+                .mediumUrl(image != null ? image.mediumUrl() : null)
+                .largeUrl(image != null ? image.largeUrl() : null)
+                .fileSize(image != null ? image.fileSize() : null)
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
     // Helper method
     private Long currentCompanyId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -27,7 +27,7 @@ public class PurchaseController {
     private final PurchaseService purchaseService;
 
     @PostMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PURCHASE_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PURCHASE_MANAGE')")
     public SuccessResponse<PurchaseDto> create(@Valid @RequestBody PurchaseCreateRequest request) {
         Long companyId = currentCompanyId();
         PurchaseDto dto = purchaseService.create(companyId, request);
@@ -35,7 +35,7 @@ public class PurchaseController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PURCHASE_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PURCHASE_MANAGE')")
     public SuccessResponse<PurchaseDto> update(@PathVariable Long id, @Valid @RequestBody PurchaseUpdateRequest request) {
         Long companyId = currentCompanyId();
         PurchaseDto dto = purchaseService.update(companyId, id, request);
@@ -43,7 +43,7 @@ public class PurchaseController {
     }
 
     @PostMapping("/{id}/confirm")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PURCHASE_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PURCHASE_MANAGE')")
     public SuccessResponse<PurchaseDto> confirm(@PathVariable Long id, @RequestBody PurchaseConfirmRequest request) {
         Long companyId = currentCompanyId();
         PurchaseDto dto = purchaseService.confirm(companyId, id, request);
@@ -51,7 +51,7 @@ public class PurchaseController {
     }
 
     @PostMapping("/{id}/receive")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PURCHASE_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PURCHASE_MANAGE')")
     public SuccessResponse<PurchaseDto> receive(@PathVariable Long id, @RequestBody PurchaseReceiveRequest request) {
         Long companyId = currentCompanyId();
         PurchaseDto dto = purchaseService.receive(companyId, id, request);
@@ -59,7 +59,7 @@ public class PurchaseController {
     }
 
     @PostMapping("/{id}/payments")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PURCHASE_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PURCHASE_MANAGE')")
     public SuccessResponse<PurchaseDto> addPayment(@PathVariable Long id, @RequestBody PurchasePaymentRequest request) {
         Long companyId = currentCompanyId();
         PurchaseDto dto = purchaseService.addPayment(companyId, id, request);
@@ -67,7 +67,7 @@ public class PurchaseController {
     }
 
     @PostMapping("/{id}/cancel")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PURCHASE_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PURCHASE_MANAGE')")
     public SuccessResponse<PurchaseDto> cancel(@PathVariable Long id) {
         Long companyId = currentCompanyId();
         PurchaseDto dto = purchaseService.cancel(companyId, id);
@@ -76,7 +76,7 @@ public class SupplierApiController {
 
     // Create supplier
     @PostMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<SupplierDto> create(@Valid @RequestBody SupplierCreateRequest request) {
         Long companyId = currentCompanyId();
         SupplierDto data = supplierService.create(companyId, request);
@@ -85,7 +85,7 @@ public class SupplierApiController {
 
     // Update supplier
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<SupplierDto> update(@PathVariable Long id,
             @Valid @RequestBody SupplierUpdateRequest request) {
         Long companyId = currentCompanyId();
@@ -95,7 +95,7 @@ public class SupplierApiController {
 
     // Soft delete supplier
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<String> delete(@PathVariable Long id) {
         Long companyId = currentCompanyId();
         supplierService.softDelete(companyId, id);
@@ -114,7 +114,7 @@ public class SupplierApiController {
 
     // Bulk import (CSV/Excel) - MVP handles CSV; Excel can be added later
     @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasAuthority('PRODUCT_MANAGE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or hasPermission(null, 'PRODUCT_MANAGE')")
     public SuccessResponse<String> bulkImport(@RequestParam("file") MultipartFile file) {
         Long companyId = currentCompanyId();
         if (file == null || file.isEmpty()) {
@@ -5,11 +5,14 @@ import fa.academy.kiotviet.application.service.ResponseFactory;
 import fa.academy.kiotviet.core.systemadmin.application.SystemAdminCompanyManagementService;
 import fa.academy.kiotviet.core.systemadmin.application.SystemAdminDashboardService;
 import fa.academy.kiotviet.core.systemadmin.application.SystemAdminUserManagementService;
+import fa.academy.kiotviet.core.systemadmin.application.PlatformMetricsRollupService;
+import fa.academy.kiotviet.core.systemadmin.application.SystemAdminUsageService;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyCreateDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyDetailsDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyListDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyUpdateDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminDashboardMetricsDTO;
+import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminTenantUsageDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminUserCreateDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminUserListDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminUserUpdateDTO;
@@ -40,6 +43,8 @@ public class SystemAdminController {
     private final SystemAdminCompanyManagementService companyManagementService;
     private final SystemAdminUserManagementService userManagementService;
     private final SystemAdminDashboardService dashboardService;
+    private final PlatformMetricsRollupService metricsRollupService;
+    private final SystemAdminUsageService usageService;
 
     // ==================== Dashboard Endpoints ====================
 
@@ -59,6 +64,63 @@ public class SystemAdminController {
         );
     }
 
+    /**
+     * Recompute the per-tenant metrics rollup and return fresh dashboard metrics
+     * POST /admin/api/dashboard/refresh
+     */
+    @PostMapping("/dashboard/refresh")
+    @PreAuthorize("hasRole('SYSTEM_ADMIN')")
+    public ResponseEntity<SuccessResponse<SystemAdminDashboardMetricsDTO>> refreshDashboardMetrics() {
+        log.info("System Admin API: Refreshing platform metrics rollup");
+
+        metricsRollupService.refresh();
+        SystemAdminDashboardMetricsDTO metrics = dashboardService.getDashboardMetrics();
+
+        return ResponseEntity.ok(
+                ResponseFactory.success(metrics, "Dashboard metrics refreshed successfully")
+        );
+    }
+
+    // ==================== Usage Metering Endpoints ====================
+
+    /**
+     * Get resource usage per tenant over the last N hours (heaviest SQL consumers first)
+     * GET /admin/api/usage
+     */
+    @GetMapping("/usage")
+    @PreAuthorize("hasRole('SYSTEM_ADMIN')")
+    public ResponseEntity<SuccessResponse<List<SystemAdminTenantUsageDTO>>> getTenantUsage(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        log.info("System Admin API: Fetching tenant usage - hours: {}, limit: {}", hours, limit);
+
+        List<SystemAdminTenantUsageDTO> usage = usageService.getTopTenantUsage(hours, limit);
+
+        return ResponseEntity.ok(
+                ResponseFactory.success(usage, "Tenant usage retrieved successfully")
+        );
+    }
+
+    /**
+     * Get hourly resource usage for a specific company
+     * GET /admin/api/companies/{id}/usage
+     */
+    @GetMapping("/companies/{id}/usage")
+    @PreAuthorize("hasRole('SYSTEM_ADMIN')")
+    public ResponseEntity<SuccessResponse<List<SystemAdminTenantUsageDTO>>> getCompanyUsage(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "24") int hours) {
+
+        log.info("System Admin API: Fetching hourly usage for company ID: {}", id);
+
+        List<SystemAdminTenantUsageDTO> usage = usageService.getCompanyUsage(id, hours);
+
+        return ResponseEntity.ok(
+                ResponseFactory.success(usage, "Company usage retrieved successfully")
+        );
+    }
+
     // ==================== Company Management Endpoints ====================
 
     /**
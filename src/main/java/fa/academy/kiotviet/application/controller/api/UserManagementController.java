@@ -14,20 +14,22 @@ import fa.academy.kiotviet.core.shared.exception.BusinessRuleException;
 import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
 import fa.academy.kiotviet.core.usermanagement.service.user.UserManagementService;
 import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetFormat;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -160,30 +162,29 @@ public class UserManagementController {
     }
 
     @GetMapping("/users/export")
-    public ResponseEntity<ByteArrayResource> exportUsers(
+    public void exportUsers(
         @RequestParam(required = false) String search,
         @RequestParam(required = false) String role,
         @RequestParam(defaultValue = "all") String status,
-        @RequestParam(defaultValue = "csv") String format
-    ) {
+        @RequestParam(defaultValue = "csv") String format,
+        HttpServletResponse response
+    ) throws IOException {
         JwtAuthenticationFilter.UserPrincipal principal = requirePrincipal();
         UserInfo.UserRole roleFilter = parseRole(role);
         Boolean statusFilter = parseStatusFilter(status);
-        UserManagementService.ExportFormat exportFormat = parseExportFormat(format);
+        SpreadsheetFormat exportFormat = parseExportFormat(format);
 
-        UserManagementService.ExportResult data = userManagementService.exportUsers(
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"users-" + UUID.randomUUID() + "." + exportFormat.extension() + "\"");
+        userManagementService.exportUsers(
             principal.getCompanyId(),
             search,
             roleFilter,
             statusFilter,
-            exportFormat
+            exportFormat,
+            response.getOutputStream()
         );
-
-        ByteArrayResource resource = new ByteArrayResource(data.getData());
-        return ResponseEntity.ok()
-            .contentType(MediaType.parseMediaType(data.getContentType()))
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + data.getFileName() + "\"")
-            .body(resource);
     }
 
     @GetMapping("/roles")
@@ -267,16 +268,11 @@ public class UserManagementController {
         throw new BusinessRuleException("Invalid status filter", "STATUS_INVALID");
     }
 
-    private UserManagementService.ExportFormat parseExportFormat(String format) {
+    private SpreadsheetFormat parseExportFormat(String format) {
         if (!StringUtils.hasText(format)) {
-            return UserManagementService.ExportFormat.CSV;
-        }
-        if ("xlsx".equalsIgnoreCase(format)) {
-            return UserManagementService.ExportFormat.XLSX;
-        }
-        if ("csv".equalsIgnoreCase(format)) {
-            return UserManagementService.ExportFormat.CSV;
+            return SpreadsheetFormat.CSV;
         }
-        throw new BusinessRuleException("Invalid export format", "EXPORT_FORMAT_INVALID");
+        return SpreadsheetFormat.fromExtension(format)
+            .orElseThrow(() -> new BusinessRuleException("Invalid export format", "EXPORT_FORMAT_INVALID"));
     }
 }
@@ -74,4 +74,15 @@ public class SystemAdminPageController {
     public String userDetails(@PathVariable Long id) {
         return "admin/admin-user-details";
     }
+
+    /**
+     * Per-tenant resource usage page.
+     * GET /admin/usage
+     *
+     * @return Template name for tenant usage
+     */
+    @GetMapping("/usage")
+    public String tenantUsage() {
+        return "admin/admin-usage";
+    }
 }
@@ -0,0 +1,20 @@
+package fa.academy.kiotviet.application.dto.dashboard.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryInventoryValueDto {
+    private Long categoryId;      // null for uncategorized products
+    private String categoryName;
+    private String categoryPath;
+    private BigDecimal retailValue;
+    private BigDecimal costValue;
+}
@@ -40,6 +40,7 @@ public class DashboardStatisticsDto {
     private Long lowStockCount;
     private Long outOfStockCount;
     private BigDecimal totalInventoryValue;
+    private BigDecimal totalInventoryCostValue;
 
     // Period-over-period comparisons
     private BigDecimal dailyGrowth;
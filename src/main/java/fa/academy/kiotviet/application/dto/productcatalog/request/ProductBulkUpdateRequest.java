@@ -0,0 +1,54 @@
+package fa.academy.kiotviet.application.dto.productcatalog.request;
+
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductBulkUpdateRepository.PriceMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Request DTO for changing every product that matches a filter in one operation.
+ * Fields left null are neither filtered on nor changed.
+ */
+@Data
+public class ProductBulkUpdateRequest {
+
+    @Valid
+    private Filter filter = new Filter();
+
+    /**
+     * How {@link #priceValue} changes the selling price; null leaves prices alone.
+     */
+    private PriceMode priceMode;
+
+    @Digits(integer = 10, fraction = 2, message = "Price value must have up to 10 digits and 2 decimal places")
+    private BigDecimal priceValue;
+
+    private Product.ProductStatus status;
+
+    @Min(value = 0, message = "Minimum level cannot be negative")
+    private Integer minLevel;
+
+    @Min(value = 0, message = "Maximum level cannot be negative")
+    private Integer maxLevel;
+
+    private Boolean isTracked;
+
+    @Data
+    public static class Filter {
+
+        /**
+         * Materialized category path such as "/drinks"; includes subcategories.
+         */
+        @Size(max = 500, message = "Category path must not exceed 500 characters")
+        private String categoryPath;
+
+        private Long supplierId;
+
+        private Long brandId;
+
+        private Product.ProductStatus status;
+    }
+}
@@ -39,5 +39,7 @@ public class CategoryDto {
     private Boolean isLeaf;           // True if no children
     private Integer descendantCount;  // Number of direct + indirect children
     private String parentName;        // Parent category name for display
+    private Long productCount;        // Products directly in this category (tree response)
+    private Long totalProductCount;   // Products in this category and its descendants (tree response)
     private List<CategoryDto> children; // Direct children (for tree response)
 }
\ No newline at end of file
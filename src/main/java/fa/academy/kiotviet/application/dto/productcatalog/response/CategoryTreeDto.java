@@ -9,7 +9,8 @@ import java.util.List;
 
 /**
  * Response DTO for category tree structure.
- * Used when the full hierarchy needs to be returned.
+ * Used when the full hierarchy needs to be returned; instances served from
+ * CategoryTreeCache are shared and must not be modified.
  */
 @Data
 @Builder
@@ -17,8 +18,9 @@ import java.util.List;
 @AllArgsConstructor
 public class CategoryTreeDto {
     private List<CategoryDto> categories;      // Flat list for tree building
-    private List<CategoryDto> rootCategories;  // Root level categories only
+    private List<CategoryDto> rootCategories;  // Root level categories, with nested children
     private Integer totalCategories;           // Total count of active categories
     private Integer maxDepth;                  // Maximum hierarchy depth
     private Boolean hasHierarchy;              // True if there are subcategories
+    private Long version;                      // Category version of the company the tree was built at
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package fa.academy.kiotviet.application.dto.productcatalog.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a bulk product update.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBulkUpdateResultDto {
+
+    /** Products matching the filter. */
+    private Integer matchedCount;
+
+    /** Products updated. */
+    private Integer updatedCount;
+
+    /** Matched products left unchanged because the new values broke a product rule. */
+    private Integer skippedCount;
+}
@@ -0,0 +1,30 @@
+package fa.academy.kiotviet.application.dto.productcatalog.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of catalog changes since a sync cursor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesDto {
+
+    /** Opaque position to pass as {@code since} on the next call. */
+    private String cursor;
+
+    /** More changes are available right away; call again with {@link #cursor}. */
+    private Boolean hasMore;
+
+    /** Products created or updated since the previous cursor. */
+    private List<ProductSyncItem> products;
+
+    /** Ids of products discontinued since the previous cursor, to drop from the local copy. */
+    private List<Long> deleted;
+}
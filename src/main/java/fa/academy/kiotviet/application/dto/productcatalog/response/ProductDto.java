@@ -25,6 +25,7 @@ public class ProductDto {
     private String barcode;
     private String description;
     private String image;
+    private String thumbnailUrl;
     private BigDecimal sellingPrice;
     private BigDecimal costPrice;
     private BigDecimal profitAmount;
@@ -0,0 +1,44 @@
+package fa.academy.kiotviet.application.dto.productcatalog.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for an uploaded product image: the processing state and, once completed, the
+ * generated variants.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageUploadDto {
+
+    private String jobId;
+    private String fileName;
+
+    /** QUEUED, PROCESSING, COMPLETED or FAILED. */
+    private String status;
+
+    /** Why processing failed. */
+    private String message;
+
+    /** URL to save as the product image; the large variant. */
+    private String url;
+
+    /** Hex SHA-256 of the uploaded file. */
+    private String contentHash;
+
+    private String smallUrl;
+    private String mediumUrl;
+    private String largeUrl;
+
+    /** Bytes of the large variant. */
+    private Long fileSize;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,31 @@
+package fa.academy.kiotviet.application.dto.productcatalog.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for the state of a background product import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportStatusDto {
+
+    private String jobId;
+    private String fileName;
+    private String status;
+    private Integer progressPercent;
+    private Long processedRows;
+    private Long insertedRows;
+    private Long updatedRows;
+    private Long failedRows;
+    private String message;
+    private Boolean errorReportAvailable;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,30 @@
+package fa.academy.kiotviet.application.dto.productcatalog.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Response DTO for one product in a catalog sync: only what a POS needs to resolve a scan
+ * and price a line offline.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSyncItem {
+
+    private Long id;
+    private String sku;
+    private String barcode;
+    private String name;
+    private BigDecimal sellingPrice;
+    private Integer onHand;
+    private String status;
+    private Boolean isTracked;
+}
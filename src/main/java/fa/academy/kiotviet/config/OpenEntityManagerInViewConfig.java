@@ -0,0 +1,36 @@
+package fa.academy.kiotviet.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open EntityManager in View, as Spring Boot registers it by default, except for endpoints that
+ * wait on a bounded worker pool (password hashing on login, company logo processing).
+ *
+ * <p>A request-scoped EntityManager keeps the first connection Hibernate acquires until the
+ * request completes, so such a request would hold a pooled connection while it waits and the
+ * connection pool, not the worker queue, would limit it. Those endpoints do their database work
+ * in short transactions instead.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    static final String[] EXCLUDED_PATHS = {
+            "/api/auth/login",
+            "/api/company/logo"
+    };
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns(EXCLUDED_PATHS);
+    }
+}
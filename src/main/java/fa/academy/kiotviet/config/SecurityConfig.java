@@ -1,10 +1,14 @@
 package fa.academy.kiotviet.config;
 
+import fa.academy.kiotviet.infrastructure.metering.TenantMeteringFilter;
 import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
+import fa.academy.kiotviet.infrastructure.security.PermissionBitsEvaluator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -37,6 +41,7 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final TenantMeteringFilter tenantMeteringFilter;
 
     /**
      * Configures password encoder for hashing user passwords.
@@ -49,6 +54,20 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Routes {@code hasPermission(...)} in {@code @PreAuthorize} to the bitset-based evaluator.
+     * Static so method security can be set up without initializing this configuration early.
+     *
+     * @param permissionEvaluator bitset permission evaluator
+     * @return expression handler used by method security
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(PermissionBitsEvaluator permissionEvaluator) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(permissionEvaluator);
+        return handler;
+    }
+
     /**
      * Configures HTTP security for the application.
      * JWT authentication is required for most API endpoints.
@@ -145,7 +164,8 @@ public class SecurityConfig {
                     }
                 })
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(tenantMeteringFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,24 +1,21 @@
 package fa.academy.kiotviet.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import fa.academy.kiotviet.infrastructure.storage.UploadedFileRequestHandler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Map;
 
 @Configuration
-public class WebResourceConfig implements WebMvcConfigurer {
+public class WebResourceConfig {
 
-    @Value("${app.storage.upload-dir:uploads}")
-    private String uploadDir;
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-        String resourceLocation = uploadPath.toUri().toString();
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(resourceLocation);
+    /**
+     * Uploaded files, served with caching headers, conditional and range requests instead of
+     * Spring's resource handler defaults.
+     */
+    @Bean
+    public SimpleUrlHandlerMapping uploadsHandlerMapping(UploadedFileRequestHandler uploadedFileRequestHandler) {
+        return new SimpleUrlHandlerMapping(Map.of("/uploads/**", uploadedFileRequestHandler), 0);
     }
 }
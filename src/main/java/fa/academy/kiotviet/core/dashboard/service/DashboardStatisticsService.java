@@ -6,6 +6,10 @@ import fa.academy.kiotviet.core.orders.repository.OrderItemRepository;
 import fa.academy.kiotviet.core.orders.repository.OrderRepository;
 import fa.academy.kiotviet.core.productcatalog.domain.Product;
 import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.domain.Category;
+import fa.academy.kiotviet.core.productcatalog.repository.CategoryRepository;
+import fa.academy.kiotviet.core.productcatalog.service.ProductInventoryValuation;
+import fa.academy.kiotviet.core.productcatalog.service.ProductStockCounters;
 import fa.academy.kiotviet.core.suppliers.domain.Supplier;
 import fa.academy.kiotviet.core.suppliers.repository.SupplierRepository;
 import fa.academy.kiotviet.core.tenant.domain.Company;
@@ -33,6 +37,9 @@ public class DashboardStatisticsService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
+    private final ProductStockCounters productStockCounters;
+    private final ProductInventoryValuation productInventoryValuation;
+    private final CategoryRepository categoryRepository;
     private final SupplierRepository supplierRepository;
     private final UserInfoRepository userInfoRepository;
 
@@ -41,11 +48,12 @@ public class DashboardStatisticsService {
             LocalDateTime now = LocalDateTime.now();
 
             // Basic counts
-            Long totalProducts = productRepository.countByCompanyId(companyId);
+            ProductStockCounters.StockCounts stock = productStockCounters.counts(companyId);
+            Long totalProducts = stock.total();
             Long totalOrders = orderRepository.countByCompanyId(companyId);
             Long totalCustomers = userInfoRepository.countActiveCustomersByCompanyId(companyId);
             Long totalSuppliers = supplierRepository.countByCompanyId(companyId);
-            Long inventoryItems = productRepository.countByCompanyIdAndIsTrackedTrue(companyId);
+            Long inventoryItems = stock.tracked();
 
             // Revenue statistics for different periods
             RevenueStatisticsDto todayRevenue = getRevenueStatistics(companyId, now.toLocalDate(), now.toLocalDate(),
@@ -67,9 +75,9 @@ public class DashboardStatisticsService {
             List<PaymentMethodDto> paymentMethodStats = getPaymentMethodStatistics(companyId);
 
             // Inventory alerts
-            Long lowStockCount = productRepository.countLowStockProducts(companyId);
-            Long outOfStockCount = productRepository.countOutOfStockProducts(companyId);
-            BigDecimal totalInventoryValue = productRepository.getTotalInventoryValue(companyId);
+            Long lowStockCount = stock.belowMinimum();
+            Long outOfStockCount = stock.outOfStock();
+            ProductInventoryValuation.StockValue inventoryValue = productInventoryValuation.total(companyId);
 
             // Growth calculations
             BigDecimal dailyGrowth = calculateGrowthRate(todayRevenue.getTotalRevenue(),
@@ -102,7 +110,8 @@ public class DashboardStatisticsService {
                     .paymentMethodStats(paymentMethodStats)
                     .lowStockCount(lowStockCount)
                     .outOfStockCount(outOfStockCount)
-                    .totalInventoryValue(totalInventoryValue)
+                    .totalInventoryValue(inventoryValue.retail())
+                    .totalInventoryCostValue(inventoryValue.cost())
                     .dailyGrowth(dailyGrowth)
                     .weeklyGrowth(weeklyGrowth)
                     .monthlyGrowth(monthlyGrowth)
@@ -479,20 +488,25 @@ public class DashboardStatisticsService {
         }
     }
 
-    public Map<String, Object> getInventoryStatus(Long companyId) {
+    public Map<String, Object> getInventoryStatus(Long companyId, boolean byCategory) {
         try {
-            Long lowStockCount = productRepository.countLowStockProducts(companyId);
-            Long outOfStockCount = productRepository.countOutOfStockProducts(companyId);
-            BigDecimal totalInventoryValue = productRepository.getTotalInventoryValue(companyId);
-            Long totalProducts = productRepository.countByCompanyId(companyId);
-            Long trackedProducts = productRepository.countByCompanyIdAndIsTrackedTrue(companyId);
+            ProductStockCounters.StockCounts stock = productStockCounters.counts(companyId);
+            Long lowStockCount = stock.belowMinimum();
+            Long outOfStockCount = stock.outOfStock();
+            ProductInventoryValuation.StockValue inventoryValue = productInventoryValuation.total(companyId);
+            Long totalProducts = stock.total();
+            Long trackedProducts = stock.tracked();
 
             Map<String, Object> inventoryStatus = new HashMap<>();
             inventoryStatus.put("totalProducts", totalProducts);
             inventoryStatus.put("trackedProducts", trackedProducts);
             inventoryStatus.put("lowStockCount", lowStockCount);
             inventoryStatus.put("outOfStockCount", outOfStockCount);
-            inventoryStatus.put("totalInventoryValue", totalInventoryValue);
+            inventoryStatus.put("totalInventoryValue", inventoryValue.retail());
+            inventoryStatus.put("totalInventoryCostValue", inventoryValue.cost());
+            if (byCategory) {
+                inventoryStatus.put("inventoryValueByCategory", getInventoryValueByCategory(companyId));
+            }
             inventoryStatus.put("lastUpdated", LocalDateTime.now());
 
             return inventoryStatus;
@@ -502,6 +516,31 @@ public class DashboardStatisticsService {
         }
     }
 
+    /**
+     * Stock value per category, highest retail value first
+     */
+    private List<CategoryInventoryValueDto> getInventoryValueByCategory(Long companyId) {
+        Map<Long, ProductInventoryValuation.StockValue> values = productInventoryValuation.byCategory(companyId);
+        Map<Long, Category> categories = categoryRepository.findAllById(
+                values.keySet().stream().filter(Objects::nonNull).toList()).stream()
+                .filter(c -> c.getCompany() != null && companyId.equals(c.getCompany().getId()))
+                .collect(Collectors.toMap(Category::getId, c -> c));
+
+        return values.entrySet().stream()
+                .map(entry -> {
+                    Category category = entry.getKey() != null ? categories.get(entry.getKey()) : null;
+                    return CategoryInventoryValueDto.builder()
+                            .categoryId(entry.getKey())
+                            .categoryName(category != null ? category.getName() : "Uncategorized")
+                            .categoryPath(category != null ? category.getPath() : null)
+                            .retailValue(entry.getValue().retail())
+                            .costValue(entry.getValue().cost())
+                            .build();
+                })
+                .sorted(Comparator.comparing(CategoryInventoryValueDto::getRetailValue).reversed())
+                .collect(Collectors.toList());
+    }
+
     public Map<String, BigDecimal> getGrowthMetrics(Long companyId) {
         try {
             LocalDateTime now = LocalDateTime.now();
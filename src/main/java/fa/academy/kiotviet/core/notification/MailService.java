@@ -0,0 +1,10 @@
+package fa.academy.kiotviet.core.notification;
+
+public interface MailService {
+
+    /**
+     * Queue a plain-text e-mail. Delivery happens asynchronously; the message is written in the
+     * caller's transaction, so it is sent only if that transaction commits.
+     */
+    void send(String to, String subject, String body);
+}
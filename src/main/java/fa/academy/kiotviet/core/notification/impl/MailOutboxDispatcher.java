@@ -0,0 +1,186 @@
+package fa.academy.kiotviet.core.notification.impl;
+
+import fa.academy.kiotviet.core.notification.domain.MailOutboxMessage;
+import fa.academy.kiotviet.core.notification.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued e-mail from the mail_outbox table.
+ *
+ * <p>Each run claims a batch of due rows under a lease and hands the whole batch to
+ * {@link JavaMailSender#send(SimpleMailMessage...)}, which delivers it over a single SMTP
+ * connection. Failed messages are retried with exponential backoff until
+ * {@code app.mail.outbox.max-attempts}, then marked FAILED. The body is cleared once a message
+ * is SENT or FAILED, since it may carry a password reset link or 2FA code; ExpiredTokenPurger
+ * deletes those rows after {@code app.mail.outbox.retention}.
+ */
+@Component
+@Slf4j
+public class MailOutboxDispatcher {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final ObjectProvider<JavaMailSender> mailSenderProvider;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.mail.from:}")
+    private String fromAddress;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                ObjectProvider<JavaMailSender> mailSenderProvider,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                                @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                                @Value("${app.mail.outbox.base-backoff:30s}") Duration baseBackoff,
+                                @Value("${app.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                                @Value("${app.mail.outbox.lease:5m}") Duration lease) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSenderProvider = mailSenderProvider;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        Gauge.builder("mail.outbox.pending", pendingCount, AtomicLong::get)
+            .description("E-mails waiting in the outbox")
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.outbox.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failed")
+            .description("E-mails given up on after the maximum number of attempts")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        try {
+            // Drain everything due, one batch (one SMTP connection) at a time
+            while (dispatchBatch() == batchSize) {
+                // keep going while batches come back full
+            }
+            pendingCount.set(mailOutboxRepository.countByStatus(MailOutboxMessage.Status.PENDING));
+        } catch (Exception e) {
+            log.warn("Mail outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private int dispatchBatch() {
+        JavaMailSender mailSender = mailSenderProvider.getIfAvailable();
+        if (mailSender == null) {
+            return 0;
+        }
+
+        String claimant = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = mailOutboxRepository.claimDue(claimant, now, now.plus(lease), batchSize);
+        if (claimed == 0) {
+            return 0;
+        }
+
+        List<MailOutboxMessage> batch =
+            mailOutboxRepository.findByClaimedByAndStatusOrderByIdAsc(claimant, MailOutboxMessage.Status.PENDING);
+        Map<SimpleMailMessage, MailOutboxMessage> byMail = new IdentityHashMap<>();
+        for (MailOutboxMessage row : batch) {
+            byMail.put(toMail(row), row);
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(byMail.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(byMail, e);
+            }
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing in the batch was sent
+            failures = allFailed(byMail, e);
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        for (Map.Entry<SimpleMailMessage, MailOutboxMessage> entry : byMail.entrySet()) {
+            MailOutboxMessage row = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            row.setAttempts(row.getAttempts() + 1);
+            row.setClaimedBy(null);
+            row.setClaimedUntil(null);
+            if (failure == null) {
+                row.setStatus(MailOutboxMessage.Status.SENT);
+                row.setSentAt(finishedAt);
+                row.setBody(null);
+                row.setLastError(null);
+                sentCounter.increment();
+            } else {
+                recordFailure(row, failure, finishedAt);
+            }
+        }
+        mailOutboxRepository.saveAll(byMail.values());
+        return claimed;
+    }
+
+    private void recordFailure(MailOutboxMessage row, Exception failure, LocalDateTime now) {
+        String error = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+        row.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(MailOutboxMessage.Status.FAILED);
+            row.setBody(null);
+            failedCounter.increment();
+            log.error("Giving up on e-mail {} to {} after {} attempts: {}", row.getId(), row.getRecipient(), row.getAttempts(), error);
+        } else {
+            row.setNextAttemptAt(now.plus(backoff(row.getAttempts())));
+            retriedCounter.increment();
+            log.warn("E-mail {} to {} failed (attempt {}), retrying at {}: {}",
+                row.getId(), row.getRecipient(), row.getAttempts(), row.getNextAttemptAt(), error);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = baseBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private SimpleMailMessage toMail(MailOutboxMessage row) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(row.getRecipient());
+        message.setSubject(row.getSubject());
+        message.setText(row.getBody());
+        if (fromAddress != null && !fromAddress.isBlank()) {
+            message.setFrom(fromAddress);
+        }
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<SimpleMailMessage, MailOutboxMessage> byMail, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        byMail.keySet().forEach(mail -> failures.put(mail, e));
+        return failures;
+    }
+}
@@ -0,0 +1,32 @@
+package fa.academy.kiotviet.core.notification.impl;
+
+import fa.academy.kiotviet.core.notification.MailService;
+import fa.academy.kiotviet.core.notification.domain.MailOutboxMessage;
+import fa.academy.kiotviet.core.notification.repository.MailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxMailService implements MailService {
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    @Override
+    @Transactional
+    public void send(String to, String subject, String body) {
+        if (to == null || to.isBlank()) {
+            log.warn("Dropping e-mail '{}' without recipient", subject);
+            return;
+        }
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setBody(body);
+        mailOutboxRepository.save(message);
+        log.debug("Queued e-mail '{}' to {} (outbox id {})", subject, to, message.getId());
+    }
+}
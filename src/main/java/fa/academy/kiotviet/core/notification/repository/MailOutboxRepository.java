@@ -0,0 +1,40 @@
+package fa.academy.kiotviet.core.notification.repository;
+
+import fa.academy.kiotviet.core.notification.domain.MailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    /**
+     * Claim up to {@code limit} due messages for one dispatcher. The lease lets another node
+     * pick the rows up again if this one dies mid-batch.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE mail_outbox
+            SET claimed_by = :claimant, claimed_until = :leaseUntil
+            WHERE status = 'PENDING'
+              AND next_attempt_at <= :now
+              AND (claimed_until IS NULL OR claimed_until < :now)
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    int claimDue(@Param("claimant") String claimant,
+                 @Param("now") LocalDateTime now,
+                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                 @Param("limit") int limit);
+
+    List<MailOutboxMessage> findByClaimedByAndStatusOrderByIdAsc(String claimedBy, MailOutboxMessage.Status status);
+
+    long countByStatus(MailOutboxMessage.Status status);
+}
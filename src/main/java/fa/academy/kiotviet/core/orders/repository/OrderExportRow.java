@@ -0,0 +1,37 @@
+package fa.academy.kiotviet.core.orders.repository;
+
+import fa.academy.kiotviet.core.orders.domain.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the order history export, selected as a projection so streamed rows are never
+ * managed entities.
+ */
+public record OrderExportRow(
+        String orderCode,
+        LocalDateTime orderDate,
+        String customerName,
+        String phoneNumber,
+        Order.OrderStatus status,
+        Order.PaymentMethod paymentMethod,
+        BigDecimal subtotal,
+        BigDecimal discount,
+        BigDecimal paidAmount,
+        String cashier,
+        String note) {
+
+    public static final String[] HEADER = {
+        "Order Code", "Order Date", "Customer", "Phone", "Status", "Payment Method",
+        "Subtotal", "Discount", "Total", "Paid", "Cashier", "Note"
+    };
+
+    public Object[] cells() {
+        BigDecimal total = subtotal.subtract(discount).max(BigDecimal.ZERO);
+        return new Object[] {
+            orderCode, orderDate, customerName, phoneNumber, status, paymentMethod,
+            subtotal, discount, total, paidAmount, cashier, note
+        };
+    }
+}
@@ -54,4 +54,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<Object[]> getTopCategoriesByCompanyIdAndDateRange(@Param("companyId") Long companyId,
             @Param("startDateTime") LocalDateTime startDateTime,
             @Param("endDateTime") LocalDateTime endDateTime, Pageable pageable);
+
+    // Units sold per product since a point in time (product autocomplete ranking)
+    @Query("select oi.product.id, sum(oi.quantity) from OrderItem oi where oi.company.id = :companyId " +
+            "and oi.product is not null and oi.order.orderDate >= :since and oi.order.status <> 'CANCELLED' " +
+            "group by oi.product.id")
+    List<Object[]> sumQuantityByProductSince(@Param("companyId") Long companyId,
+            @Param("since") LocalDateTime since);
 }
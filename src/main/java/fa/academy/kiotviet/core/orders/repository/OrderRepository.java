@@ -1,11 +1,15 @@
 package fa.academy.kiotviet.core.orders.repository;
 
 import fa.academy.kiotviet.core.orders.domain.Order;
+import fa.academy.kiotviet.infrastructure.persistence.StreamingQueries;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
@@ -38,6 +43,35 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
                      @Param("q") String q,
                      Pageable pageable);
 
+       /**
+        * Same filters as {@link #search}, as a row stream for exports; close the stream and
+        * consume it inside a transaction.
+        */
+       @QueryHints({
+                     @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.MYSQL_STREAMING_FETCH_SIZE),
+                     @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+       })
+       @Query("select new fa.academy.kiotviet.core.orders.repository.OrderExportRow(" +
+                     "o.orderCode, o.orderDate, o.customerName, coalesce(o.phoneNumber, c.phone), o.status, " +
+                     "o.paymentMethod, o.subtotal, o.discount, o.paidAmount, o.cashier, o.note) " +
+                     "from Order o " +
+                     "left join fa.academy.kiotviet.core.customers.domain.Customer c " +
+                     "  on c.company.id = o.company.id and lower(c.name) = lower(o.customerName) " +
+                     "where o.company.id = :companyId and " +
+                     "(:status is null or o.status = :status) and " +
+                     "(:fromDate is null or o.orderDate >= :fromDate) and " +
+                     "(:toDate is null or o.orderDate <= :toDate) and " +
+                     "(:q is null or lower(o.orderCode) like lower(concat('%', :q, '%')) or " +
+                     " lower(o.customerName) like lower(concat('%', :q, '%')) or " +
+                     " lower(coalesce(o.phoneNumber, c.phone)) like lower(concat('%', :q, '%'))) " +
+                     "order by o.orderDate desc, o.id desc")
+       Stream<OrderExportRow> streamForExport(
+                     @Param("companyId") Long companyId,
+                     @Param("status") Order.OrderStatus status,
+                     @Param("fromDate") LocalDateTime fromDate,
+                     @Param("toDate") LocalDateTime toDate,
+                     @Param("q") String q);
+
        List<Order> findByCompany_IdAndIdIn(Long companyId, Collection<Long> ids);
 
        // Dashboard specific queries
@@ -4,13 +4,18 @@ import fa.academy.kiotviet.application.dto.orders.request.OrderCreateItem;
 import fa.academy.kiotviet.application.dto.orders.request.OrderCreateRequest;
 import fa.academy.kiotviet.core.orders.domain.Order;
 import fa.academy.kiotviet.core.orders.domain.OrderItem;
+import fa.academy.kiotviet.core.orders.repository.OrderExportRow;
 import fa.academy.kiotviet.core.orders.repository.OrderItemRepository;
 import fa.academy.kiotviet.core.orders.repository.OrderRepository;
 import fa.academy.kiotviet.core.tenant.domain.Company;
 import fa.academy.kiotviet.core.productcatalog.domain.Product;
 import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import fa.academy.kiotviet.core.productcatalog.service.ProductChangeFeed;
 import jakarta.transaction.Transactional;
 import fa.academy.kiotviet.infrastructure.security.SecurityUtil;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetFormat;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -18,10 +23,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +38,7 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
+    private final ProductChangeFeed productChangeFeed;
 
     public Page<Order> list(Long companyId, int page, int size, String q, String status, String fromDate, String toDate) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "orderDate"));
@@ -44,6 +53,28 @@ public class OrderService {
         return orderRepository.search(companyId, st, from, to, query, pageable);
     }
 
+    /**
+     * Write the orders matching the list filters, newest first, to {@code out}. Rows are
+     * streamed from a forward-only cursor straight into the file.
+     */
+    @Transactional
+    public void export(Long companyId, String q, String status, String fromDate, String toDate,
+                       SpreadsheetFormat format, OutputStream out) throws IOException {
+        Order.OrderStatus st = null;
+        if (status != null && !status.isBlank()) {
+            try { st = Order.OrderStatus.valueOf(status.trim().toUpperCase()); } catch (Exception ignored) { }
+        }
+        String query = (q != null && !q.isBlank()) ? q.trim() : null;
+
+        try (Stream<OrderExportRow> rows = orderRepository.streamForExport(
+                    companyId, st, parseDate(fromDate, true), parseDate(toDate, false), query);
+             SpreadsheetWriter writer = SpreadsheetWriter.open(format, out, "Orders", OrderExportRow.HEADER)) {
+            for (OrderExportRow row : (Iterable<OrderExportRow>) rows::iterator) {
+                writer.row(row.cells());
+            }
+        }
+    }
+
     @Transactional
     public void deleteBulk(Long companyId, List<Long> ids) {
         if (ids == null || ids.isEmpty()) return;
@@ -171,12 +202,21 @@ public class OrderService {
             final int qty = oi.getQuantity();
             productRepository.findWithLockByIdAndCompany_Id(pid, companyId).ifPresent(p -> {
                 if (Boolean.TRUE.equals(p.getIsTracked())) {
+                    ProductSnapshot before = ProductSnapshot.from(p);
                     int onHand = p.getOnHand() != null ? p.getOnHand() : 0;
                     p.setOnHand(onHand - qty);
                     productRepository.save(p);
+                    productChangeFeed.productChanged(before, p);
                 }
             });
         }
+        // Sales feed product ranking (autocomplete), tracked or not
+        java.util.Map<Long, Integer> sold = new java.util.HashMap<>();
+        for (OrderItem oi : items) {
+            if (oi.getProduct() == null || oi.getProduct().getId() == null || oi.getQuantity() == null) continue;
+            sold.merge(oi.getProduct().getId(), oi.getQuantity(), Integer::sum);
+        }
+        productChangeFeed.productsSold(companyId, sold);
         return saved;
     }
 
@@ -322,11 +362,19 @@ public class OrderService {
             final int applyDelta = delta;
             productRepository.findWithLockByIdAndCompany_Id(pid, companyId).ifPresent(p -> {
                 if (!Boolean.TRUE.equals(p.getIsTracked())) return;
+                ProductSnapshot before = ProductSnapshot.from(p);
                 int onHand = p.getOnHand()!=null?p.getOnHand():0;
                 p.setOnHand(onHand - applyDelta);
                 productRepository.save(p);
+                productChangeFeed.productChanged(before, p);
             });
         }
+        java.util.Map<Long, Integer> soldDelta = new java.util.HashMap<>();
+        for (Long pid : keys) {
+            int delta = newMap.getOrDefault(pid, 0) - prevMap.getOrDefault(pid, 0);
+            if (delta != 0) soldDelta.put(pid, delta);
+        }
+        productChangeFeed.productsSold(companyId, soldDelta);
         return saved;
     }
 
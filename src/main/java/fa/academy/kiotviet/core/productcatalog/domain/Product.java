@@ -1,5 +1,6 @@
 package fa.academy.kiotviet.core.productcatalog.domain;
 
+import fa.academy.kiotviet.core.shared.util.TextNormalizer;
 import fa.academy.kiotviet.core.suppliers.domain.Supplier;
 import fa.academy.kiotviet.core.tenant.domain.Company;
 import jakarta.persistence.*;
@@ -36,15 +37,28 @@ import java.time.LocalDateTime;
         @Index(name = "idx_company_supplier", columnList = "company_id,supplier_id"),
         @Index(name = "idx_company_brand", columnList = "company_id,brand_id"),
         @Index(name = "idx_company_status", columnList = "company_id,status"),
-        @Index(name = "idx_company_low_stock", columnList = "company_id,on_hand,min_level")
+        @Index(name = "idx_company_low_stock", columnList = "company_id,on_hand,min_level"),
+        @Index(name = "idx_company_stock_status", columnList = "company_id,stock_status"),
+        @Index(name = "idx_company_updated", columnList = "company_id,updated_at,id")
     }
 )
+@NamedEntityGraph(name = Product.WITH_RELATIONS, attributeNodes = {
+    @NamedAttributeNode("category"),
+    @NamedAttributeNode("supplier"),
+    @NamedAttributeNode("brand")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    /**
+     * Entity graph for listings mapped to ProductDto: fetches category, supplier and brand in the
+     * same SELECT instead of one lazy load per row.
+     */
+    public static final String WITH_RELATIONS = "Product.withRelations";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -67,12 +81,20 @@ public class Product {
     @Column(name = "barcode")
     private String barcode;
 
+    // Folded name, SKU and barcode for accent-insensitive full-text search; maintained on save
+    @Column(name = "search_text", length = 512)
+    private String searchText;
+
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
     @Column(name = "image")
     private String image;
 
+    // Small variant of the primary image for list views; null when the image has no variants
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
     @NotNull(message = "Selling price is required")
     @DecimalMin(value = "0.0", inclusive = false, message = "Selling price must be greater than 0")
     @Digits(integer = 10, fraction = 2, message = "Selling price must have up to 10 digits and 2 decimal places")
@@ -109,6 +131,12 @@ public class Product {
     @Builder.Default
     private Boolean isTracked = true;
 
+    // Derived from isTracked, onHand and the levels on every save, so stock alerts are index lookups
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stock_status", nullable = false)
+    @Builder.Default
+    private StockStatus stockStatus = StockStatus.OUT_OF_STOCK;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", foreignKey = @ForeignKey(name = "fk_product_category"))
@@ -134,11 +162,27 @@ public class Product {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        searchText = buildSearchText(name, sku, barcode);
+        stockStatus = StockStatus.of(isTracked, onHand, minLevel, maxLevel);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        searchText = buildSearchText(name, sku, barcode);
+        stockStatus = StockStatus.of(isTracked, onHand, minLevel, maxLevel);
+    }
+
+    /**
+     * Value of the {@code search_text} column: e.g. "Cà phê sữa", "CF-01" -> "ca phe sua cf-01".
+     * Writers that bypass JPA (bulk JDBC) must store the same value.
+     */
+    public static String buildSearchText(String name, String sku, String barcode) {
+        String text = java.util.stream.Stream.of(name, sku, barcode)
+                .map(TextNormalizer::fold)
+                .filter(part -> !part.isEmpty())
+                .collect(java.util.stream.Collectors.joining(" "));
+        return text.length() > 512 ? text.substring(0, 512) : text;
     }
 
     // Business logic helper methods
@@ -183,7 +227,7 @@ public class Product {
      * Check if stock exceeds maximum level
      */
     public boolean isOverstocked() {
-        return maxLevel != null && maxLevel > 0 && onHand != null && onHand >= maxLevel;
+        return maxLevel != null && maxLevel > 0 && onHand != null && onHand > maxLevel;
     }
 
     /**
@@ -196,20 +240,8 @@ public class Product {
     /**
      * Get stock status description
      */
-    public String getStockStatus() {
-        if (!isTracked) {
-            return "Not Tracked";
-        }
-        if (isLowStock()) {
-            return "Low Stock";
-        }
-        if (isOverstocked()) {
-            return "Overstocked";
-        }
-        if (isInStock()) {
-            return "In Stock";
-        }
-        return "Out of Stock";
+    public String getStockStatusDisplayName() {
+        return StockStatus.of(isTracked, onHand, minLevel, maxLevel).getDisplayName();
     }
 
     /**
@@ -230,6 +262,54 @@ public class Product {
         return Math.max(suggestedOrder, 1);
     }
 
+    /**
+     * Stock level of a product, persisted in {@code stock_status} and indexed per company.
+     */
+    public enum StockStatus {
+        NOT_TRACKED("Not Tracked"),
+        OUT_OF_STOCK("Out of Stock"),
+        LOW_STOCK("Low Stock"),
+        IN_STOCK("In Stock"),
+        OVERSTOCKED("Overstocked");
+
+        /**
+         * {@link #of} as a SQL expression over the products columns, for writers that bypass JPA.
+         * In an UPDATE it must be assigned after the columns it reads.
+         */
+        public static final String SQL =
+            "CASE WHEN is_tracked IS NULL OR is_tracked = FALSE THEN 'NOT_TRACKED' " +
+            "WHEN on_hand IS NULL OR on_hand <= 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN on_hand <= min_level THEN 'LOW_STOCK' " +
+            "WHEN max_level > 0 AND on_hand > max_level THEN 'OVERSTOCKED' " +
+            "ELSE 'IN_STOCK' END";
+
+        private final String displayName;
+
+        StockStatus(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public static StockStatus of(Boolean tracked, Integer onHand, Integer minLevel, Integer maxLevel) {
+            if (!Boolean.TRUE.equals(tracked)) {
+                return NOT_TRACKED;
+            }
+            if (onHand == null || onHand <= 0) {
+                return OUT_OF_STOCK;
+            }
+            if (minLevel != null && onHand <= minLevel) {
+                return LOW_STOCK;
+            }
+            if (maxLevel != null && maxLevel > 0 && onHand > maxLevel) {
+                return OVERSTOCKED;
+            }
+            return IN_STOCK;
+        }
+    }
+
     /**
      * Product status enumeration
      */
@@ -53,6 +53,22 @@ public class ProductImage {
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
 
+    // SHA-256 of the uploaded file and its generated JPEG variants; null for images stored before variants
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Size(max = 500, message = "Small image URL must not exceed 500 characters")
+    @Column(name = "small_url")
+    private String smallUrl;
+
+    @Size(max = 500, message = "Medium image URL must not exceed 500 characters")
+    @Column(name = "medium_url")
+    private String mediumUrl;
+
+    @Size(max = 500, message = "Large image URL must not exceed 500 characters")
+    @Column(name = "large_url")
+    private String largeUrl;
+
     @Size(max = 255, message = "Alt text must not exceed 255 characters")
     @Column(name = "alt_text")
     private String altText;
@@ -163,9 +179,13 @@ public class ProductImage {
     }
 
     /**
-     * Get URL for thumbnail (assuming naming convention)
+     * Get URL for thumbnail: the small variant when one was generated, otherwise
+     * assuming the "_thumb" naming convention
      */
     public String getThumbnailUrl() {
+        if (smallUrl != null && !smallUrl.isBlank()) {
+            return smallUrl;
+        }
         if (imageUrl == null || imageUrl.trim().isEmpty()) {
             return "";
         }
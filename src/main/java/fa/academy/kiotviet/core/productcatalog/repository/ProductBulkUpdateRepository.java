@@ -0,0 +1,165 @@
+package fa.academy.kiotviet.core.productcatalog.repository;
+
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based bulk edits of the products matching a filter: one {@code UPDATE} for the whole
+ * selection instead of loading and saving each entity.
+ *
+ * <p>The product rules the JPA path checks in Java are part of the {@code WHERE} clause here, so
+ * a product whose new values would break them is left untouched rather than failing the whole
+ * update; callers compare {@link #count} with the updated count to report those. Rows written
+ * here bypass {@code Product}'s lifecycle callbacks and the change feed's per-product events.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkUpdateRepository {
+
+    /**
+     * Largest value of the DECIMAL(12, 2) price columns.
+     */
+    private static final BigDecimal MAX_PRICE = new BigDecimal("9999999999.99");
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public enum PriceMode {
+        /** Set the selling price to the value. */
+        SET,
+        /** Change the selling price by the value in percent, e.g. 10 or -15. */
+        ADJUST_PERCENT,
+        /** Add the value to the selling price; negative values lower it. */
+        ADJUST_AMOUNT
+    }
+
+    /**
+     * Products to update. Null fields do not filter; a category path matches the category and
+     * all of its descendants.
+     */
+    public record Filter(
+            String categoryPath,
+            Long supplierId,
+            Long brandId,
+            Product.ProductStatus status) {
+    }
+
+    /**
+     * New values for the matched products. Null fields keep the stored value.
+     */
+    public record Changes(
+            PriceMode priceMode,
+            BigDecimal priceValue,
+            Product.ProductStatus status,
+            Integer minLevel,
+            Integer maxLevel,
+            Boolean tracked) {
+    }
+
+    /**
+     * Number of products the filter matches, whether or not an update would change them.
+     */
+    public int count(Long companyId, Filter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource("companyId", companyId);
+        String sql = "SELECT COUNT(*) FROM products p WHERE " + where(filter, params);
+        Integer count = namedJdbcTemplate.queryForObject(sql, params, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Applies the changes to every matched product that still satisfies the product rules
+     * afterwards and returns how many were updated.
+     */
+    public int update(Long companyId, Filter filter, Changes changes) {
+        MapSqlParameterSource params = new MapSqlParameterSource("companyId", companyId)
+            .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        List<String> assignments = new ArrayList<>();
+        List<String> guards = new ArrayList<>();
+
+        if (changes.priceMode() != null) {
+            String price = priceExpression(changes.priceMode());
+            params.addValue("priceValue", changes.priceValue());
+            params.addValue("maxPrice", MAX_PRICE);
+            assignments.add("p.selling_price = " + price);
+            guards.add(price + " > p.cost_price");
+            guards.add(price + " <= :maxPrice");
+        }
+        if (changes.status() != null) {
+            assignments.add("p.status = :newStatus");
+            params.addValue("newStatus", changes.status().name());
+        }
+        if (changes.minLevel() != null) {
+            assignments.add("p.min_level = :minLevel");
+            params.addValue("minLevel", changes.minLevel());
+        }
+        if (changes.maxLevel() != null) {
+            assignments.add("p.max_level = :maxLevel");
+            params.addValue("maxLevel", changes.maxLevel());
+        }
+        if (changes.minLevel() != null || changes.maxLevel() != null) {
+            String min = changes.minLevel() != null ? ":minLevel" : "p.min_level";
+            String max = changes.maxLevel() != null ? ":maxLevel" : "p.max_level";
+            guards.add("(" + min + " IS NULL OR " + max + " IS NULL OR " + max + " = 0 OR " + min + " < " + max + ")");
+        }
+        if (changes.tracked() != null) {
+            assignments.add("p.is_tracked = :tracked");
+            params.addValue("tracked", changes.tracked());
+        }
+        if (changes.minLevel() != null || changes.maxLevel() != null || changes.tracked() != null) {
+            // After the columns it reads, so it sees their new values
+            assignments.add("p.stock_status = " + Product.StockStatus.SQL);
+        }
+        assignments.add("p.updated_at = :now");
+
+        StringBuilder sql = new StringBuilder("UPDATE products p SET ")
+            .append(String.join(", ", assignments))
+            .append(" WHERE ").append(where(filter, params));
+        for (String guard : guards) {
+            sql.append(" AND ").append(guard);
+        }
+        return namedJdbcTemplate.update(sql.toString(), params);
+    }
+
+    private static String priceExpression(PriceMode mode) {
+        return switch (mode) {
+            case SET -> ":priceValue";
+            case ADJUST_PERCENT -> "ROUND(p.selling_price * (100 + :priceValue) / 100, 2)";
+            case ADJUST_AMOUNT -> "(p.selling_price + :priceValue)";
+        };
+    }
+
+    private static String where(Filter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder("p.company_id = :companyId");
+        if (filter.categoryPath() != null) {
+            where.append(" AND p.category_id IN (SELECT c.id FROM categories c WHERE c.company_id = :companyId")
+                .append(" AND (c.path = :categoryPath OR c.path LIKE :categoryPathPrefix))");
+            params.addValue("categoryPath", filter.categoryPath());
+            params.addValue("categoryPathPrefix", escapeLike(filter.categoryPath()) + "/%");
+        }
+        if (filter.supplierId() != null) {
+            where.append(" AND p.supplier_id = :supplierId");
+            params.addValue("supplierId", filter.supplierId());
+        }
+        if (filter.brandId() != null) {
+            where.append(" AND p.brand_id = :brandId");
+            params.addValue("brandId", filter.brandId());
+        }
+        if (filter.status() != null) {
+            where.append(" AND p.status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        return where.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
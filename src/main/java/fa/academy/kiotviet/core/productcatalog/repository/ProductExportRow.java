@@ -0,0 +1,38 @@
+package fa.academy.kiotviet.core.productcatalog.repository;
+
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the product export, selected as a projection so streamed rows are never managed
+ * entities. Columns follow the product import file, so an export can be edited and imported back.
+ */
+public record ProductExportRow(
+        String sku,
+        String name,
+        String barcode,
+        String description,
+        BigDecimal sellingPrice,
+        BigDecimal costPrice,
+        Integer onHand,
+        Integer minLevel,
+        Integer maxLevel,
+        Product.ProductStatus status,
+        Boolean isTracked,
+        String category,
+        String supplier,
+        String brand) {
+
+    public static final String[] HEADER = {
+        "SKU", "Name", "Barcode", "Description", "Selling Price", "Cost Price", "On Hand",
+        "Min Level", "Max Level", "Status", "Tracked", "Category", "Supplier", "Brand"
+    };
+
+    public Object[] cells() {
+        return new Object[] {
+            sku, name, barcode, description, sellingPrice, costPrice, onHand,
+            minLevel, maxLevel, status, isTracked, category, supplier, brand
+        };
+    }
+}
@@ -0,0 +1,207 @@
+package fa.academy.kiotviet.core.productcatalog.repository;
+
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC access for the bulk product import: one lookup per chunk and batched writes, instead of
+ * the per-product existence checks and inserts of the JPA path. Rows written here bypass
+ * {@code Product}'s lifecycle callbacks, so callers supply {@code search_text} themselves and
+ * {@code stock_status} is derived in SQL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+
+    /**
+     * Inserts a new product. A SKU or barcode taken since the caller checked fails the statement
+     * instead of touching the product that holds it.
+     */
+    private static final String INSERT_SQL =
+        "INSERT INTO products (company_id, sku, name, barcode, search_text, description, selling_price, cost_price, " +
+        "on_hand, min_level, max_level, status, is_tracked, stock_status, category_id, supplier_id, brand_id, " +
+        "created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Updates the product with the row's SKU, keeping the stored value for every optional column
+     * sent as NULL. A new barcode held by another product fails on uk_company_barcode.
+     */
+    private static final String UPDATE_SQL =
+        "UPDATE products SET " +
+        "name = ?, " +
+        "barcode = COALESCE(?, barcode), " +
+        "search_text = ?, " +
+        "description = COALESCE(?, description), " +
+        "selling_price = ?, " +
+        "cost_price = ?, " +
+        "on_hand = COALESCE(?, on_hand), " +
+        "min_level = COALESCE(?, min_level), " +
+        "max_level = COALESCE(?, max_level), " +
+        "status = COALESCE(?, status), " +
+        "is_tracked = COALESCE(?, is_tracked), " +
+        "category_id = COALESCE(?, category_id), " +
+        "supplier_id = COALESCE(?, supplier_id), " +
+        "brand_id = COALESCE(?, brand_id), " +
+        // After the columns it reads, so it sees their new values
+        "stock_status = " + Product.StockStatus.SQL + ", " +
+        "updated_at = ? " +
+        "WHERE company_id = ? AND sku = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * One product row of an import. Nullable fields other than barcode and the relations mean
+     * "keep the stored value" for existing products, so callers fill defaults for new ones.
+     */
+    public record ImportRow(
+            int rowNumber,
+            String sku,
+            String name,
+            String barcode,
+            String searchText,
+            String description,
+            BigDecimal sellingPrice,
+            BigDecimal costPrice,
+            Integer onHand,
+            Integer minLevel,
+            Integer maxLevel,
+            String status,
+            Boolean tracked,
+            Long categoryId,
+            Long supplierId,
+            Long brandId) {
+    }
+
+    /**
+     * SKU and barcode of a stored product.
+     */
+    public record ProductCodes(String sku, String barcode) {
+    }
+
+    /**
+     * Id and name of a category, supplier or brand, for resolving names in the file.
+     */
+    public record NamedRef(Long id, String name) {
+    }
+
+    /**
+     * Products of the company holding any of the given SKUs or barcodes, in a single query.
+     * Matching follows the column collation (case-insensitive).
+     */
+    public List<ProductCodes> findCodes(Long companyId, Collection<String> skus, Collection<String> barcodes) {
+        if (skus.isEmpty() && barcodes.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("companyId", companyId);
+        StringBuilder sql = new StringBuilder("SELECT sku, barcode FROM products WHERE company_id = :companyId AND (");
+        if (!skus.isEmpty()) {
+            sql.append("sku IN (:skus)");
+            params.addValue("skus", skus);
+        }
+        if (!barcodes.isEmpty()) {
+            sql.append(skus.isEmpty() ? "" : " OR ").append("barcode IN (:barcodes)");
+            params.addValue("barcodes", barcodes);
+        }
+        sql.append(')');
+        return namedJdbcTemplate.query(sql.toString(), params,
+            (rs, i) -> new ProductCodes(rs.getString("sku"), rs.getString("barcode")));
+    }
+
+    public List<NamedRef> findCategories(Long companyId) {
+        return findNamed("SELECT id, name FROM categories WHERE company_id = ?", companyId);
+    }
+
+    public List<NamedRef> findSuppliers(Long companyId) {
+        return findNamed("SELECT id, name FROM suppliers WHERE company_id = ?", companyId);
+    }
+
+    public List<NamedRef> findBrands(Long companyId) {
+        return findNamed("SELECT id, name FROM brands WHERE company_id = ?", companyId);
+    }
+
+    /**
+     * Insert all rows as one JDBC batch (rewritten into multi-row statements by the driver).
+     */
+    public void insert(Long companyId, List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> bindInsert(ps, companyId, row, now));
+    }
+
+    /**
+     * Update all rows as one JDBC batch.
+     *
+     * @return rows matched per input row; 0 if the product no longer exists
+     */
+    public int[] update(Long companyId, List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, row) -> bindUpdate(ps, companyId, row, now));
+        return counts[0];
+    }
+
+    private List<NamedRef> findNamed(String sql, Long companyId) {
+        return jdbcTemplate.query(sql, (rs, i) -> new NamedRef(rs.getLong("id"), rs.getString("name")), companyId);
+    }
+
+    private static void bindInsert(PreparedStatement ps, Long companyId, ImportRow row, Timestamp now) throws SQLException {
+        ps.setLong(1, companyId);
+        ps.setString(2, row.sku());
+        ps.setString(3, row.name());
+        ps.setString(4, row.barcode());
+        ps.setString(5, row.searchText());
+        ps.setString(6, row.description());
+        ps.setBigDecimal(7, row.sellingPrice());
+        ps.setBigDecimal(8, row.costPrice());
+        ps.setObject(9, row.onHand(), Types.INTEGER);
+        ps.setObject(10, row.minLevel(), Types.INTEGER);
+        ps.setObject(11, row.maxLevel(), Types.INTEGER);
+        ps.setString(12, row.status());
+        ps.setObject(13, row.tracked(), Types.BOOLEAN);
+        ps.setString(14, Product.StockStatus.of(row.tracked(), row.onHand(), row.minLevel(), row.maxLevel()).name());
+        ps.setObject(15, row.categoryId(), Types.BIGINT);
+        ps.setObject(16, row.supplierId(), Types.BIGINT);
+        ps.setObject(17, row.brandId(), Types.BIGINT);
+        ps.setTimestamp(18, now);
+        ps.setTimestamp(19, now);
+    }
+
+    private static void bindUpdate(PreparedStatement ps, Long companyId, ImportRow row, Timestamp now) throws SQLException {
+        ps.setString(1, row.name());
+        ps.setString(2, row.barcode());
+        ps.setString(3, row.searchText());
+        ps.setString(4, row.description());
+        ps.setBigDecimal(5, row.sellingPrice());
+        ps.setBigDecimal(6, row.costPrice());
+        ps.setObject(7, row.onHand(), Types.INTEGER);
+        ps.setObject(8, row.minLevel(), Types.INTEGER);
+        ps.setObject(9, row.maxLevel(), Types.INTEGER);
+        ps.setString(10, row.status());
+        ps.setObject(11, row.tracked(), Types.BOOLEAN);
+        ps.setObject(12, row.categoryId(), Types.BIGINT);
+        ps.setObject(13, row.supplierId(), Types.BIGINT);
+        ps.setObject(14, row.brandId(), Types.BIGINT);
+        ps.setTimestamp(15, now);
+        ps.setLong(16, companyId);
+        ps.setString(17, row.sku());
+    }
+}
@@ -3,6 +3,8 @@ package fa.academy.kiotviet.core.productcatalog.repository;
 import fa.academy.kiotviet.core.productcatalog.domain.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -21,6 +23,11 @@ import java.util.Optional;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
+    // Product listing: relations are mapped into every ProductDto, so fetch them with the page
+    @Override
+    @EntityGraph(Product.WITH_RELATIONS)
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
     // Basic CRUD with tenant isolation
     Optional<Product> findByIdAndCompany_Id(Long id, Long companyId);
 
@@ -69,15 +76,20 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     @Query("select p from Product p where p.company.id = :companyId and p.isTracked = true and p.onHand <= p.minLevel")
     List<Product> findByCompany_IdAndOnHandLessThanMinLevel(@Param("companyId") Long companyId);
 
-    @Query("select p from Product p where p.company.id = :companyId and p.isTracked = true and " +
-           "p.onHand <= p.minLevel order by p.onHand asc")
+    // Stock alerts read the persisted stock status through idx_company_stock_status
+    @EntityGraph(Product.WITH_RELATIONS)
+    @Query("select p from Product p where p.company.id = :companyId and " +
+           "p.stockStatus in ('OUT_OF_STOCK', 'LOW_STOCK') order by p.onHand asc")
     List<Product> findLowStockProducts(@Param("companyId") Long companyId);
 
-    @Query("select p from Product p where p.company.id = :companyId and p.isTracked = true and " +
-           "p.onHand > p.maxLevel and p.maxLevel > 0 order by p.onHand desc")
+    @EntityGraph(Product.WITH_RELATIONS)
+    @Query("select p from Product p where p.company.id = :companyId and p.stockStatus = 'OVERSTOCKED' " +
+           "order by p.onHand desc")
     List<Product> findOverstockedProducts(@Param("companyId") Long companyId);
 
-    @Query("select p from Product p where p.company.id = :companyId and p.onHand = 0 order by p.name asc")
+    @EntityGraph(Product.WITH_RELATIONS)
+    @Query("select p from Product p where p.company.id = :companyId and p.stockStatus = 'OUT_OF_STOCK' " +
+           "order by p.name asc")
     List<Product> findOutOfStockProducts(@Param("companyId") Long companyId);
 
     // Search functionality
@@ -104,46 +116,17 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     List<Product> fullTextSearch(@Param("companyId") Long companyId, @Param("q") String q, Pageable pageable);
 
     // Price-based queries
+    @EntityGraph(Product.WITH_RELATIONS)
     @Query("select p from Product p where p.company.id = :companyId and p.sellingPrice between :minPrice and :maxPrice")
     List<Product> findByPriceRange(@Param("companyId") Long companyId,
                                  @Param("minPrice") java.math.BigDecimal minPrice,
                                  @Param("maxPrice") java.math.BigDecimal maxPrice);
 
     // Autocomplete functionality
-    @Query("select p from Product p where p.company.id = :companyId and p.status = 'ACTIVE' and " +
-           "lower(p.name) like lower(concat(:q, '%')) order by p.name asc")
-    List<Product> autocompleteProductNames(@Param("companyId") Long companyId, @Param("q") String q, Pageable pageable);
-
-    @Query("select p from Product p where p.company.id = :companyId and p.status = 'ACTIVE' and p.supplier.id = :supplierId and " +
-           "lower(p.name) like lower(concat(:q, '%')) order by p.name asc")
-    List<Product> autocompleteProductNamesBySupplier(@Param("companyId") Long companyId,
-                                                    @Param("supplierId") Long supplierId,
-                                                    @Param("q") String q,
-                                                    Pageable pageable);
-
     @Query("select p from Product p where p.company.id = :companyId and p.status = 'ACTIVE' and " +
            "lower(p.sku) like lower(concat(:q, '%')) order by p.sku asc")
     List<Product> autocompleteSkus(@Param("companyId") Long companyId, @Param("q") String q, Pageable pageable);
 
-    // Unified autocomplete: prefix match against name, sku, or barcode
-    @Query("select p from Product p where p.company.id = :companyId and p.status = 'ACTIVE' and (" +
-           "lower(p.name) like lower(concat(:q, '%')) or " +
-           "lower(p.sku) like lower(concat(:q, '%')) or " +
-           "lower(p.barcode) like lower(concat(:q, '%'))" +
-           ") order by p.name asc")
-    List<Product> autocompleteAll(@Param("companyId") Long companyId, @Param("q") String q, Pageable pageable);
-
-    // Unified autocomplete by supplier: prefix match against name, sku, or barcode
-    @Query("select p from Product p where p.company.id = :companyId and p.status = 'ACTIVE' and p.supplier.id = :supplierId and (" +
-           "lower(p.name) like lower(concat(:q, '%')) or " +
-           "lower(p.sku) like lower(concat(:q, '%')) or " +
-           "lower(p.barcode) like lower(concat(:q, '%'))" +
-           ") order by p.name asc")
-    List<Product> autocompleteAllBySupplier(@Param("companyId") Long companyId,
-                                            @Param("supplierId") Long supplierId,
-                                            @Param("q") String q,
-                                            Pageable pageable);
-
     // Count queries for reporting
     long countByCompany_IdAndStatus(Long companyId, Product.ProductStatus status);
 
@@ -153,14 +136,40 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     long countByCompany_IdAndBrandId(Long companyId, Long brandId);
 
-    @Query("select count(p) from Product p where p.company.id = :companyId and p.onHand = 0")
-    long countOutOfStockProducts(@Param("companyId") Long companyId);
-
-    @Query("select sum(p.onHand * p.sellingPrice) from Product p where p.company.id = :companyId")
-    java.math.BigDecimal getTotalInventoryValue(@Param("companyId") Long companyId);
 
-    @Query("select count(p) from Product p where p.company.id = :companyId and p.isTracked = true and p.onHand <= p.minLevel")
-    long countLowStockProducts(@Param("companyId") Long companyId);
+    // Stock value at retail and cost per category (null for uncategorized), see ProductInventoryValuation
+    @Query("select p.category.id, sum(p.onHand * p.sellingPrice), sum(p.onHand * p.costPrice) " +
+           "from Product p where p.company.id = :companyId group by p.category.id")
+    List<Object[]> sumInventoryValueByCategory(@Param("companyId") Long companyId);
+
+    // Products per category (null for uncategorized), discontinued ones excluded; see CategoryTreeCache
+    @Query("select p.category.id, count(p) from Product p where p.company.id = :companyId " +
+           "and p.status <> fa.academy.kiotviet.core.productcatalog.domain.Product.ProductStatus.DISCONTINUED " +
+           "group by p.category.id")
+    List<Object[]> countByCategory(@Param("companyId") Long companyId);
+
+    // Products per stock status, counted on idx_company_stock_status (see ProductStockCounters)
+    @Query("select p.stockStatus, count(p) from Product p where p.company.id = :companyId group by p.stockStatus")
+    List<Object[]> countByStockStatus(@Param("companyId") Long companyId);
+
+    // In-memory catalog indexes: products as compact snapshots (see ProductCodeIndex, ProductAutocompleteIndex)
+    @Query("select new fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot(" +
+           "p.id, p.sku, p.barcode, p.name, p.sellingPrice, p.costPrice, p.onHand, p.status, p.stockStatus, " +
+           "s.id, c.id, p.updatedAt) " +
+           "from Product p left join p.supplier s left join p.category c where p.company.id = :companyId")
+    List<ProductSnapshot> findSnapshotsByCompanyId(@Param("companyId") Long companyId);
+
+    // Catalog sync: keyset page over idx_company_updated (company_id, updated_at, id)
+    @Query("select new fa.academy.kiotviet.core.productcatalog.repository.ProductSyncRow(" +
+           "p.id, p.sku, p.barcode, p.name, p.sellingPrice, p.onHand, p.status, p.isTracked, p.updatedAt) " +
+           "from Product p where p.company.id = :companyId and p.updatedAt <= :until and " +
+           "(p.updatedAt > :since or (p.updatedAt = :since and p.id > :afterId)) " +
+           "order by p.updatedAt asc, p.id asc")
+    List<ProductSyncRow> findChangedSince(@Param("companyId") Long companyId,
+                                          @Param("since") java.time.LocalDateTime since,
+                                          @Param("afterId") Long afterId,
+                                          @Param("until") java.time.LocalDateTime until,
+                                          Pageable pageable);
 
     // Batch operations
     List<Product> findByCompany_IdAndIdIn(Long companyId, List<Long> ids);
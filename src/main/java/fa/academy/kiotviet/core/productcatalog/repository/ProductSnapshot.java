@@ -0,0 +1,56 @@
+package fa.academy.kiotviet.core.productcatalog.repository;
+
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact, immutable view of a product held by the in-memory catalog indexes
+ * (code lookup, autocomplete, stock counters, valuation) without loading the entity or its
+ * relationships.
+ */
+public record ProductSnapshot(
+        Long id,
+        String sku,
+        String barcode,
+        String name,
+        BigDecimal sellingPrice,
+        BigDecimal costPrice,
+        Integer onHand,
+        Product.ProductStatus status,
+        Product.StockStatus stockStatus,
+        Long supplierId,
+        Long categoryId,
+        LocalDateTime updatedAt) {
+
+    public static ProductSnapshot from(Product product) {
+        return new ProductSnapshot(
+                product.getId(),
+                product.getSku(),
+                product.getBarcode(),
+                product.getName(),
+                product.getSellingPrice(),
+                product.getCostPrice(),
+                product.getOnHand(),
+                product.getStatus(),
+                product.getStockStatus(),
+                product.getSupplier() != null ? product.getSupplier().getId() : null,
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getUpdatedAt());
+    }
+
+    /**
+     * Mirrors {@link Product#isAvailable()}.
+     */
+    public boolean isAvailable() {
+        return status == Product.ProductStatus.ACTIVE && onHand != null && onHand > 0;
+    }
+
+    public String displayName() {
+        if (sku != null && !sku.trim().isEmpty()) {
+            return String.format("%s - %s", sku, name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package fa.academy.kiotviet.core.productcatalog.repository;
+
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One product of the catalog change feed for POS clients, selected as a projection in
+ * {@code (updated_at, id)} order.
+ */
+public record ProductSyncRow(
+        Long id,
+        String sku,
+        String barcode,
+        String name,
+        BigDecimal sellingPrice,
+        Integer onHand,
+        Product.ProductStatus status,
+        Boolean isTracked,
+        LocalDateTime updatedAt) {
+}
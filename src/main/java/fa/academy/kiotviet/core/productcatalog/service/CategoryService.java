@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeCache categoryTreeCache;
     private static final int MAX_HIERARCHY_DEPTH = 10;
     private static final int MAX_CATEGORY_NAME_LENGTH = 255;
 
@@ -32,6 +33,13 @@ public class CategoryService {
         return categoryRepository.findByCompany_IdAndIsActiveOrderByLevelAscSortOrderAscNameAsc(companyId, true);
     }
 
+    /**
+     * Get the company's active categories as a cached tree with product counts
+     */
+    public CategoryTreeCache.CategoryTree getCategoryTree(Long companyId) {
+        return categoryTreeCache.get(companyId);
+    }
+
     /**
      * Get root categories (level 0) for a company
      */
@@ -95,6 +103,7 @@ public class CategoryService {
                 .isActive(true)
                 .build();
 
+        categoryTreeCache.invalidate(companyId);
         return categoryRepository.save(category);
     }
 
@@ -137,6 +146,7 @@ public class CategoryService {
                 .isActive(true)
                 .build();
 
+        categoryTreeCache.invalidate(companyId);
         return categoryRepository.save(category);
     }
 
@@ -161,6 +171,7 @@ public class CategoryService {
         if (color != null) category.setColor(color);
         if (icon != null) category.setIcon(icon);
 
+        categoryTreeCache.invalidate(companyId);
         return categoryRepository.save(category);
     }
 
@@ -196,6 +207,7 @@ public class CategoryService {
         int sortOrder = categoryRepository.getMaxSortOrder(companyId, newParentId) + 1;
         category.setSortOrder(sortOrder);
 
+        categoryTreeCache.invalidate(companyId);
         return categoryRepository.save(category);
     }
 
@@ -214,6 +226,7 @@ public class CategoryService {
         // Mark the category itself as inactive
         category.setIsActive(false);
         categoryRepository.save(category);
+        categoryTreeCache.invalidate(companyId);
     }
 
     /**
@@ -247,6 +260,7 @@ public class CategoryService {
         });
 
         categoryRepository.saveAll(descendants);
+        categoryTreeCache.invalidate(companyId);
         return categoryRepository.save(category);
     }
 
@@ -271,6 +285,7 @@ public class CategoryService {
             category.setSortOrder(i + 1);
             categoryRepository.save(category);
         }
+        categoryTreeCache.invalidate(companyId);
     }
 
     // Helper methods
@@ -0,0 +1,370 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.application.dto.productcatalog.response.CategoryDto;
+import fa.academy.kiotviet.application.dto.productcatalog.response.CategoryTreeDto;
+import fa.academy.kiotviet.core.productcatalog.domain.Category;
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.repository.CategoryRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import fa.academy.kiotviet.infrastructure.redis.RedisGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-tenant category tree, built once per category version with nested children and product
+ * counts, so category pickers do not query the categories (and their descendants) on every load.
+ *
+ * <p>{@link CategoryService} mutations call {@link #invalidate}, which bumps the company's
+ * category version in Redis after the commit. Each request reads that version and reuses this
+ * node's tree while it matches; a node that must rebuild takes the category rows from Redis,
+ * where they are kept per version for {@code redis-ttl}, and only queries the database when no
+ * node has loaded that version yet. Product counts are counted per node and recounted when a
+ * product changes category or is discontinued. While Redis is unreachable the node serves the
+ * tree it holds, and its own mutations still drop it; their version bumps are retried every
+ * {@code retry-interval-ms}, and until then the node builds those trees from the database.
+ *
+ * <p>Trees are built outside the cache's lock, so a slow build does not block other tenants, and
+ * a build is kept only if the company's tree was not dropped while it ran.
+ */
+@Component
+@Slf4j
+public class CategoryTreeCache implements ProductChangeListener {
+
+    private static final String VERSION_KEY_PREFIX = "catalog:categories:version:";
+    // Versioned: bump when CachedCategory changes shape so stale JSON is never read
+    private static final String ROWS_KEY_PREFIX = "catalog:categories:v1:rows:";
+    private static final TypeReference<List<CachedCategory>> ROWS_TYPE = new TypeReference<>() {
+    };
+    // Power of two; companies sharing a slot only cost each other an uncached build
+    private static final int DROP_SLOTS = 256;
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisGuard redisGuard;
+    private final Duration redisTtl;
+    private final Cache<Long, CategoryTree> trees;
+    private final AtomicLongArray drops = new AtomicLongArray(DROP_SLOTS);
+    private final Set<Long> pendingBumps = ConcurrentHashMap.newKeySet();
+
+    public CategoryTreeCache(CategoryRepository categoryRepository,
+                             ProductRepository productRepository,
+                             StringRedisTemplate redisTemplate,
+                             ObjectMapper objectMapper,
+                             RedisGuard redisGuard,
+                             @Value("${app.catalog.category-tree.max-tenants:1000}") long maxTenants,
+                             @Value("${app.catalog.category-tree.max-idle:1h}") Duration maxIdle,
+                             @Value("${app.catalog.category-tree.redis-ttl:1h}") Duration redisTtl) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisGuard = redisGuard;
+        this.redisTtl = redisTtl;
+        this.trees = Caffeine.newBuilder().maximumSize(maxTenants).expireAfterAccess(maxIdle).build();
+    }
+
+    /**
+     * The company's active categories as a tree. The returned tree is shared; do not modify it.
+     */
+    public CategoryTree get(Long companyId) {
+        Long version = currentVersion(companyId);
+        CategoryTree current = trees.getIfPresent(companyId);
+        if (current != null && (version == null || current.version() == version)) {
+            return current;
+        }
+
+        long dropsBefore = drops.get(slot(companyId));
+        CategoryTree built = build(companyId, version != null ? version : current != null ? current.version() : 0);
+        // Checked under the entry's lock, which drop() also takes after counting
+        trees.asMap().compute(companyId, (id, present) ->
+                drops.get(slot(id)) != dropsBefore || present != null && present.version() > built.version()
+                        ? present
+                        : built);
+        return built;
+    }
+
+    /**
+     * Drops the company's tree on every node once the surrounding transaction commits.
+     */
+    public void invalidate(Long companyId) {
+        Runnable bump = () -> {
+            if (!bumpVersion(companyId)) {
+                pendingBumps.add(companyId);
+            }
+            drop(companyId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.category-tree.retry-interval-ms:5000}")
+    public void retryPendingBumps() {
+        if (pendingBumps.isEmpty() || !redisGuard.isAvailable()) return;
+        int applied = 0;
+        for (Long companyId : List.copyOf(pendingBumps)) {
+            if (!bumpVersion(companyId)) {
+                break;
+            }
+            pendingBumps.remove(companyId);
+            applied++;
+        }
+        if (applied > 0) {
+            log.info("Applied {} deferred category version bumps", applied);
+        }
+    }
+
+    @Override
+    public void onProductChanged(Long companyId, ProductSnapshot before, ProductSnapshot after) {
+        if (!Objects.equals(countedCategory(before), countedCategory(after))) {
+            drop(companyId);
+        }
+    }
+
+    @Override
+    public void onTenantInvalidated(Long companyId) {
+        drop(companyId);
+    }
+
+    /**
+     * Drops this node's tree, and any build of it still running.
+     */
+    private void drop(Long companyId) {
+        drops.incrementAndGet(slot(companyId));
+        trees.invalidate(companyId);
+    }
+
+    private static int slot(Long companyId) {
+        return Long.hashCode(companyId) & (DROP_SLOTS - 1);
+    }
+
+    /**
+     * @return whether Redis took the new version
+     */
+    private boolean bumpVersion(Long companyId) {
+        return redisGuard.execute(() -> redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + companyId), null) != null;
+    }
+
+    /**
+     * @return the company's category version, or null if Redis cannot be read
+     */
+    private Long currentVersion(Long companyId) {
+        String value = redisGuard.execute(() -> {
+            String stored = redisTemplate.opsForValue().get(VERSION_KEY_PREFIX + companyId);
+            return stored != null ? stored : "0";
+        }, null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private CategoryTree build(Long companyId, long version) {
+        List<CachedCategory> rows = loadRows(companyId, version);
+        Map<Long, Long> productCounts = new HashMap<>();
+        for (Object[] row : productRepository.countByCategory(companyId)) {
+            if (row[0] != null) {
+                productCounts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        CategoryTreeDto tree = assemble(rows, productCounts, version);
+        log.debug("Built category tree for company {} at version {} ({} categories)", companyId, version, rows.size());
+        return new CategoryTree(version, etag(companyId, version, tree), tree);
+    }
+
+    private List<CachedCategory> loadRows(Long companyId, long version) {
+        String key = ROWS_KEY_PREFIX + companyId + ":" + version;
+        // Until its bump reaches Redis, the stored version's rows predate this node's own changes
+        boolean bumpPending = pendingBumps.contains(companyId);
+        String json = bumpPending ? null : redisGuard.execute(() -> redisTemplate.opsForValue().get(key), null);
+        if (json != null) {
+            try {
+                return objectMapper.readValue(json, ROWS_TYPE);
+            } catch (JsonProcessingException e) {
+                log.warn("Discarding unreadable cached categories for company {}: {}", companyId, e.getMessage());
+            }
+        }
+
+        List<CachedCategory> rows = categoryRepository
+                .findByCompany_IdAndIsActiveOrderByLevelAscSortOrderAscNameAsc(companyId, true).stream()
+                .map(CachedCategory::from)
+                .toList();
+        if (bumpPending) {
+            return rows;
+        }
+        try {
+            String value = objectMapper.writeValueAsString(rows);
+            redisGuard.run(() -> redisTemplate.opsForValue().set(key, value, redisTtl));
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot cache categories for company {}: {}", companyId, e.getMessage());
+        }
+        return rows;
+    }
+
+    /**
+     * Rows come ordered by level, so walking them backwards completes every child before its
+     * parent.
+     */
+    private static CategoryTreeDto assemble(List<CachedCategory> rows, Map<Long, Long> productCounts, long version) {
+        Map<Long, List<CategoryDto>> children = new HashMap<>();
+        Map<Long, long[]> subtreeTotals = new HashMap<>(); // {products, descendants}
+        Map<Long, CategoryDto> nested = new HashMap<>();
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            CachedCategory row = rows.get(i);
+            List<CategoryDto> ownChildren = children.getOrDefault(row.id(), List.of()).reversed();
+            long[] totals = subtreeTotals.getOrDefault(row.id(), new long[2]);
+            long products = productCounts.getOrDefault(row.id(), 0L);
+            CategoryDto node = row.toDto(products, products + totals[0], totals[1], List.copyOf(ownChildren));
+            nested.put(row.id(), node);
+            if (row.parentId() != null) {
+                children.computeIfAbsent(row.parentId(), id -> new ArrayList<>()).add(node);
+                long[] parentTotals = subtreeTotals.computeIfAbsent(row.parentId(), id -> new long[2]);
+                parentTotals[0] += products + totals[0];
+                parentTotals[1] += 1 + totals[1];
+            }
+        }
+
+        List<CategoryDto> flat = new ArrayList<>(rows.size());
+        List<CategoryDto> roots = new ArrayList<>();
+        int maxDepth = 1;
+        for (CachedCategory row : rows) {
+            CategoryDto node = nested.get(row.id());
+            // The flat list repeats every category, so it leaves the children out
+            flat.add(row.toDto(node.getProductCount(), node.getTotalProductCount(), node.getDescendantCount(), null));
+            if (row.parentId() == null) {
+                roots.add(node);
+            }
+            maxDepth = Math.max(maxDepth, row.level() + 1);
+        }
+        return CategoryTreeDto.builder()
+                .categories(List.copyOf(flat))
+                .rootCategories(List.copyOf(roots))
+                .totalCategories(rows.size())
+                .maxDepth(maxDepth)
+                .hasHierarchy(maxDepth > 1)
+                .version(version)
+                .build();
+    }
+
+    private String etag(Long companyId, long version, CategoryTreeDto tree) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(tree));
+            return "\"" + companyId + "-" + version + "-" + HexFormat.of().formatHex(digest, 0, 8) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint category tree", e);
+        }
+    }
+
+    /**
+     * The category a product is counted in, or null if it is not counted.
+     */
+    private static Long countedCategory(ProductSnapshot product) {
+        if (product == null || product.status() == Product.ProductStatus.DISCONTINUED) {
+            return null;
+        }
+        return product.categoryId() != null ? product.categoryId() : -1L;
+    }
+
+    /**
+     * A built tree and its validator.
+     */
+    public record CategoryTree(long version, String etag, CategoryTreeDto tree) {
+    }
+
+    /**
+     * The category columns the tree is built from, as kept in Redis.
+     */
+    record CachedCategory(
+            Long id,
+            String name,
+            String description,
+            String path,
+            Long parentId,
+            int level,
+            int sortOrder,
+            String color,
+            String icon,
+            String fullPathName,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+
+        static CachedCategory from(Category category) {
+            return new CachedCategory(
+                    category.getId(),
+                    category.getName(),
+                    category.getDescription(),
+                    category.getPath(),
+                    category.getParentId(),
+                    category.getLevel() != null ? category.getLevel() : 0,
+                    category.getSortOrder() != null ? category.getSortOrder() : 0,
+                    category.getColor(),
+                    category.getIcon(),
+                    category.getFullPathName(),
+                    category.getCreatedAt(),
+                    category.getUpdatedAt());
+        }
+
+        CategoryDto toDto(long productCount, long totalProductCount, long descendantCount, List<CategoryDto> children) {
+            return CategoryDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .path(path)
+                    .parentId(parentId)
+                    .level(level)
+                    .sortOrder(sortOrder)
+                    .color(color)
+                    .icon(icon)
+                    .isActive(true)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .displayName(name)
+                    .fullPathName(fullPathName)
+                    .isRoot(parentId == null)
+                    .isLeaf(descendantCount == 0)
+                    .descendantCount((int) descendantCount)
+                    .productCount(productCount)
+                    .totalProductCount(totalProductCount)
+                    .children(children)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.core.orders.repository.OrderItemRepository;
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import fa.academy.kiotviet.core.shared.util.TextNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Per-tenant prefix index for product autocomplete, ranked by recent sales velocity.
+ *
+ * <p>A tenant's active products are held in a compressed (radix) trie over folded name, name words,
+ * SKU and barcode, and every node caches the best {@code top-k} products of its subtree, so a typical
+ * query is a walk down the prefix plus a copy. Velocity is units sold within {@code velocity-window},
+ * loaded with the tenant and advanced by {@link #onProductsSold}. Product writes update the trie in
+ * place; a tenant is rebuilt after {@code max-age}, which also ages old sales out of the window.
+ */
+@Component
+@Slf4j
+public class ProductAutocompleteIndex implements ProductChangeListener {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final int topK;
+    private final Duration velocityWindow;
+
+    private final Cache<Long, TenantIndex> tenants;
+
+    public ProductAutocompleteIndex(ProductRepository productRepository,
+                                    OrderItemRepository orderItemRepository,
+                                    @Value("${app.catalog.autocomplete.top-k:10}") int topK,
+                                    @Value("${app.catalog.autocomplete.velocity-window:30d}") Duration velocityWindow,
+                                    @Value("${app.catalog.autocomplete.max-tenants:500}") long maxTenants,
+                                    @Value("${app.catalog.autocomplete.max-age:1h}") Duration maxAge) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.topK = Math.max(topK, 1);
+        this.velocityWindow = velocityWindow;
+        this.tenants = Caffeine.newBuilder().maximumSize(maxTenants).expireAfterWrite(maxAge).build();
+    }
+
+    /**
+     * Active products with a name, name word, SKU or barcode starting with {@code query}
+     * (case- and accent-insensitive), best sellers first, then by name.
+     *
+     * @param query      may be empty to list the top products, typically together with {@code supplierId}
+     * @param supplierId restricts results to one supplier's products, or null for all
+     */
+    public List<ProductSnapshot> search(Long companyId, String query, int limit, Long supplierId) {
+        if (companyId == null || limit <= 0) return List.of();
+        return tenants.get(companyId, this::load).search(TextNormalizer.fold(query), limit, supplierId);
+    }
+
+    @Override
+    public void onProductChanged(Long companyId, ProductSnapshot before, ProductSnapshot after) {
+        TenantIndex index = tenants.getIfPresent(companyId);
+        if (index == null || after == null) {
+            // Also waits for an in-flight load, so an index read before this change is not kept
+            tenants.invalidate(companyId);
+            return;
+        }
+        index.upsert(after);
+    }
+
+    @Override
+    public void onProductsSold(Long companyId, Map<Long, Integer> quantities) {
+        TenantIndex index = tenants.getIfPresent(companyId);
+        if (index == null) {
+            tenants.invalidate(companyId);
+            return;
+        }
+        index.addSales(quantities);
+    }
+
+    @Override
+    public void onTenantInvalidated(Long companyId) {
+        tenants.invalidate(companyId);
+    }
+
+    private TenantIndex load(Long companyId) {
+        Map<Long, Long> velocity = new HashMap<>();
+        LocalDateTime since = LocalDateTime.now().minus(velocityWindow);
+        for (Object[] row : orderItemRepository.sumQuantityByProductSince(companyId, since)) {
+            velocity.put((Long) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+        List<ProductSnapshot> products = productRepository.findSnapshotsByCompanyId(companyId);
+        TenantIndex index = TenantIndex.build(products, velocity, topK);
+        log.debug("Loaded product autocomplete index for company {}: {} products", companyId, products.size());
+        return index;
+    }
+
+    static Set<String> tokensOf(ProductSnapshot product) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String name = TextNormalizer.fold(product.name());
+        tokens.add(name);
+        tokens.addAll(Arrays.asList(WORD_SEPARATOR.split(name)));
+        tokens.add(TextNormalizer.fold(product.sku()));
+        tokens.add(TextNormalizer.fold(product.barcode()));
+        tokens.remove("");
+        return tokens;
+    }
+
+    /**
+     * One tenant's trie. Readers share the read lock; product and sales updates take the write lock
+     * and recompute the cached rankings only along the paths of the tokens they touch.
+     */
+    static final class TenantIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Node root = new Node("");
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final int topK;
+
+        private TenantIndex(int topK) {
+            this.topK = topK;
+        }
+
+        static TenantIndex build(List<ProductSnapshot> products, Map<Long, Long> velocity, int topK) {
+            TenantIndex index = new TenantIndex(topK);
+            for (ProductSnapshot product : products) {
+                if (product.status() != Product.ProductStatus.ACTIVE) continue;
+                Entry entry = new Entry(product, tokensOf(product), velocity.getOrDefault(product.id(), 0L));
+                index.entries.put(product.id(), entry);
+                for (String token : entry.tokens) {
+                    index.insert(token, entry, false);
+                }
+            }
+            index.computeTops(index.root);
+            return index;
+        }
+
+        List<ProductSnapshot> search(String prefix, int limit, Long supplierId) {
+            lock.readLock().lock();
+            try {
+                Node node = find(prefix);
+                if (node == null) return List.of();
+
+                List<ProductSnapshot> result = new ArrayList<>(Math.min(limit, node.top.length));
+                for (Entry entry : node.top) {
+                    if (matches(entry, supplierId)) {
+                        result.add(entry.snapshot);
+                        if (result.size() == limit) return result;
+                    }
+                }
+                // A node's cached ranking holds its whole subtree when it is shorter than top-k
+                if (node.top.length < topK) return result;
+
+                Set<Entry> candidates = new HashSet<>();
+                collect(node, candidates);
+                return candidates.stream()
+                        .filter(entry -> matches(entry, supplierId))
+                        .sorted(Entry.RANKING)
+                        .limit(limit)
+                        .map(entry -> entry.snapshot)
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void upsert(ProductSnapshot product) {
+            lock.writeLock().lock();
+            try {
+                Entry current = entries.get(product.id());
+                if (current != null && isOlder(product, current.snapshot)) return;
+                if (product.status() != Product.ProductStatus.ACTIVE) {
+                    if (current != null) remove(current);
+                    return;
+                }
+                Set<String> tokens = tokensOf(product);
+                if (current != null && current.tokens.equals(tokens)) {
+                    // Stock, price, supplier or status-only change: ranking and paths are unchanged
+                    current.snapshot = product;
+                    return;
+                }
+                long score = current != null ? current.score : 0L;
+                if (current != null) remove(current);
+                Entry entry = new Entry(product, tokens, score);
+                entries.put(product.id(), entry);
+                for (String token : tokens) {
+                    insert(token, entry, true);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void addSales(Map<Long, Integer> quantities) {
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<Long, Integer> sale : quantities.entrySet()) {
+                    Entry entry = entries.get(sale.getKey());
+                    if (entry == null || sale.getValue() == null || sale.getValue() == 0) continue;
+                    entry.score = Math.max(0L, entry.score + sale.getValue());
+                    for (String token : entry.tokens) {
+                        recomputePath(token);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(Entry entry) {
+            entries.remove(entry.snapshot.id());
+            for (String token : entry.tokens) {
+                List<Node> path = path(token);
+                if (path == null) continue;
+                Node terminal = path.get(path.size() - 1);
+                terminal.terminals = without(terminal.terminals, entry);
+                prune(path);
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    path.get(i).top = rank(path.get(i));
+                }
+            }
+        }
+
+        private Node find(String prefix) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.child(prefix.charAt(i));
+                if (child == null) return null;
+                int n = Math.min(child.label.length(), prefix.length() - i);
+                if (!child.label.regionMatches(0, prefix, i, n)) return null;
+                i += n;
+                node = child;
+            }
+            return node;
+        }
+
+        /**
+         * @return the nodes from the root to the node spelling exactly {@code token}, or null if absent
+         */
+        private List<Node> path(String token) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < token.length()) {
+                Node child = node.child(token.charAt(i));
+                if (child == null || !token.startsWith(child.label, i)) return null;
+                i += child.label.length();
+                node = child;
+                path.add(node);
+            }
+            return path;
+        }
+
+        private void insert(String token, Entry entry, boolean rank) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < token.length()) {
+                Node child = node.child(token.charAt(i));
+                if (child == null) {
+                    child = new Node(token.substring(i));
+                    node.addChild(child);
+                    node = child;
+                    path.add(node);
+                    break;
+                }
+                int common = commonPrefixLength(child.label, token, i);
+                if (common < child.label.length()) {
+                    // Split the edge: node -> mid(common part) -> child(rest)
+                    Node mid = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    mid.children = new Node[] {child};
+                    node.replaceChild(child, mid);
+                    child = mid;
+                }
+                i += common;
+                node = child;
+                path.add(node);
+            }
+            if (Arrays.stream(node.terminals).noneMatch(e -> e == entry)) {
+                node.terminals = with(node.terminals, entry);
+            }
+            if (rank) {
+                for (int j = path.size() - 1; j >= 0; j--) {
+                    path.get(j).top = rank(path.get(j));
+                }
+            }
+        }
+
+        private void recomputePath(String token) {
+            List<Node> path = path(token);
+            if (path == null) return;
+            for (int i = path.size() - 1; i >= 0; i--) {
+                path.get(i).top = rank(path.get(i));
+            }
+        }
+
+        /**
+         * Detaches nodes left without products and merges pass-through nodes into their only child,
+         * keeping the trie compressed after removals.
+         */
+        private void prune(List<Node> path) {
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node node = path.get(i);
+                Node parent = path.get(i - 1);
+                if (node.terminals.length == 0 && node.children.length == 0) {
+                    parent.removeChild(node);
+                } else if (node.terminals.length == 0 && node.children.length == 1) {
+                    Node only = node.children[0];
+                    node.label = node.label + only.label;
+                    node.children = only.children;
+                    node.terminals = only.terminals;
+                    node.top = only.top;
+                }
+            }
+        }
+
+        private void computeTops(Node node) {
+            for (Node child : node.children) {
+                computeTops(child);
+            }
+            node.top = rank(node);
+        }
+
+        /**
+         * Best top-k distinct entries among the node's own terminals and its children's rankings.
+         */
+        private Entry[] rank(Node node) {
+            int size = node.terminals.length;
+            for (Node child : node.children) size += child.top.length;
+            if (size == 0) return Entry.NONE;
+
+            Entry[] all = new Entry[size];
+            int n = node.terminals.length;
+            System.arraycopy(node.terminals, 0, all, 0, n);
+            for (Node child : node.children) {
+                System.arraycopy(child.top, 0, all, n, child.top.length);
+                n += child.top.length;
+            }
+            Arrays.sort(all, Entry.RANKING);
+
+            Entry[] top = new Entry[Math.min(size, topK)];
+            int count = 0;
+            for (int i = 0; i < all.length && count < top.length; i++) {
+                // The same product can reach a node through several tokens; equal entries sort adjacently
+                if (count > 0 && top[count - 1] == all[i]) continue;
+                top[count++] = all[i];
+            }
+            return count == top.length ? top : Arrays.copyOf(top, count);
+        }
+
+        private static void collect(Node node, Set<Entry> out) {
+            Collections.addAll(out, node.terminals);
+            for (Node child : node.children) {
+                collect(child, out);
+            }
+        }
+
+        private static boolean matches(Entry entry, Long supplierId) {
+            return supplierId == null || Objects.equals(supplierId, entry.snapshot.supplierId());
+        }
+
+        private static boolean isOlder(ProductSnapshot candidate, ProductSnapshot current) {
+            return candidate.updatedAt() != null && current.updatedAt() != null
+                    && candidate.updatedAt().isBefore(current.updatedAt());
+        }
+
+        private static int commonPrefixLength(String label, String token, int offset) {
+            int max = Math.min(label.length(), token.length() - offset);
+            int i = 0;
+            while (i < max && label.charAt(i) == token.charAt(offset + i)) i++;
+            return i;
+        }
+
+        private static Entry[] with(Entry[] entries, Entry entry) {
+            Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+            copy[entries.length] = entry;
+            return copy;
+        }
+
+        private static Entry[] without(Entry[] entries, Entry entry) {
+            return Arrays.stream(entries).filter(e -> e != entry).toArray(Entry[]::new);
+        }
+    }
+
+    /**
+     * Trie node; {@code label} is the edge from its parent. Children are kept sorted by first character.
+     */
+    static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        String label;
+        Node[] children = NO_CHILDREN;
+        Entry[] terminals = Entry.NONE;
+        Entry[] top = Entry.NONE;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) low = mid + 1;
+                else if (c > first) high = mid - 1;
+                else return children[mid];
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            char first = child.label.charAt(0);
+            int at = 0;
+            while (at < children.length && children[at].label.charAt(0) < first) at++;
+            Node[] copy = new Node[children.length + 1];
+            System.arraycopy(children, 0, copy, 0, at);
+            copy[at] = child;
+            System.arraycopy(children, at, copy, at + 1, children.length - at);
+            children = copy;
+        }
+
+        void replaceChild(Node current, Node replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == current) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+
+        void removeChild(Node child) {
+            children = Arrays.stream(children).filter(c -> c != child).toArray(Node[]::new);
+        }
+    }
+
+    /**
+     * A product in the trie. {@code snapshot} is swapped for stock and price changes; {@code score}
+     * is the sales velocity. Both are only mutated under the tenant's write lock.
+     */
+    static final class Entry {
+
+        static final Entry[] NONE = new Entry[0];
+
+        static final Comparator<Entry> RANKING = Comparator
+                .comparingLong((Entry e) -> e.score).reversed()
+                .thenComparing(e -> e.sortName)
+                .thenComparing(e -> e.snapshot.id());
+
+        ProductSnapshot snapshot;
+        final Set<String> tokens;
+        final String sortName;
+        long score;
+
+        Entry(ProductSnapshot snapshot, Set<String> tokens, long score) {
+            this.snapshot = snapshot;
+            this.tokens = tokens;
+            this.sortName = TextNormalizer.fold(snapshot.name());
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import fa.academy.kiotviet.infrastructure.redis.RedisGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fans product writes out to the per-node catalog indexes ({@link ProductChangeListener}s).
+ *
+ * <p>Services call this inside their transaction; listeners on this node are notified after the
+ * commit and the change is published to the other nodes over Redis pub/sub. Messages lost while
+ * Redis is down are not replayed, so listeners must also bound their own staleness.
+ */
+@Component
+@Slf4j
+public class ProductChangeFeed implements MessageListener {
+
+    static final String CHANNEL = "catalog:product-changes";
+
+    private final List<ProductChangeListener> listeners;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisGuard redisGuard;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ProductChangeFeed(List<ProductChangeListener> listeners,
+                             StringRedisTemplate redisTemplate,
+                             ObjectMapper objectMapper,
+                             RedisGuard redisGuard,
+                             RedisMessageListenerContainer listenerContainer) {
+        this.listeners = listeners;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisGuard = redisGuard;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Reports a product write. {@code before} is the product as loaded, captured by the caller
+     * before applying the change, or null for a new product. A product reported more than once
+     * in one transaction is announced once after the commit, from its first {@code before}.
+     */
+    public void productChanged(ProductSnapshot before, Product product) {
+        if (product == null || product.getId() == null || product.getCompany() == null) return;
+        Long companyId = product.getCompany().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(new ChangeMessage(nodeId, Kind.CHANGED, companyId, ProductSnapshot.from(product), null, before));
+            return;
+        }
+        pendingChanges().add(companyId, before, product);
+    }
+
+    public void productsSold(Long companyId, Map<Long, Integer> quantities) {
+        if (companyId == null || quantities == null || quantities.isEmpty()) return;
+        Map<Long, Integer> copy = Map.copyOf(quantities);
+        afterCommit(() -> dispatch(new ChangeMessage(nodeId, Kind.SOLD, companyId, null, copy, null)));
+    }
+
+    public void tenantInvalidated(Long companyId) {
+        if (companyId == null) return;
+        afterCommit(() -> dispatch(new ChangeMessage(nodeId, Kind.INVALIDATED, companyId, null, null, null)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ChangeMessage change = objectMapper.readValue(message.getBody(), ChangeMessage.class);
+            if (nodeId.equals(change.origin()) || change.companyId() == null || change.kind() == null) return;
+            notifyListeners(change);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable product change message: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(ChangeMessage change) {
+        notifyListeners(change);
+        try {
+            String json = objectMapper.writeValueAsString(change);
+            redisGuard.run(() -> redisTemplate.convertAndSend(CHANNEL, json));
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot publish product change for company {}: {}", change.companyId(), e.getMessage());
+        }
+    }
+
+    private void notifyListeners(ChangeMessage change) {
+        for (ProductChangeListener listener : listeners) {
+            try {
+                switch (change.kind()) {
+                    case CHANGED -> listener.onProductChanged(change.companyId(), change.previous(), change.product());
+                    case SOLD -> listener.onProductsSold(change.companyId(), change.quantities());
+                    case INVALIDATED -> listener.onTenantInvalidated(change.companyId());
+                }
+            } catch (RuntimeException e) {
+                // One broken index must not keep the others stale; drop its tenant state instead
+                log.warn("{} failed to apply {} for company {}: {}",
+                        listener.getClass().getSimpleName(), change.kind(), change.companyId(), e.getMessage());
+                listener.onTenantInvalidated(change.companyId());
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.feed == this) return pending;
+        }
+        PendingChanges pending = new PendingChanges(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Products changed in the current transaction, keyed by id.
+     */
+    private static final class PendingChanges implements TransactionSynchronization {
+
+        private final ProductChangeFeed feed;
+        private final Map<Long, PendingChange> changes = new LinkedHashMap<>();
+
+        PendingChanges(ProductChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        void add(Long companyId, ProductSnapshot before, Product product) {
+            PendingChange first = changes.get(product.getId());
+            changes.put(product.getId(), new PendingChange(companyId, first != null ? first.before() : before, product));
+        }
+
+        @Override
+        public void afterCommit() {
+            // Snapshot after commit: the entity's updatedAt and stock status are only set when it is flushed
+            for (PendingChange change : changes.values()) {
+                feed.dispatch(new ChangeMessage(feed.nodeId, Kind.CHANGED, change.companyId(),
+                        ProductSnapshot.from(change.product()), null, change.before()));
+            }
+        }
+    }
+
+    private record PendingChange(Long companyId, ProductSnapshot before, Product product) {
+    }
+
+    enum Kind {
+        CHANGED, SOLD, INVALIDATED
+    }
+
+    /**
+     * {@code previous} is a changed product as it was before the change, null for a new product.
+     */
+    record ChangeMessage(String origin, Kind kind, Long companyId, ProductSnapshot product,
+                         Map<Long, Integer> quantities, ProductSnapshot previous) {
+    }
+}
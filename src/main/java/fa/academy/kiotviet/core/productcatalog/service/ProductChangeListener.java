@@ -0,0 +1,29 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+
+import java.util.Map;
+
+/**
+ * Receives committed product changes from {@link ProductChangeFeed}, whether they were made
+ * on this node or on another one. Implementations keep per-node catalog indexes current.
+ */
+public interface ProductChangeListener {
+
+    /**
+     * A product as it was before the change and after it; {@code before} is null for a new
+     * product. Listeners that keep running totals apply the difference.
+     */
+    void onProductChanged(Long companyId, ProductSnapshot before, ProductSnapshot after);
+
+    /**
+     * Units sold per product id; negative quantities are returns or reduced order lines.
+     */
+    default void onProductsSold(Long companyId, Map<Long, Integer> quantities) {
+    }
+
+    /**
+     * Many products of the tenant changed at once; drop anything derived from them.
+     */
+    void onTenantInvalidated(Long companyId);
+}
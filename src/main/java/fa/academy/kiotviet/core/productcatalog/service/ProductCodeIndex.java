@@ -0,0 +1,183 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-tenant in-memory index of SKU and barcode to a compact product snapshot, so barcode
+ * scans resolve without a database round trip.
+ *
+ * <p>A tenant's index is loaded on its first lookup and kept current from {@link ProductChangeFeed}.
+ * Price, name, status and stock changes are applied in place; a change to a product's codes, or a
+ * new product, drops the tenant's index so the next lookup reloads it. Indexes are also reloaded
+ * after {@code max-age} to bound staleness from changes missed during a Redis outage.
+ */
+@Component
+@Slf4j
+public class ProductCodeIndex implements ProductChangeListener {
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, CodeTable> tables;
+
+    public ProductCodeIndex(ProductRepository productRepository,
+                            @Value("${app.catalog.code-index.max-tenants:1000}") long maxTenants,
+                            @Value("${app.catalog.code-index.max-age:10m}") Duration maxAge) {
+        this.productRepository = productRepository;
+        this.tables = Caffeine.newBuilder().maximumSize(maxTenants).expireAfterWrite(maxAge).build();
+    }
+
+    /**
+     * Resolves a code as SKU first, then barcode, case-insensitively.
+     *
+     * @return the matching product, or null if no product of the company has this code
+     */
+    public ProductSnapshot lookup(Long companyId, String code) {
+        String key = normalize(code);
+        if (companyId == null || key == null) return null;
+        return tables.get(companyId, this::load).get(key);
+    }
+
+    @Override
+    public void onProductChanged(Long companyId, ProductSnapshot before, ProductSnapshot after) {
+        CodeTable table = tables.getIfPresent(companyId);
+        if (table == null || after == null || !table.replace(after)) {
+            // Also waits for an in-flight load, so an index read before this change is not kept
+            tables.invalidate(companyId);
+        }
+    }
+
+    @Override
+    public void onTenantInvalidated(Long companyId) {
+        tables.invalidate(companyId);
+    }
+
+    private CodeTable load(Long companyId) {
+        List<ProductSnapshot> products = productRepository.findSnapshotsByCompanyId(companyId);
+        log.debug("Loaded product code index for company {}: {} products", companyId, products.size());
+        return CodeTable.build(products);
+    }
+
+    static String normalize(String code) {
+        if (code == null) return null;
+        String trimmed = code.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Open-addressing (linear probing) hash table of normalized code to snapshot. Keys are fixed
+     * once built, so lookups need no locking; values are swapped atomically for in-place updates.
+     */
+    static final class CodeTable {
+
+        private final String[] keys;
+        private final AtomicReferenceArray<ProductSnapshot> values;
+        private final int mask;
+
+        private CodeTable(int capacity) {
+            this.keys = new String[capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        static CodeTable build(List<ProductSnapshot> products) {
+            // Up to two codes per product at a load factor of at most 0.5
+            int capacity = Integer.highestOneBit(Math.max(products.size() * 4, 16) - 1) << 1;
+            CodeTable table = new CodeTable(capacity);
+            // SKUs first so an SKU wins over an equal barcode of another product
+            for (ProductSnapshot p : products) {
+                table.putIfAbsent(normalize(p.sku()), p);
+            }
+            for (ProductSnapshot p : products) {
+                table.putIfAbsent(normalize(p.barcode()), p);
+            }
+            return table;
+        }
+
+        ProductSnapshot get(String key) {
+            int slot = indexOf(key);
+            return slot < 0 ? null : values.get(slot);
+        }
+
+        /**
+         * Replaces the product's snapshot in place.
+         *
+         * @return false if the product is not indexed or its codes changed, i.e. the table must be rebuilt
+         */
+        boolean replace(ProductSnapshot snapshot) {
+            String sku = normalize(snapshot.sku());
+            String barcode = normalize(snapshot.barcode());
+            int skuSlot = indexOf(sku);
+            int barcodeSlot = indexOf(barcode);
+
+            ProductSnapshot current = ownedBy(skuSlot, snapshot.id());
+            if (current == null) current = ownedBy(barcodeSlot, snapshot.id());
+            if (current == null
+                    || !Objects.equals(normalize(current.sku()), sku)
+                    || !Objects.equals(normalize(current.barcode()), barcode)) {
+                return false;
+            }
+            update(skuSlot, snapshot);
+            if (barcodeSlot != skuSlot) update(barcodeSlot, snapshot);
+            return true;
+        }
+
+        private void putIfAbsent(String key, ProductSnapshot snapshot) {
+            if (key == null) return;
+            int slot = spread(key.hashCode()) & mask;
+            String existing;
+            while ((existing = keys[slot]) != null) {
+                if (existing.equals(key)) return;
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values.set(slot, snapshot);
+        }
+
+        private int indexOf(String key) {
+            if (key == null) return -1;
+            int slot = spread(key.hashCode()) & mask;
+            String existing;
+            while ((existing = keys[slot]) != null) {
+                if (existing.equals(key)) return slot;
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private ProductSnapshot ownedBy(int slot, Long productId) {
+            if (slot < 0) return null;
+            ProductSnapshot current = values.get(slot);
+            return current != null && current.id().equals(productId) ? current : null;
+        }
+
+        private void update(int slot, ProductSnapshot snapshot) {
+            ProductSnapshot current;
+            do {
+                current = ownedBy(slot, snapshot.id());
+                // Commits of the same product can finish out of order; keep the newest
+                if (current == null || isOlder(snapshot, current)) return;
+            } while (!values.compareAndSet(slot, current, snapshot));
+        }
+
+        private static boolean isOlder(ProductSnapshot candidate, ProductSnapshot current) {
+            return candidate.updatedAt() != null && current.updatedAt() != null
+                    && candidate.updatedAt().isBefore(current.updatedAt());
+        }
+
+        private static int spread(int h) {
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
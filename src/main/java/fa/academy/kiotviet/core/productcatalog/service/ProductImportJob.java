@@ -0,0 +1,69 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one background product import. Written by the import thread, read by status
+ * requests.
+ */
+@Getter
+public class ProductImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long companyId;
+    private final String fileName;
+    private final Path errorReport;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong insertedRows = new AtomicLong();
+    private final AtomicLong updatedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile double progress;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    ProductImportJob(Long companyId, String fileName, Path errorReport) {
+        this.companyId = companyId;
+        this.fileName = fileName;
+        this.errorReport = errorReport;
+    }
+
+    public boolean isActive() {
+        return status == Status.QUEUED || status == Status.RUNNING;
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void progress(double fraction) {
+        progress = fraction;
+    }
+
+    void completed() {
+        progress = 1.0;
+        finish(Status.COMPLETED, null);
+    }
+
+    void failed(String reason) {
+        finish(Status.FAILED, reason);
+    }
+
+    private void finish(Status result, String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        status = result;
+    }
+}
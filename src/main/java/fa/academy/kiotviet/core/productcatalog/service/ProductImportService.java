@@ -0,0 +1,650 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductImportStatusDto;
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductImportRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductImportRepository.ImportRow;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductImportRepository.NamedRef;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductImportRepository.ProductCodes;
+import fa.academy.kiotviet.core.shared.exception.BusinessRuleException;
+import fa.academy.kiotviet.core.shared.exception.ConflictException;
+import fa.academy.kiotviet.core.shared.exception.ResourceNotFoundException;
+import fa.academy.kiotviet.core.shared.exception.TooManyRequestsException;
+import fa.academy.kiotviet.core.shared.util.TextNormalizer;
+import fa.academy.kiotviet.infrastructure.metering.TenantUsageMeter;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetFormat;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetReader;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products from an .xlsx or CSV file as a background job.
+ *
+ * <p>The file is read as a stream ({@link SpreadsheetReader}) and written in chunks of
+ * {@code app.catalog.import.chunk-size} rows: each chunk is checked against the stored SKUs and
+ * barcodes with one query, then written as JDBC batches in its own transaction. Rows that
+ * fail validation are skipped and listed in a CSV error report; valid rows are still imported.
+ * A SKU already in the company updates that product, blank optional cells keep stored values.
+ *
+ * <p>Jobs, their progress and error reports live on the node that accepted the upload for
+ * {@code app.catalog.import.retention}.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("9999999999.99");
+    private static final Long AMBIGUOUS = -1L;
+
+    /**
+     * Columns understood in the header row; headers match case- and accent-insensitively
+     * against the English names and the Vietnamese ones of the KiotViet template.
+     */
+    enum Column {
+        SKU(true, "sku", "productcode", "mahang"),
+        NAME(true, "name", "productname", "tenhang"),
+        BARCODE(false, "barcode", "mavach"),
+        DESCRIPTION(false, "description", "mota"),
+        SELLING_PRICE(true, "sellingprice", "price", "giaban"),
+        COST_PRICE(true, "costprice", "cost", "giavon"),
+        ON_HAND(false, "onhand", "stock", "tonkho"),
+        MIN_LEVEL(false, "minlevel", "tonnhonhat"),
+        MAX_LEVEL(false, "maxlevel", "tonlonnhat"),
+        STATUS(false, "status", "trangthai"),
+        TRACKED(false, "tracked", "istracked", "theodoitonkho"),
+        CATEGORY(false, "category", "nhomhang"),
+        SUPPLIER(false, "supplier", "nhacungcap"),
+        BRAND(false, "brand", "thuonghieu");
+
+        private final boolean required;
+        private final List<String> headers;
+
+        Column(boolean required, String... headers) {
+            this.required = required;
+            this.headers = List.of(headers);
+        }
+    }
+
+    private final ProductImportRepository importRepository;
+    private final ProductChangeFeed productChangeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int maxRows;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ProductImportJob> jobs;
+
+    public ProductImportService(ProductImportRepository importRepository,
+                                ProductChangeFeed productChangeFeed,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.catalog.import.chunk-size:1000}") int chunkSize,
+                                @Value("${app.catalog.import.max-rows:200000}") int maxRows,
+                                @Value("${app.catalog.import.threads:2}") int threads,
+                                @Value("${app.catalog.import.queue-capacity:8}") int queueCapacity,
+                                @Value("${app.catalog.import.retention:24h}") Duration retention) {
+        this.importRepository = importRepository;
+        this.productChangeFeed = productChangeFeed;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "product-import-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.jobs = Caffeine.newBuilder()
+            .expireAfterWrite(retention)
+            .scheduler(Scheduler.systemScheduler())
+            .removalListener((String id, ProductImportJob job, RemovalCause cause) -> {
+                if (job != null) {
+                    deleteQuietly(job.getErrorReport());
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Store the upload and queue its import.
+     *
+     * @throws BusinessRuleException    if the file is not .xlsx or .csv
+     * @throws ConflictException        if an import for the company is still queued or running
+     * @throws TooManyRequestsException if the import queue is full
+     */
+    public ProductImportStatusDto start(Long companyId, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessRuleException("Please choose a file to import", "IMPORT_FILE_REQUIRED");
+        }
+        SpreadsheetFormat format = SpreadsheetFormat.fromFileName(file.getOriginalFilename())
+            .orElseThrow(() -> new BusinessRuleException("Only .xlsx and .csv files can be imported", "IMPORT_UNSUPPORTED_FORMAT"));
+
+        synchronized (jobs) {
+            boolean running = jobs.asMap().values().stream()
+                .anyMatch(job -> job.getCompanyId().equals(companyId) && job.isActive());
+            if (running) {
+                throw new ConflictException("An import is already in progress for this company", "IMPORT_IN_PROGRESS");
+            }
+
+            Path upload = null;
+            Path errorReport = null;
+            try {
+                upload = Files.createTempFile("product-import-", "." + format.extension());
+                errorReport = Files.createTempFile("product-import-errors-", ".csv");
+                file.transferTo(upload);
+            } catch (IOException e) {
+                deleteQuietly(upload);
+                deleteQuietly(errorReport);
+                throw new UncheckedIOException("Could not store the uploaded file", e);
+            }
+
+            ProductImportJob job = new ProductImportJob(companyId, file.getOriginalFilename(), errorReport);
+            Path source = upload;
+            try {
+                executor.execute(() -> run(job, source, format));
+            } catch (RejectedExecutionException e) {
+                deleteQuietly(upload);
+                deleteQuietly(errorReport);
+                throw new TooManyRequestsException("Too many imports are running, please retry shortly", "IMPORT_BUSY", e);
+            }
+            jobs.put(job.getId(), job);
+            return toDto(job);
+        }
+    }
+
+    public ProductImportStatusDto status(Long companyId, String jobId) {
+        return toDto(find(companyId, jobId));
+    }
+
+    /**
+     * CSV listing the rows that were not imported (row number, SKU, reason).
+     */
+    public Path errorReport(Long companyId, String jobId) {
+        ProductImportJob job = find(companyId, jobId);
+        if (job.isActive() || !Files.exists(job.getErrorReport())) {
+            throw new ResourceNotFoundException("Error report is not available", "IMPORT_REPORT_NOT_FOUND");
+        }
+        return job.getErrorReport();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.invalidateAll();
+    }
+
+    private ProductImportJob find(Long companyId, String jobId) {
+        ProductImportJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.getCompanyId().equals(companyId)) {
+            throw new ResourceNotFoundException("Import job not found", "IMPORT_NOT_FOUND");
+        }
+        return job;
+    }
+
+    private void run(ProductImportJob job, Path upload, SpreadsheetFormat format) {
+        job.started();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+        try (TenantUsageMeter.Scope ignored = TenantUsageMeter.attributeTo(job.getCompanyId());
+             BufferedWriter errors = Files.newBufferedWriter(job.getErrorReport(), StandardCharsets.UTF_8)) {
+            errors.write("\uFEFFRow,SKU,Error\n");
+            ImportRun importRun = new ImportRun(job, errors);
+            SpreadsheetReader.read(upload, format, importRun);
+            importRun.finish();
+            job.completed();
+        } catch (ImportRejectedException e) {
+            outcome = "rejected";
+            job.failed(e.getMessage());
+        } catch (Exception e) {
+            outcome = "failed";
+            log.error("Product import {} for company {} failed", job.getId(), job.getCompanyId(), e);
+            job.failed(e instanceof IOException ? e.getMessage() : "Import failed, please try again");
+        } finally {
+            deleteQuietly(upload);
+            if (job.getInsertedRows().get() + job.getUpdatedRows().get() > 0) {
+                productChangeFeed.tenantInvalidated(job.getCompanyId());
+            }
+            sample.stop(meterRegistry.timer("catalog.import.duration", "outcome", outcome));
+            meterRegistry.counter("catalog.import.rows", "result", "inserted").increment(job.getInsertedRows().get());
+            meterRegistry.counter("catalog.import.rows", "result", "updated").increment(job.getUpdatedRows().get());
+            meterRegistry.counter("catalog.import.rows", "result", "failed").increment(job.getFailedRows().get());
+            log.info("Product import {} for company {} {}: {} inserted, {} updated, {} failed",
+                job.getId(), job.getCompanyId(), job.getStatus(),
+                job.getInsertedRows().get(), job.getUpdatedRows().get(), job.getFailedRows().get());
+        }
+    }
+
+    private static ProductImportStatusDto toDto(ProductImportJob job) {
+        return ProductImportStatusDto.builder()
+            .jobId(job.getId())
+            .fileName(job.getFileName())
+            .status(job.getStatus().name())
+            .progressPercent((int) Math.floor(job.getProgress() * 100))
+            .processedRows(job.getProcessedRows().get())
+            .insertedRows(job.getInsertedRows().get())
+            .updatedRows(job.getUpdatedRows().get())
+            .failedRows(job.getFailedRows().get())
+            .message(job.getMessage())
+            .errorReportAvailable(!job.isActive() && job.getFailedRows().get() > 0)
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .build();
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}: {}", path, e.getMessage());
+        }
+    }
+
+    static String normalizeHeader(String header) {
+        return NON_ALPHANUMERIC.matcher(TextNormalizer.fold(header)).replaceAll("");
+    }
+
+    /**
+     * The file cannot be imported at all (missing columns, too many rows).
+     */
+    private static class ImportRejectedException extends RuntimeException {
+        ImportRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * A row that cannot be imported; reported, then skipped.
+     */
+    private static class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * State of one import while the file streams through: header mapping, name lookups, the
+     * codes seen so far (to reject duplicates within the file) and the pending chunk.
+     */
+    private class ImportRun implements SpreadsheetReader.RowHandler {
+
+        private final ProductImportJob job;
+        private final Long companyId;
+        private final BufferedWriter errors;
+        private final Map<String, Long> categories;
+        private final Map<String, Long> suppliers;
+        private final Map<String, Long> brands;
+        private final Set<String> seenSkus = new HashSet<>();
+        private final Set<String> seenBarcodes = new HashSet<>();
+        private final List<ImportRow> chunk = new ArrayList<>();
+        private Map<Column, Integer> columns;
+        private int rows;
+
+        ImportRun(ProductImportJob job, BufferedWriter errors) {
+            this.job = job;
+            this.companyId = job.getCompanyId();
+            this.errors = errors;
+            this.categories = byName(importRepository.findCategories(companyId));
+            this.suppliers = byName(importRepository.findSuppliers(companyId));
+            this.brands = byName(importRepository.findBrands(companyId));
+        }
+
+        @Override
+        public void row(int rowNumber, List<String> cells) {
+            if (cells.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            if (columns == null) {
+                columns = mapHeader(cells);
+                return;
+            }
+            if (++rows > maxRows) {
+                throw new ImportRejectedException("The file has more than " + maxRows + " products; split it into smaller files");
+            }
+            job.getProcessedRows().incrementAndGet();
+
+            String sku = cell(cells, Column.SKU);
+            try {
+                chunk.add(parse(rowNumber, cells));
+            } catch (RowException e) {
+                reject(rowNumber, sku, e.getMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void progress(double fraction) {
+            job.progress(fraction);
+        }
+
+        void finish() {
+            if (columns == null) {
+                throw new ImportRejectedException("The file is empty");
+            }
+            flush();
+        }
+
+        private Map<Column, Integer> mapHeader(List<String> cells) {
+            Map<Column, Integer> mapped = new EnumMap<>(Column.class);
+            for (int i = 0; i < cells.size(); i++) {
+                String header = normalizeHeader(cells.get(i));
+                for (Column column : Column.values()) {
+                    if (column.headers.contains(header)) {
+                        mapped.putIfAbsent(column, i);
+                    }
+                }
+            }
+            List<String> missing = new ArrayList<>();
+            for (Column column : Column.values()) {
+                if (column.required && !mapped.containsKey(column)) {
+                    missing.add(column.headers.get(0));
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new ImportRejectedException("Missing required columns: " + String.join(", ", missing));
+            }
+            return mapped;
+        }
+
+        private ImportRow parse(int rowNumber, List<String> cells) {
+            String sku = required(cells, Column.SKU, "SKU", 100);
+            String name = required(cells, Column.NAME, "Name", 255);
+            String barcode = optional(cells, Column.BARCODE, "Barcode", 50);
+            String description = optional(cells, Column.DESCRIPTION, "Description", 65_535);
+            BigDecimal sellingPrice = price(cells, Column.SELLING_PRICE, "Selling price");
+            BigDecimal costPrice = price(cells, Column.COST_PRICE, "Cost price");
+            if (sellingPrice.compareTo(costPrice) <= 0) {
+                throw new RowException("Selling price must be greater than cost price");
+            }
+            Integer onHand = quantity(cells, Column.ON_HAND, "On hand");
+            Integer minLevel = quantity(cells, Column.MIN_LEVEL, "Minimum level");
+            Integer maxLevel = quantity(cells, Column.MAX_LEVEL, "Maximum level");
+            if (minLevel != null && maxLevel != null && maxLevel > 0 && minLevel >= maxLevel) {
+                throw new RowException("Maximum level must be greater than minimum level");
+            }
+
+            if (!seenSkus.add(sku.toLowerCase(Locale.ROOT))) {
+                throw new RowException("SKU appears more than once in the file");
+            }
+            if (barcode != null && !seenBarcodes.add(barcode.toLowerCase(Locale.ROOT))) {
+                throw new RowException("Barcode " + barcode + " appears more than once in the file");
+            }
+
+            return new ImportRow(rowNumber, sku, name, barcode, null, description, sellingPrice, costPrice,
+                onHand, minLevel, maxLevel, status(cells), tracked(cells),
+                reference(cells, Column.CATEGORY, "Category", categories),
+                reference(cells, Column.SUPPLIER, "Supplier", suppliers),
+                reference(cells, Column.BRAND, "Brand", brands));
+        }
+
+        /**
+         * Check the chunk's SKUs and barcodes against the catalog with one query, then insert the
+         * new products and update the existing ones in one transaction. Nothing is written through
+         * a key other than the SKU, so a barcode taken since the check is reported as a conflict
+         * rather than overwriting the product that holds it.
+         */
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Set<String> skus = chunk.stream().map(ImportRow::sku).collect(Collectors.toCollection(LinkedHashSet::new));
+            Set<String> barcodes = chunk.stream().map(ImportRow::barcode).filter(b -> b != null)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+            Map<String, ProductCodes> bySku = new HashMap<>();
+            Map<String, ProductCodes> byBarcode = new HashMap<>();
+            for (ProductCodes codes : importRepository.findCodes(companyId, skus, barcodes)) {
+                bySku.put(codes.sku().toLowerCase(Locale.ROOT), codes);
+                if (codes.barcode() != null) {
+                    byBarcode.put(codes.barcode().toLowerCase(Locale.ROOT), codes);
+                }
+            }
+
+            List<ImportRow> inserts = new ArrayList<>();
+            List<ImportRow> updates = new ArrayList<>();
+            for (ImportRow row : chunk) {
+                ProductCodes stored = bySku.get(row.sku().toLowerCase(Locale.ROOT));
+                if (row.barcode() != null) {
+                    ProductCodes holder = byBarcode.get(row.barcode().toLowerCase(Locale.ROOT));
+                    if (holder != null && holder != stored) {
+                        reject(row.rowNumber(), row.sku(), "Barcode " + row.barcode() + " already belongs to product " + holder.sku());
+                        continue;
+                    }
+                }
+                if (stored != null) {
+                    updates.add(forUpdate(row, stored));
+                } else {
+                    inserts.add(forInsert(row));
+                }
+            }
+            chunk.clear();
+            if (inserts.isEmpty() && updates.isEmpty()) {
+                return;
+            }
+
+            try {
+                int[] updated = transactionTemplate.execute(status -> {
+                    importRepository.insert(companyId, inserts);
+                    return importRepository.update(companyId, updates);
+                });
+                job.getInsertedRows().addAndGet(inserts.size());
+                for (int i = 0; i < updates.size(); i++) {
+                    countUpdate(updates.get(i), updated[i]);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent edit took a SKU or barcode since the check: find the rows one by one
+                log.debug("Import batch for company {} rejected, retrying row by row: {}", companyId, e.getMessage());
+                for (ImportRow row : inserts) {
+                    try {
+                        importRepository.insert(companyId, List.of(row));
+                        job.getInsertedRows().incrementAndGet();
+                    } catch (DataIntegrityViolationException rowError) {
+                        reject(row.rowNumber(), row.sku(), "SKU or barcode conflicts with another product");
+                    }
+                }
+                for (ImportRow row : updates) {
+                    try {
+                        countUpdate(row, importRepository.update(companyId, List.of(row))[0]);
+                    } catch (DataIntegrityViolationException rowError) {
+                        reject(row.rowNumber(), row.sku(), "Barcode " + row.barcode() + " already belongs to another product");
+                    }
+                }
+            }
+        }
+
+        private void countUpdate(ImportRow row, int matched) {
+            if (matched == 0) {
+                reject(row.rowNumber(), row.sku(), "Product was deleted during the import");
+            } else {
+                job.getUpdatedRows().incrementAndGet();
+            }
+        }
+
+        private ImportRow forInsert(ImportRow row) {
+            return new ImportRow(row.rowNumber(), row.sku(), row.name(), row.barcode(),
+                Product.buildSearchText(row.name(), row.sku(), row.barcode()),
+                row.description(), row.sellingPrice(), row.costPrice(),
+                row.onHand() != null ? row.onHand() : 0,
+                row.minLevel() != null ? row.minLevel() : 0,
+                row.maxLevel() != null ? row.maxLevel() : 0,
+                row.status() != null ? row.status() : Product.ProductStatus.ACTIVE.name(),
+                row.tracked() != null ? row.tracked() : Boolean.TRUE,
+                row.categoryId(), row.supplierId(), row.brandId());
+        }
+
+        private ImportRow forUpdate(ImportRow row, ProductCodes stored) {
+            String barcode = row.barcode() != null ? row.barcode() : stored.barcode();
+            return new ImportRow(row.rowNumber(), row.sku(), row.name(), row.barcode(),
+                Product.buildSearchText(row.name(), row.sku(), barcode),
+                row.description(), row.sellingPrice(), row.costPrice(),
+                row.onHand(), row.minLevel(), row.maxLevel(), row.status(), row.tracked(),
+                row.categoryId(), row.supplierId(), row.brandId());
+        }
+
+        private void reject(int rowNumber, String sku, String reason) {
+            job.getFailedRows().incrementAndGet();
+            try {
+                errors.write(rowNumber + "," + SpreadsheetWriter.csvField(sku) + "," + SpreadsheetWriter.csvField(reason) + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String cell(List<String> cells, Column column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size()) {
+                return "";
+            }
+            return cells.get(index).trim();
+        }
+
+        private String required(List<String> cells, Column column, String label, int maxLength) {
+            String value = optional(cells, column, label, maxLength);
+            if (value == null) {
+                throw new RowException(label + " is required");
+            }
+            return value;
+        }
+
+        private String optional(List<String> cells, Column column, String label, int maxLength) {
+            String value = cell(cells, column);
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (value.length() > maxLength) {
+                throw new RowException(label + " must not exceed " + maxLength + " characters");
+            }
+            return value;
+        }
+
+        private BigDecimal price(List<String> cells, Column column, String label) {
+            BigDecimal value = number(cells, column, label);
+            if (value == null) {
+                throw new RowException(label + " is required");
+            }
+            if (value.signum() <= 0 || value.compareTo(MAX_PRICE) > 0 || value.stripTrailingZeros().scale() > 2) {
+                throw new RowException(label + " must be greater than 0 with up to 10 digits and 2 decimal places");
+            }
+            return value;
+        }
+
+        private Integer quantity(List<String> cells, Column column, String label) {
+            BigDecimal value = number(cells, column, label);
+            if (value == null) {
+                return null;
+            }
+            try {
+                int quantity = value.intValueExact();
+                if (quantity < 0) {
+                    throw new RowException(label + " cannot be negative");
+                }
+                return quantity;
+            } catch (ArithmeticException e) {
+                throw new RowException(label + " must be a whole number");
+            }
+        }
+
+        private BigDecimal number(List<String> cells, Column column, String label) {
+            String value = cell(cells, column);
+            if (value.isEmpty()) {
+                return null;
+            }
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new RowException(label + " must be a number");
+            }
+        }
+
+        private String status(List<String> cells) {
+            String value = cell(cells, Column.STATUS);
+            if (value.isEmpty()) {
+                return null;
+            }
+            try {
+                return Product.ProductStatus.valueOf(value.toUpperCase(Locale.ROOT)).name();
+            } catch (IllegalArgumentException e) {
+                throw new RowException("Status must be ACTIVE, INACTIVE or DISCONTINUED");
+            }
+        }
+
+        private Boolean tracked(List<String> cells) {
+            String value = TextNormalizer.fold(cell(cells, Column.TRACKED));
+            return switch (value) {
+                case "" -> null;
+                case "true", "yes", "y", "1", "x", "co" -> Boolean.TRUE;
+                case "false", "no", "n", "0", "khong" -> Boolean.FALSE;
+                default -> throw new RowException("Tracked must be true or false");
+            };
+        }
+
+        private Long reference(List<String> cells, Column column, String label, Map<String, Long> byName) {
+            String value = cell(cells, column);
+            if (value.isEmpty()) {
+                return null;
+            }
+            Long id = byName.get(TextNormalizer.fold(value));
+            if (id == null) {
+                throw new RowException(label + " '" + value + "' does not exist");
+            }
+            if (AMBIGUOUS.equals(id)) {
+                throw new RowException(label + " '" + value + "' matches more than one " + label.toLowerCase(Locale.ROOT));
+            }
+            return id;
+        }
+    }
+
+    private static Map<String, Long> byName(List<NamedRef> refs) {
+        Map<String, Long> byName = new HashMap<>();
+        for (NamedRef ref : refs) {
+            byName.merge(TextNormalizer.fold(ref.name()), ref.id(), (a, b) -> AMBIGUOUS);
+        }
+        return byName;
+    }
+}
@@ -0,0 +1,141 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-tenant value of the stock on hand ({@code onHand * price}) at retail and at cost, in total
+ * and per category, so dashboards read it without summing the catalog.
+ *
+ * <p>A tenant's valuation is computed with one grouped query on first use and then adjusted by
+ * the difference between the before and after states of each change reported through
+ * {@link ProductChangeFeed}. Bulk writes drop the tenant's valuation. Valuations held by this node
+ * are recomputed every {@code recompute-interval-ms} to correct drift from missed messages or
+ * changes that committed while the valuation loaded; tenants not read for {@code max-idle} are
+ * dropped instead.
+ */
+@Component
+@Slf4j
+public class ProductInventoryValuation implements ProductChangeListener {
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, TenantValuation> valuations;
+
+    public ProductInventoryValuation(ProductRepository productRepository,
+                                     @Value("${app.catalog.valuation.max-tenants:1000}") long maxTenants,
+                                     @Value("${app.catalog.valuation.max-idle:1h}") Duration maxIdle) {
+        this.productRepository = productRepository;
+        this.valuations = Caffeine.newBuilder().maximumSize(maxTenants).expireAfterAccess(maxIdle).build();
+    }
+
+    /**
+     * Value of the company's stock on hand.
+     */
+    public StockValue total(Long companyId) {
+        return valuations.get(companyId, this::load).total();
+    }
+
+    /**
+     * Value of the company's stock on hand per category id; uncategorized products are under null.
+     */
+    public Map<Long, StockValue> byCategory(Long companyId) {
+        return valuations.get(companyId, this::load).byCategory();
+    }
+
+    @Override
+    public void onProductChanged(Long companyId, ProductSnapshot before, ProductSnapshot after) {
+        TenantValuation valuation = valuations.getIfPresent(companyId);
+        if (valuation == null) return;
+        if (before != null) valuation.add(before.categoryId(), valueOf(before).negate());
+        if (after != null) valuation.add(after.categoryId(), valueOf(after));
+    }
+
+    @Override
+    public void onTenantInvalidated(Long companyId) {
+        valuations.invalidate(companyId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.valuation.recompute-interval-ms:900000}",
+            initialDelayString = "${app.catalog.valuation.recompute-interval-ms:900000}")
+    public void recompute() {
+        int tenants = 0;
+        for (Long companyId : new ArrayList<>(valuations.asMap().keySet())) {
+            try {
+                // Only tenants still held; a concurrent invalidation wins
+                valuations.asMap().computeIfPresent(companyId, (id, stale) -> load(id));
+                tenants++;
+            } catch (RuntimeException e) {
+                log.warn("Inventory valuation recompute failed for company {}: {}", companyId, e.getMessage());
+                valuations.invalidate(companyId);
+            }
+        }
+        log.debug("Recomputed inventory valuation for {} companies", tenants);
+    }
+
+    private TenantValuation load(Long companyId) {
+        TenantValuation valuation = new TenantValuation();
+        for (Object[] row : productRepository.sumInventoryValueByCategory(companyId)) {
+            valuation.add((Long) row[0], new StockValue(decimal(row[1]), decimal(row[2])));
+        }
+        return valuation;
+    }
+
+    private static StockValue valueOf(ProductSnapshot product) {
+        BigDecimal onHand = BigDecimal.valueOf(product.onHand() != null ? product.onHand() : 0);
+        return new StockValue(
+                product.sellingPrice() != null ? onHand.multiply(product.sellingPrice()) : BigDecimal.ZERO,
+                product.costPrice() != null ? onHand.multiply(product.costPrice()) : BigDecimal.ZERO);
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    /**
+     * Stock value at selling price and at cost price.
+     */
+    public record StockValue(BigDecimal retail, BigDecimal cost) {
+
+        static final StockValue ZERO = new StockValue(BigDecimal.ZERO, BigDecimal.ZERO);
+
+        StockValue plus(StockValue other) {
+            return new StockValue(retail.add(other.retail), cost.add(other.cost));
+        }
+
+        StockValue negate() {
+            return new StockValue(retail.negate(), cost.negate());
+        }
+    }
+
+    private static final class TenantValuation {
+
+        private final Map<Long, StockValue> categories = new HashMap<>();
+        private StockValue total = StockValue.ZERO;
+
+        synchronized void add(Long categoryId, StockValue delta) {
+            categories.merge(categoryId, delta, StockValue::plus);
+            total = total.plus(delta);
+        }
+
+        synchronized StockValue total() {
+            return total;
+        }
+
+        synchronized Map<Long, StockValue> byCategory() {
+            return new HashMap<>(categories);
+        }
+    }
+}
@@ -1,14 +1,42 @@
 package fa.academy.kiotviet.core.productcatalog.service;
 
+import fa.academy.kiotviet.application.dto.productcatalog.request.ProductBulkUpdateRequest;
 import fa.academy.kiotviet.application.dto.productcatalog.request.ProductCreateRequest;
 import fa.academy.kiotviet.application.dto.productcatalog.request.ProductUpdateRequest;
 import fa.academy.kiotviet.application.dto.productcatalog.response.ProductAutocompleteItem;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductBulkUpdateResultDto;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductChangesDto;
 import fa.academy.kiotviet.application.dto.productcatalog.response.ProductDto;
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductSyncItem;
+import fa.academy.kiotviet.core.productcatalog.domain.Brand;
+import fa.academy.kiotviet.core.productcatalog.domain.Category;
 import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.domain.ProductImage;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductBulkUpdateRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductExportRow;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductImageRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSyncRow;
 import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.shared.exception.BusinessRuleException;
 import fa.academy.kiotviet.core.shared.exception.ResourceNotFoundException;
+import fa.academy.kiotviet.core.shared.util.TextNormalizer;
+import fa.academy.kiotviet.core.suppliers.domain.Supplier;
+import fa.academy.kiotviet.infrastructure.persistence.StreamingQueries;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetFormat;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetWriter;
+import fa.academy.kiotviet.infrastructure.storage.FileStorageService;
+import fa.academy.kiotviet.infrastructure.storage.StoredImage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -16,8 +44,22 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for Product entities with comprehensive CRUD operations.
@@ -27,7 +69,21 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_SYNC_PAGE = 2000;
+
     private final ProductRepository productRepository;
+    private final ProductBulkUpdateRepository productBulkUpdateRepository;
+    private final ProductCodeIndex productCodeIndex;
+    private final ProductAutocompleteIndex productAutocompleteIndex;
+    private final ProductChangeFeed productChangeFeed;
+    private final ProductImageRepository productImageRepository;
+    private final FileStorageService fileStorageService;
+    private final EntityManager entityManager;
+
+    // Changes newer than this are held back from the sync feed until their transactions have committed
+    @Value("${app.catalog.sync.settle-time:5s}")
+    private Duration syncSettleTime;
 
     @Transactional
     public ProductDto create(Long companyId, ProductCreateRequest req) {
@@ -83,7 +139,12 @@ public class ProductService {
                     .id(req.getBrandId()).build());
         }
 
+        StoredImage image = applyImage(companyId, product);
         Product saved = productRepository.save(product);
+        if (saved.getImage() != null) {
+            recordPrimaryImage(saved, image);
+        }
+        productChangeFeed.productChanged(null, saved);
         return toDto(saved);
     }
 
@@ -91,6 +152,7 @@ public class ProductService {
     public ProductDto update(Long companyId, Long id, ProductUpdateRequest req) {
         Product product = productRepository.findByIdAndCompany_Id(id, companyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found", "PRODUCT_NOT_FOUND"));
+        ProductSnapshot before = ProductSnapshot.from(product);
 
         // Validate SKU uniqueness if changed
         if (req.getSku() != null && !req.getSku().equalsIgnoreCase(product.getSku())) {
@@ -114,8 +176,11 @@ public class ProductService {
             product.setName(req.getName());
         if (req.getDescription() != null)
             product.setDescription(req.getDescription());
+        boolean imageChanged = false;
         if (req.getImage() != null) {
-            product.setImage(req.getImage().isEmpty() ? null : req.getImage());
+            String image = req.getImage().isEmpty() ? null : req.getImage();
+            imageChanged = !Objects.equals(image, product.getImage());
+            product.setImage(image);
         }
         if (req.getSellingPrice() != null)
             product.setSellingPrice(req.getSellingPrice());
@@ -176,7 +241,12 @@ public class ProductService {
                     .id(req.getBrandId()).build());
         }
 
+        StoredImage image = imageChanged ? applyImage(companyId, product) : null;
         Product saved = productRepository.save(product);
+        if (imageChanged) {
+            recordPrimaryImage(saved, image);
+        }
+        productChangeFeed.productChanged(before, saved);
         return toDto(saved);
     }
 
@@ -184,8 +254,10 @@ public class ProductService {
     public void softDelete(Long companyId, Long id) {
         Product product = productRepository.findByIdAndCompany_Id(id, companyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found", "PRODUCT_NOT_FOUND"));
+        ProductSnapshot before = ProductSnapshot.from(product);
         product.setStatus(Product.ProductStatus.DISCONTINUED);
         productRepository.save(product);
+        productChangeFeed.productChanged(before, product);
     }
 
     public ProductDto get(Long companyId, Long id) {
@@ -205,53 +277,196 @@ public class ProductService {
             List<Long> brandIds,
             Product.ProductStatus status,
             Boolean tracked,
+            Product.StockStatus stockStatus,
             Integer page,
             Integer size,
             String sortBy,
             String sortDir) {
-        Sort sort = Sort.by("desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC,
-                (sortBy == null || sortBy.isBlank()) ? "updatedAt" : sortBy);
+        // Full-text searches without an explicit sort (or sortBy=relevance) are ranked by relevance
+        boolean sortByRelevance = fullTextTerms(search) != null
+                && (sortBy == null || sortBy.isBlank() || "relevance".equalsIgnoreCase(sortBy));
+        Sort sort = sortByRelevance ? Sort.unsorted()
+                : Sort.by("desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC,
+                        (sortBy == null || sortBy.isBlank() || "relevance".equalsIgnoreCase(sortBy)) ? "name" : sortBy);
         Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1), sort);
 
-        Specification<Product> spec = Specification.where(byCompany(companyId))
-                .and(likeSearch(search))
-                .and(eqCategoryOrCategories(categoryId, categoryIds))
-                .and(eqSupplierOrSuppliers(supplierId, supplierIds))
-                .and(eqBrandOrBrands(brandId, brandIds))
-                .and(eqStatus(status))
-                .and(eqTracked(tracked));
+        Specification<Product> spec = filters(companyId, search, sortByRelevance, categoryId, categoryIds,
+                supplierId, supplierIds, brandId, brandIds, status, tracked, stockStatus);
 
         Page<Product> result = productRepository.findAll(spec, pageable);
         return result.map(this::toDto);
     }
 
+    /**
+     * Write the products matching the list filters, ordered by name, to {@code out}. Rows are
+     * streamed from a forward-only cursor straight into the file, so memory use does not depend
+     * on the catalog size.
+     */
+    @Transactional
+    public void export(
+            Long companyId,
+            String search,
+            List<Long> categoryIds,
+            List<Long> supplierIds,
+            List<Long> brandIds,
+            Product.ProductStatus status,
+            Boolean tracked,
+            SpreadsheetFormat format,
+            OutputStream out) throws IOException {
+        Specification<Product> spec = filters(companyId, search, false, null, categoryIds,
+                null, supplierIds, null, brandIds, status, tracked, null);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductExportRow> query = cb.createQuery(ProductExportRow.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        Join<Product, Supplier> supplier = root.join("supplier", JoinType.LEFT);
+        Join<Product, Brand> brand = root.join("brand", JoinType.LEFT);
+        query.select(cb.construct(ProductExportRow.class,
+                        root.get("sku"), root.get("name"), root.get("barcode"), root.get("description"),
+                        root.get("sellingPrice"), root.get("costPrice"), root.get("onHand"),
+                        root.get("minLevel"), root.get("maxLevel"), root.get("status"), root.get("isTracked"),
+                        category.get("name"), supplier.get("name"), brand.get("name")))
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("name")), cb.asc(root.get("id")));
+
+        try (Stream<ProductExportRow> rows = StreamingQueries.stream(entityManager.createQuery(query));
+             SpreadsheetWriter writer = SpreadsheetWriter.open(format, out, "Products", ProductExportRow.HEADER)) {
+            for (ProductExportRow row : (Iterable<ProductExportRow>) rows::iterator) {
+                writer.row(row.cells());
+            }
+        }
+    }
+
+    /**
+     * Apply one set of changes to every product matching the filter with a single set-based
+     * update. Products whose new values would break the pricing or stock level rules are skipped
+     * and reported in the result rather than failing the whole request.
+     */
+    @Transactional
+    public ProductBulkUpdateResultDto bulkUpdate(Long companyId, ProductBulkUpdateRequest req) {
+        ProductBulkUpdateRequest.Filter f = req.getFilter() != null ? req.getFilter() : new ProductBulkUpdateRequest.Filter();
+        ProductBulkUpdateRepository.Filter filter = new ProductBulkUpdateRepository.Filter(
+                normalizeCategoryPath(f.getCategoryPath()), f.getSupplierId(), f.getBrandId(), f.getStatus());
+        ProductBulkUpdateRepository.Changes changes = new ProductBulkUpdateRepository.Changes(
+                req.getPriceMode(), req.getPriceValue(), req.getStatus(),
+                req.getMinLevel(), req.getMaxLevel(), req.getIsTracked());
+        validate(changes);
+
+        int matched = productBulkUpdateRepository.count(companyId, filter);
+        int updated = matched == 0 ? 0 : productBulkUpdateRepository.update(companyId, filter, changes);
+        if (updated > 0) {
+            productChangeFeed.tenantInvalidated(companyId);
+        }
+        return ProductBulkUpdateResultDto.builder()
+                .matchedCount(matched)
+                .updatedCount(updated)
+                .skippedCount(matched - updated)
+                .build();
+    }
+
+    private static void validate(ProductBulkUpdateRepository.Changes changes) {
+        if (changes.priceMode() == null && changes.status() == null && changes.minLevel() == null
+                && changes.maxLevel() == null && changes.tracked() == null) {
+            throw new BusinessRuleException("No changes requested", "BULK_UPDATE_EMPTY");
+        }
+        if (changes.priceMode() != null) {
+            BigDecimal value = changes.priceValue();
+            if (value == null) {
+                throw new BusinessRuleException("Price value is required", "BULK_UPDATE_PRICE_REQUIRED");
+            }
+            if (changes.priceMode() == ProductBulkUpdateRepository.PriceMode.SET && value.signum() <= 0) {
+                throw new BusinessRuleException("Selling price must be greater than 0", "BULK_UPDATE_PRICE_INVALID");
+            }
+            if (changes.priceMode() == ProductBulkUpdateRepository.PriceMode.ADJUST_PERCENT
+                    && value.compareTo(BigDecimal.valueOf(-100)) <= 0) {
+                throw new BusinessRuleException("Price cannot be reduced by 100% or more", "BULK_UPDATE_PRICE_INVALID");
+            }
+        }
+        if (changes.minLevel() != null && changes.maxLevel() != null
+                && changes.maxLevel() > 0 && changes.minLevel() >= changes.maxLevel()) {
+            throw new BusinessRuleException("Maximum level must be greater than minimum level", "BULK_UPDATE_LEVELS_INVALID");
+        }
+    }
+
+    /**
+     * "drinks/soft-drinks/" -> "/drinks/soft-drinks", matching how category paths are stored.
+     */
+    private static String normalizeCategoryPath(String path) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        String trimmed = path.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.startsWith("/") ? trimmed : "/" + trimmed;
+    }
+
+    /**
+     * Products created or updated after the sync cursor, oldest first, for POS clients keeping a
+     * local copy of the catalog. Discontinued products come back as ids to delete. A null cursor
+     * starts from the beginning.
+     *
+     * <p>The cursor is the {@code (updatedAt, id)} of the last product returned. Changes are only
+     * served once they are {@code settle-time} old, so a transaction that committed after a newer
+     * one cannot slip in behind a cursor that has already passed it.
+     */
+    public ProductChangesDto changesSince(Long companyId, String cursor, int limit) {
+        SyncCursor from = cursor == null || cursor.isBlank() ? SyncCursor.START : SyncCursor.decode(cursor);
+        int size = Math.min(Math.max(limit, 1), MAX_SYNC_PAGE);
+        LocalDateTime until = LocalDateTime.now().minus(syncSettleTime);
+
+        List<ProductSyncRow> rows = productRepository.findChangedSince(
+                companyId, from.updatedAt(), from.id(), until, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        List<ProductSyncItem> products = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (ProductSyncRow row : rows) {
+            if (row.status() == Product.ProductStatus.DISCONTINUED) {
+                deleted.add(row.id());
+            } else {
+                products.add(ProductSyncItem.builder()
+                        .id(row.id())
+                        .sku(row.sku())
+                        .barcode(row.barcode())
+                        .name(row.name())
+                        .sellingPrice(row.sellingPrice())
+                        .onHand(row.onHand())
+                        .status(row.status().name())
+                        .isTracked(row.isTracked())
+                        .build());
+            }
+        }
+        SyncCursor next = rows.isEmpty() ? from
+                : new SyncCursor(rows.get(rows.size() - 1).updatedAt(), rows.get(rows.size() - 1).id());
+        return ProductChangesDto.builder()
+                .cursor(next.encode())
+                .hasMore(hasMore)
+                .products(products)
+                .deleted(deleted)
+                .build();
+    }
+
     public List<ProductAutocompleteItem> autocomplete(Long companyId, String query, int limit) {
         return autocomplete(companyId, query, limit, null);
     }
 
     public List<ProductAutocompleteItem> autocomplete(Long companyId, String query, int limit, Long supplierId) {
         int effectiveLimit = limit <= 0 ? 10 : Math.min(limit, 50);
-        Pageable pageable = PageRequest.of(0, effectiveLimit, Sort.by("name").ascending());
         String q = query == null ? "" : query.trim();
 
-        List<Product> products;
-        if (supplierId != null) {
-            // When supplier is chosen:
-            // - If query empty: return top items for that supplier (by name)
-            // - Else: unified prefix search restricted to the supplier
-            if (q.isEmpty()) {
-                products = productRepository.autocompleteProductNamesBySupplier(companyId, supplierId, "", pageable);
-            } else {
-                products = productRepository.autocompleteAllBySupplier(companyId, supplierId, q, pageable);
-            }
-        } else {
-            // No supplier chosen: require non-empty query to avoid heavy result sets
-            if (q.isEmpty())
-                return List.of();
-            products = productRepository.autocompleteAll(companyId, q, pageable);
-        }
+        // No supplier chosen: require non-empty query to avoid heavy result sets.
+        // Supplier chosen with an empty query: that supplier's top items.
+        if (supplierId == null && q.isEmpty())
+            return List.of();
 
-        return products.stream()
+        // Prefix match on name, name words, SKU or barcode from the in-memory index; best sellers first
+        return productAutocompleteIndex.search(companyId, q, effectiveLimit, supplierId).stream()
                 .map(this::toAutocomplete)
                 .collect(Collectors.toList());
     }
@@ -259,18 +474,12 @@ public class ProductService {
     public ProductAutocompleteItem lookupByCode(Long companyId, String code) {
         if (code == null || code.trim().isEmpty())
             return null;
-        String c = code.trim();
-        // Try SKU exact (case-insensitive)
-        var bySku = productRepository.findByCompany_IdAndSkuIgnoreCase(companyId, c).orElse(null);
-        if (bySku != null)
-            return toAutocomplete(bySku);
-        // Try barcode exact (case-insensitive)
-        var byBarcode = productRepository.findByCompany_IdAndBarcodeIgnoreCase(companyId, c).orElse(null);
-        if (byBarcode != null)
-            return toAutocomplete(byBarcode);
-        return null;
+        // SKU first, then barcode (case-insensitive), served from the per-tenant in-memory index
+        ProductSnapshot match = productCodeIndex.lookup(companyId, code);
+        return match != null ? toAutocomplete(match) : null;
     }
 
+    // Stock listings read the persisted stock status (idx_company_stock_status) with relations fetched
     public List<ProductDto> findLowStockProducts(Long companyId) {
         List<Product> products = productRepository.findLowStockProducts(companyId);
         return products.stream().map(this::toDto).collect(Collectors.toList());
@@ -301,8 +510,75 @@ public class ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found", "PRODUCT_NOT_FOUND"));
 
+        ProductSnapshot before = ProductSnapshot.from(product);
         product.setOnHand(newStock);
         productRepository.save(product);
+        productChangeFeed.productChanged(before, product);
+    }
+
+    /**
+     * Position in the sync feed, sent to clients as an opaque base64url string.
+     */
+    private record SyncCursor(LocalDateTime updatedAt, long id) {
+
+        static final SyncCursor START = new SyncCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+        String encode() {
+            String raw = updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static SyncCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+                int colon = raw.indexOf(':');
+                LocalDateTime updatedAt = LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(Long.parseLong(raw.substring(0, colon))), ZoneOffset.UTC);
+                return new SyncCursor(updatedAt, Long.parseLong(raw.substring(colon + 1)));
+            } catch (RuntimeException e) {
+                throw new BusinessRuleException("Invalid sync cursor", "SYNC_CURSOR_INVALID");
+            }
+        }
+    }
+
+    /**
+     * Resolves the product's image to the variants {@link FileStorageService} generated for it
+     * and points the thumbnail at the small one; images stored elsewhere have no thumbnail.
+     */
+    private StoredImage applyImage(Long companyId, Product product) {
+        StoredImage image = fileStorageService.findProductImage(companyId, product.getImage()).orElse(null);
+        product.setThumbnailUrl(image != null ? image.smallUrl() : null);
+        return image;
+    }
+
+    /**
+     * Keeps the product's primary {@link ProductImage} in line with its image, recording the
+     * content hash and variant URLs when the image has them.
+     */
+    private void recordPrimaryImage(Product product, StoredImage image) {
+        ProductImage primary = productImageRepository
+                .findByProduct_IdAndIsPrimaryTrueAndCompany_Id(product.getId(), product.getCompany().getId())
+                .orElse(null);
+        if (product.getImage() == null) {
+            if (primary != null) {
+                productImageRepository.delete(primary);
+            }
+            return;
+        }
+        if (primary == null) {
+            primary = ProductImage.builder()
+                    .product(product)
+                    .company(product.getCompany())
+                    .isPrimary(true)
+                    .build();
+        }
+        primary.setImageUrl(product.getImage());
+        primary.setContentHash(image != null ? image.contentHash() : null);
+        primary.setSmallUrl(image != null ? image.smallUrl() : null);
+        primary.setMediumUrl(image != null ? image.mediumUrl() : null);
+        primary.setLargeUrl(image != null ? image.largeUrl() : null);
+        primary.setFileSize(image != null ? image.fileSize() : null);
+        productImageRepository.save(primary);
     }
 
     // Private helper methods
@@ -314,6 +590,7 @@ public class ProductService {
                 .barcode(product.getBarcode())
                 .description(product.getDescription())
                 .image(product.getImage())
+                .thumbnailUrl(product.getThumbnailUrl())
                 .sellingPrice(product.getSellingPrice())
                 .costPrice(product.getCostPrice())
                 .profitAmount(product.getProfitAmount())
@@ -323,7 +600,7 @@ public class ProductService {
                 .maxLevel(product.getMaxLevel())
                 .status(product.getStatus())
                 .isTracked(product.getIsTracked())
-                .stockStatus(product.getStockStatus())
+                .stockStatus(product.getStockStatusDisplayName())
                 .needsReorder(product.needsReorder())
                 .reorderQuantity(product.getReorderQuantity())
                 .isAvailable(product.isAvailable())
@@ -375,39 +652,74 @@ public class ProductService {
                 .build();
     }
 
-    private String buildDisplayName(Product product) {
-        if (product.getSku() != null && !product.getSku().trim().isEmpty()) {
-            return String.format("%s - %s", product.getSku(), product.getName());
-        }
-        return product.getName();
-    }
-
-    private ProductAutocompleteItem toAutocomplete(Product p) {
+    private ProductAutocompleteItem toAutocomplete(ProductSnapshot p) {
         return ProductAutocompleteItem.builder()
-                .id(p.getId())
-                .sku(p.getSku())
-                .name(p.getName())
-                .barcode(p.getBarcode())
-                .displayName(buildDisplayName(p))
-                .onHand(p.getOnHand())
+                .id(p.id())
+                .sku(p.sku())
+                .name(p.name())
+                .barcode(p.barcode())
+                .displayName(p.displayName())
+                .onHand(p.onHand())
                 .isAvailable(p.isAvailable())
-                .sellingPrice(p.getSellingPrice().toString())
+                .sellingPrice(p.sellingPrice().toString())
                 .build();
     }
 
     // Specification methods
+    private Specification<Product> filters(
+            Long companyId, String search, boolean rankByRelevance,
+            Long categoryId, List<Long> categoryIds, Long supplierId, List<Long> supplierIds,
+            Long brandId, List<Long> brandIds, Product.ProductStatus status, Boolean tracked,
+            Product.StockStatus stockStatus) {
+        return Specification.where(byCompany(companyId))
+                .and(textSearch(search, rankByRelevance))
+                .and(eqCategoryOrCategories(categoryId, categoryIds))
+                .and(eqSupplierOrSuppliers(supplierId, supplierIds))
+                .and(eqBrandOrBrands(brandId, brandIds))
+                .and(eqStatus(status))
+                .and(eqTracked(tracked))
+                .and(eqStockStatus(stockStatus));
+    }
+
     private Specification<Product> byCompany(Long companyId) {
         return (root, query, cb) -> cb.equal(root.get("company").get("id"), companyId);
     }
 
-    private Specification<Product> likeSearch(String search) {
+    /**
+     * Accent-insensitive search on the folded {@code search_text} column: ngram full-text search when
+     * the query has a word of at least two characters, otherwise a LIKE scan.
+     */
+    private Specification<Product> textSearch(String search, boolean rankByRelevance) {
         if (search == null || search.isBlank())
             return null;
-        String pattern = "%" + search.toLowerCase() + "%";
-        return (root, query, cb) -> cb.or(
-                cb.like(cb.lower(root.get("name")), pattern),
-                cb.like(cb.lower(root.get("sku")), pattern),
-                cb.like(cb.lower(root.get("barcode")), pattern));
+        String terms = fullTextTerms(search);
+        if (terms == null) {
+            String pattern = "%" + TextNormalizer.fold(search) + "%";
+            return (root, query, cb) -> cb.like(root.get("searchText"), pattern);
+        }
+        return (root, query, cb) -> {
+            Expression<Double> relevance = cb.function("match_against", Double.class,
+                    root.get("searchText"), cb.literal(terms));
+            // Not for the count query of a page
+            if (rankByRelevance && !Long.class.equals(query.getResultType())) {
+                query.orderBy(cb.desc(relevance), cb.asc(root.get("name")));
+            }
+            return cb.greaterThan(relevance, 0.0);
+        };
+    }
+
+    /**
+     * Boolean-mode full-text query requiring every folded word that is at least as long as the
+     * ngram token size (2), e.g. "Cà phê sữa" -> "+ca +phe +sua"; null if there is no such word.
+     */
+    static String fullTextTerms(String search) {
+        if (search == null)
+            return null;
+        String terms = Arrays.stream(NON_WORD.split(TextNormalizer.fold(search)))
+                .filter(word -> word.length() >= 2)
+                .map(word -> "+" + word)
+                .collect(Collectors.joining(" "));
+        return terms.isEmpty() ? null : terms;
     }
 
     private Specification<Product> eqCategory(Long categoryId) {
@@ -440,6 +752,12 @@ public class ProductService {
         return (root, query, cb) -> cb.equal(root.get("isTracked"), tracked);
     }
 
+    private Specification<Product> eqStockStatus(Product.StockStatus stockStatus) {
+        if (stockStatus == null)
+            return null;
+        return (root, query, cb) -> cb.equal(root.get("stockStatus"), stockStatus);
+    }
+
     private Specification<Product> eqCategoryOrCategories(Long categoryId, List<Long> categoryIds) {
         if (categoryId != null) {
             return eqCategory(categoryId);
@@ -0,0 +1,99 @@
+package fa.academy.kiotviet.core.productcatalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-tenant count of products in each {@link Product.StockStatus}, for dashboards and stock
+ * alerts without counting the catalog on every load.
+ *
+ * <p>A tenant's counters are loaded with one grouped count over {@code idx_company_stock_status}
+ * on first use and then moved by the before/after states of changes reported through
+ * {@link ProductChangeFeed}. Bulk writes drop the tenant's counters. A change that commits while
+ * the counters load can be counted twice, so counters are also reloaded after {@code max-age}.
+ */
+@Component
+@Slf4j
+public class ProductStockCounters implements ProductChangeListener {
+
+    private static final Product.StockStatus[] STATUSES = Product.StockStatus.values();
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, AtomicLongArray> counters;
+
+    public ProductStockCounters(ProductRepository productRepository,
+                                @Value("${app.catalog.stock-counters.max-tenants:1000}") long maxTenants,
+                                @Value("${app.catalog.stock-counters.max-age:10m}") Duration maxAge) {
+        this.productRepository = productRepository;
+        this.counters = Caffeine.newBuilder().maximumSize(maxTenants).expireAfterWrite(maxAge).build();
+    }
+
+    /**
+     * Products of the company per stock status.
+     */
+    public StockCounts counts(Long companyId) {
+        AtomicLongArray counts = counters.get(companyId, this::load);
+        long[] values = new long[STATUSES.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.max(0, counts.get(i));
+        }
+        return new StockCounts(
+                values[Product.StockStatus.NOT_TRACKED.ordinal()],
+                values[Product.StockStatus.OUT_OF_STOCK.ordinal()],
+                values[Product.StockStatus.LOW_STOCK.ordinal()],
+                values[Product.StockStatus.IN_STOCK.ordinal()],
+                values[Product.StockStatus.OVERSTOCKED.ordinal()]);
+    }
+
+    @Override
+    public void onProductChanged(Long companyId, ProductSnapshot before, ProductSnapshot after) {
+        Product.StockStatus from = before != null ? before.stockStatus() : null;
+        Product.StockStatus to = after != null ? after.stockStatus() : null;
+        if (from == to) return;
+        AtomicLongArray counts = counters.getIfPresent(companyId);
+        if (counts == null) return;
+        if (from != null) counts.decrementAndGet(from.ordinal());
+        if (to != null) counts.incrementAndGet(to.ordinal());
+    }
+
+    @Override
+    public void onTenantInvalidated(Long companyId) {
+        counters.invalidate(companyId);
+    }
+
+    private AtomicLongArray load(Long companyId) {
+        AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+        for (Object[] row : productRepository.countByStockStatus(companyId)) {
+            counts.set(((Product.StockStatus) row[0]).ordinal(), ((Number) row[1]).longValue());
+        }
+        log.debug("Loaded stock counters for company {}", companyId);
+        return counts;
+    }
+
+    public record StockCounts(long notTracked, long outOfStock, long lowStock, long inStock, long overstocked) {
+
+        public long total() {
+            return notTracked + outOfStock + lowStock + inStock + overstocked;
+        }
+
+        public long tracked() {
+            return total() - notTracked;
+        }
+
+        /**
+         * Tracked products at or below their minimum level, out of stock included.
+         */
+        public long belowMinimum() {
+            return outOfStock + lowStock;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import fa.academy.kiotviet.application.dto.purchase.request.*;
 import fa.academy.kiotviet.application.dto.purchase.response.PurchaseDto;
 import fa.academy.kiotviet.core.productcatalog.domain.Product;
 import fa.academy.kiotviet.core.productcatalog.repository.ProductRepository;
+import fa.academy.kiotviet.core.productcatalog.repository.ProductSnapshot;
+import fa.academy.kiotviet.core.productcatalog.service.ProductChangeFeed;
 import fa.academy.kiotviet.core.purchase.domain.PurchaseEntry;
 import fa.academy.kiotviet.core.purchase.domain.PurchaseEntryLine;
 import fa.academy.kiotviet.core.purchase.domain.PurchasePayment;
@@ -36,6 +38,7 @@ public class PurchaseService {
     private final PurchasePaymentRepository purchasePaymentRepository;
     private final SupplierRepository supplierRepository;
     private final ProductRepository productRepository;
+    private final ProductChangeFeed productChangeFeed;
 
     @Transactional
     public PurchaseDto create(Long companyId, PurchaseCreateRequest req) {
@@ -286,9 +289,11 @@ public class PurchaseService {
                         .findWithLockByIdAndCompany_Id(line.getProduct().getId(), companyId)
                         .orElseThrow(() -> new ResourceNotFoundException("Product not found", "PRODUCT_NOT_FOUND"));
                 if (Boolean.TRUE.equals(prod.getIsTracked())) {
+                    ProductSnapshot before = ProductSnapshot.from(prod);
                     int currentOnHand = prod.getOnHand() == null ? 0 : prod.getOnHand();
                     prod.setOnHand(currentOnHand + add);
                     productRepository.save(prod);
+                    productChangeFeed.productChanged(before, prod);
                 }
             }
         }
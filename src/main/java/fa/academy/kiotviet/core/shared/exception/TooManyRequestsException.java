@@ -0,0 +1,17 @@
+package fa.academy.kiotviet.core.shared.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception representing HTTP 429 errors (rate limited or load shed).
+ */
+public class TooManyRequestsException extends KiotvietException {
+
+    public TooManyRequestsException(String message, String errorCode) {
+        super(message, errorCode, HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    public TooManyRequestsException(String message, String errorCode, Throwable cause) {
+        super(message, errorCode, HttpStatus.TOO_MANY_REQUESTS.value(), cause);
+    }
+}
@@ -0,0 +1,28 @@
+package fa.academy.kiotviet.core.shared.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds text for accent- and case-insensitive matching, e.g. "Cà phê Đà Lạt" -> "ca phe da lat".
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * @return the lower-cased text without diacritics and with runs of whitespace collapsed; "" for null
+     */
+    public static String fold(String value) {
+        if (value == null || value.isEmpty()) return "";
+        // đ/Đ are letters of their own, not d plus a combining mark, so NFD leaves them intact
+        String decomposed = Normalizer.normalize(value.replace('\u0111', 'd').replace('\u0110', 'D'), Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,52 @@
+package fa.academy.kiotviet.core.systemadmin.application;
+
+import fa.academy.kiotviet.core.systemadmin.repository.TenantMetricsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the tenant_metrics rollup fresh.
+ * Runs once at startup and then on a fixed delay; system admins can also trigger it on demand.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformMetricsRollupService {
+
+    private final TenantMetricsRepository tenantMetricsRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Initial platform metrics rollup failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.rollup-interval-ms:300000}",
+            initialDelayString = "${app.metrics.rollup-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Platform metrics rollup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute counters for every tenant
+     */
+    @Transactional
+    public int refresh() {
+        long start = System.currentTimeMillis();
+        int rows = tenantMetricsRepository.refreshAll();
+        log.debug("Platform metrics rollup refreshed {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+}
@@ -4,10 +4,13 @@ import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyCreateDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyDetailsDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyListDTO;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminCompanyUpdateDTO;
+import fa.academy.kiotviet.core.systemadmin.domain.TenantMetrics;
 import fa.academy.kiotviet.core.systemadmin.exception.CompanyNotFoundException;
+import fa.academy.kiotviet.core.systemadmin.repository.TenantMetricsRepository;
 import fa.academy.kiotviet.core.tenant.domain.Company;
 import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
+import fa.academy.kiotviet.infrastructure.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -29,6 +32,8 @@ public class SystemAdminCompanyManagementService {
 
     private final CompanyRepository companyRepository;
     private final UserInfoRepository userInfoRepository;
+    private final TenantMetricsRepository tenantMetricsRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Get all companies with pagination (cross-tenant query)
@@ -97,6 +102,7 @@ public class SystemAdminCompanyManagementService {
 
         Long userCount = userInfoRepository.countByCompanyId(companyId);
         Long activeUserCount = userInfoRepository.countByCompanyIdAndIsActiveTrue(companyId);
+        TenantMetrics metrics = tenantMetricsRepository.findById(companyId).orElse(null);
 
         return SystemAdminCompanyDetailsDTO.builder()
                 .id(company.getId())
@@ -113,8 +119,8 @@ public class SystemAdminCompanyManagementService {
                 .isSuspended(false) // Will be implemented with Phase 01 DB migration
                 .userCount(userCount)
                 .activeUserCount(activeUserCount)
-                .productCount(0L) // TODO: Implement when Product repository is available
-                .orderCount(0L) // TODO: Implement when Order repository is available
+                .productCount(metrics != null ? metrics.getProductCount() : 0L)
+                .orderCount(metrics != null ? metrics.getOrderCount() : 0L)
                 .createdAt(company.getCreatedAt())
                 .updatedAt(company.getUpdatedAt())
                 .build();
@@ -220,6 +226,7 @@ public class SystemAdminCompanyManagementService {
 
         company.setIsActive(false);
         companyRepository.save(company);
+        principalCache.evictCompany(companyId);
 
         log.info("System Admin: Company ID {} suspended successfully", companyId);
     }
@@ -236,6 +243,7 @@ public class SystemAdminCompanyManagementService {
 
         company.setIsActive(true);
         companyRepository.save(company);
+        principalCache.evictCompany(companyId);
 
         log.info("System Admin: Company ID {} activated successfully", companyId);
     }
@@ -252,6 +260,7 @@ public class SystemAdminCompanyManagementService {
         }
 
         companyRepository.deleteById(companyId);
+        principalCache.evictCompany(companyId);
 
         log.info("System Admin: Company ID {} deleted successfully", companyId);
     }
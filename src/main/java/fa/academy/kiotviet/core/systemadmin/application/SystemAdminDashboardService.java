@@ -1,26 +1,35 @@
 package fa.academy.kiotviet.core.systemadmin.application;
 
+import fa.academy.kiotviet.core.systemadmin.domain.TenantMetrics;
 import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminDashboardMetricsDTO;
+import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminTenantMetricsDTO;
+import fa.academy.kiotviet.core.systemadmin.repository.TenantMetricsRepository;
 import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Service for system admin dashboard metrics
- * Provides aggregate statistics across all tenants
+ * Provides aggregate statistics across all tenants, read from the tenant_metrics rollup
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SystemAdminDashboardService {
 
+    private static final int TOP_TENANTS_LIMIT = 5;
+
     private final CompanyRepository companyRepository;
     private final UserInfoRepository userInfoRepository;
+    private final TenantMetricsRepository tenantMetricsRepository;
 
     /**
      * Get system-wide dashboard metrics
@@ -31,22 +40,25 @@ public class SystemAdminDashboardService {
 
         // Company metrics
         long totalCompanies = companyRepository.count();
-        long activeCompanies = companyRepository.findAll().stream()
-                .filter(company -> company.getIsActive() != null && company.getIsActive())
-                .count();
+        long activeCompanies = companyRepository.countByIsActiveTrue();
         long suspendedCompanies = totalCompanies - activeCompanies;
 
         // User metrics
         long totalUsers = userInfoRepository.count();
-        long activeUsers = userInfoRepository.findAll().stream()
-                .filter(user -> user.getIsActive() != null && user.getIsActive())
-                .count();
+        long activeUsers = userInfoRepository.countByIsActiveTrue();
         long inactiveUsers = totalUsers - activeUsers;
 
-        // Order and product metrics (placeholders - to be implemented)
-        long totalOrders = 0L; // TODO: Implement when Order repository is available
-        BigDecimal totalRevenue = BigDecimal.ZERO; // TODO: Implement when Order repository is available
-        long totalProducts = 0L; // TODO: Implement when Product repository is available
+        // Order, revenue and product metrics from the rollup
+        TenantMetricsRepository.PlatformTotals totals = tenantMetricsRepository.getPlatformTotals();
+        long totalOrders = totals != null && totals.getTotalOrders() != null ? totals.getTotalOrders() : 0L;
+        BigDecimal totalRevenue = totals != null && totals.getTotalRevenue() != null ? totals.getTotalRevenue() : BigDecimal.ZERO;
+        long totalProducts = totals != null && totals.getTotalProducts() != null ? totals.getTotalProducts() : 0L;
+
+        List<SystemAdminTenantMetricsDTO> topTenants = tenantMetricsRepository
+                .findTopTenants(PageRequest.of(0, TOP_TENANTS_LIMIT))
+                .stream()
+                .map(this::toTenantMetricsDto)
+                .collect(Collectors.toList());
 
         return SystemAdminDashboardMetricsDTO.builder()
                 .totalCompanies(totalCompanies)
@@ -58,6 +70,19 @@ public class SystemAdminDashboardService {
                 .totalOrders(totalOrders)
                 .totalRevenue(totalRevenue)
                 .totalProducts(totalProducts)
+                .topTenants(topTenants)
+                .metricsRefreshedAt(totals != null ? totals.getRefreshedAt() : null)
+                .build();
+    }
+
+    private SystemAdminTenantMetricsDTO toTenantMetricsDto(TenantMetrics metrics) {
+        return SystemAdminTenantMetricsDTO.builder()
+                .companyId(metrics.getCompanyId())
+                .companyName(metrics.getCompany() != null ? metrics.getCompany().getName() : null)
+                .productCount(metrics.getProductCount())
+                .orderCount(metrics.getOrderCount())
+                .revenue(metrics.getRevenue())
+                .activeUserCount(metrics.getActiveUserCount())
                 .build();
     }
 }
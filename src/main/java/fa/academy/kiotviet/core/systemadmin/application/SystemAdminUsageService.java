@@ -0,0 +1,81 @@
+package fa.academy.kiotviet.core.systemadmin.application;
+
+import fa.academy.kiotviet.core.systemadmin.dto.SystemAdminTenantUsageDTO;
+import fa.academy.kiotviet.core.systemadmin.exception.CompanyNotFoundException;
+import fa.academy.kiotviet.core.systemadmin.repository.TenantUsageHourlyRepository;
+import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service for per-tenant resource usage in the system admin panel
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SystemAdminUsageService {
+
+    private static final int MAX_HOURS = 24 * 31;
+
+    private final TenantUsageHourlyRepository usageRepository;
+    private final CompanyRepository companyRepository;
+
+    /**
+     * Usage per tenant over the last N hours, heaviest SQL consumers first
+     */
+    @Transactional(readOnly = true)
+    public List<SystemAdminTenantUsageDTO> getTopTenantUsage(int hours, int limit) {
+        log.info("System Admin: Fetching tenant usage for last {} hours", hours);
+
+        return usageRepository.summarizeSince(windowStart(hours), PageRequest.of(0, Math.max(1, Math.min(limit, 100))))
+                .stream()
+                .map(u -> SystemAdminTenantUsageDTO.builder()
+                        .companyId(u.getCompanyId())
+                        .companyName(u.getCompanyName())
+                        .requestCount(u.getRequestCount())
+                        .servletTimeMs(u.getServletTimeMs())
+                        .sqlCount(u.getSqlCount())
+                        .sqlTimeMs(u.getSqlTimeMs())
+                        .storageBytes(u.getStorageBytes())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Hourly usage buckets for one tenant over the last N hours
+     */
+    @Transactional(readOnly = true)
+    public List<SystemAdminTenantUsageDTO> getCompanyUsage(Long companyId, int hours) {
+        log.info("System Admin: Fetching hourly usage for company ID: {}", companyId);
+
+        if (!companyRepository.existsById(companyId)) {
+            throw new CompanyNotFoundException(companyId);
+        }
+
+        return usageRepository.findByCompanyIdAndHourStartGreaterThanEqualOrderByHourStartAsc(companyId, windowStart(hours))
+                .stream()
+                .map(u -> SystemAdminTenantUsageDTO.builder()
+                        .companyId(u.getCompanyId())
+                        .hourStart(u.getHourStart())
+                        .requestCount(u.getRequestCount())
+                        .servletTimeMs(u.getServletTimeMs())
+                        .sqlCount(u.getSqlCount())
+                        .sqlTimeMs(u.getSqlTimeMs())
+                        .storageBytes(u.getStorageBytes())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private LocalDateTime windowStart(int hours) {
+        int window = Math.max(1, Math.min(hours, MAX_HOURS));
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(window - 1L);
+    }
+}
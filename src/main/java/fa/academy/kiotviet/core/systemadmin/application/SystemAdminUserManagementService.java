@@ -9,6 +9,7 @@ import fa.academy.kiotviet.core.tenant.domain.Company;
 import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
 import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
+import fa.academy.kiotviet.infrastructure.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -30,6 +31,7 @@ public class SystemAdminUserManagementService {
 
     private final UserInfoRepository userInfoRepository;
     private final CompanyRepository companyRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Get all users with pagination (cross-tenant query)
@@ -255,6 +257,7 @@ public class SystemAdminUserManagementService {
         }
 
         UserInfo savedUser = userInfoRepository.save(user);
+        principalCache.evictUser(userId);
 
         log.info("System Admin: User ID {} updated successfully", userId);
 
@@ -273,6 +276,7 @@ public class SystemAdminUserManagementService {
         }
 
         userInfoRepository.deleteById(userId);
+        principalCache.evictUser(userId);
 
         log.info("System Admin: User ID {} deleted successfully", userId);
     }
@@ -289,6 +293,7 @@ public class SystemAdminUserManagementService {
 
         user.setIsActive(true);
         userInfoRepository.save(user);
+        principalCache.evictUser(userId);
 
         log.info("System Admin: User ID {} activated successfully", userId);
     }
@@ -305,6 +310,7 @@ public class SystemAdminUserManagementService {
 
         user.setIsActive(false);
         userInfoRepository.save(user);
+        principalCache.evictUser(userId);
 
         log.info("System Admin: User ID {} deactivated successfully", userId);
     }
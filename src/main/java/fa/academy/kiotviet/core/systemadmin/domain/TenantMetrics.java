@@ -0,0 +1,57 @@
+package fa.academy.kiotviet.core.systemadmin.domain;
+
+import fa.academy.kiotviet.core.tenant.domain.Company;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Rolled-up counters for a single tenant.
+ * Maintained by the platform metrics rollup job; read-only for the rest of the application.
+ */
+@Entity
+@Table(name = "tenant_metrics",
+    indexes = {
+        @Index(name = "idx_tenant_metrics_revenue", columnList = "revenue"),
+        @Index(name = "idx_tenant_metrics_orders", columnList = "order_count")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantMetrics {
+
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_tenant_metrics_company"))
+    private Company company;
+
+    @Column(name = "product_count", nullable = false)
+    @Builder.Default
+    private Long productCount = 0L;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    @Column(name = "revenue", nullable = false, precision = 18, scale = 2)
+    @Builder.Default
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "active_user_count", nullable = false)
+    @Builder.Default
+    private Long activeUserCount = 0L;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
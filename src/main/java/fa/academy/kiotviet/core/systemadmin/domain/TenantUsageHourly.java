@@ -0,0 +1,54 @@
+package fa.academy.kiotviet.core.systemadmin.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resource usage of a single tenant within one clock hour.
+ * Rows are accumulated by the metering flusher; read-only for the rest of the application.
+ */
+@Entity
+@Table(name = "tenant_usage_hourly",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_usage_company_hour", columnNames = {"company_id", "hour_start"})
+    },
+    indexes = {
+        @Index(name = "idx_usage_hour", columnList = "hour_start")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantUsageHourly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    @Column(name = "servlet_time_ms", nullable = false)
+    private Long servletTimeMs;
+
+    @Column(name = "sql_count", nullable = false)
+    private Long sqlCount;
+
+    @Column(name = "sql_time_ms", nullable = false)
+    private Long sqlTimeMs;
+
+    @Column(name = "storage_bytes", nullable = false)
+    private Long storageBytes;
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for system admin dashboard metrics
@@ -26,4 +28,6 @@ public class SystemAdminDashboardMetricsDTO {
     private Long totalOrders;
     private BigDecimal totalRevenue;
     private Long totalProducts;
+    private List<SystemAdminTenantMetricsDTO> topTenants;
+    private LocalDateTime metricsRefreshedAt;
 }
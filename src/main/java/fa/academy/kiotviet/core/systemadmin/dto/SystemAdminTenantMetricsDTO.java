@@ -0,0 +1,26 @@
+package fa.academy.kiotviet.core.systemadmin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a single tenant's rolled-up metrics
+ * Used for the top tenants list on the system admin dashboard
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SystemAdminTenantMetricsDTO {
+
+    private Long companyId;
+    private String companyName;
+    private Long productCount;
+    private Long orderCount;
+    private BigDecimal revenue;
+    private Long activeUserCount;
+}
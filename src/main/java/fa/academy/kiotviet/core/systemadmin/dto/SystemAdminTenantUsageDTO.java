@@ -0,0 +1,28 @@
+package fa.academy.kiotviet.core.systemadmin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a tenant's metered resource usage over a time window
+ * Either a window total (hourStart null) or a single hourly bucket
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SystemAdminTenantUsageDTO {
+
+    private Long companyId;
+    private String companyName;
+    private LocalDateTime hourStart;
+    private Long requestCount;
+    private Long servletTimeMs;
+    private Long sqlCount;
+    private Long sqlTimeMs;
+    private Long storageBytes;
+}
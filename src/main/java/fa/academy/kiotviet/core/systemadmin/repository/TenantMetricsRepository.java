@@ -0,0 +1,54 @@
+package fa.academy.kiotviet.core.systemadmin.repository;
+
+import fa.academy.kiotviet.core.systemadmin.domain.TenantMetrics;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the per-tenant metrics rollup (system admin, cross-tenant).
+ */
+@Repository
+public interface TenantMetricsRepository extends JpaRepository<TenantMetrics, Long> {
+
+    /**
+     * Recompute every tenant's counters in a single set-based upsert.
+     * Each correlated count is served by the (company_id, ...) indexes on the source tables.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into tenant_metrics (company_id, product_count, order_count, revenue, active_user_count, refreshed_at) " +
+                   "select c.id, " +
+                   "  (select count(*) from products p where p.company_id = c.id), " +
+                   "  (select count(*) from orders o where o.company_id = c.id), " +
+                   "  (select coalesce(sum(o.paid_amount), 0) from orders o where o.company_id = c.id and o.status = 'COMPLETED'), " +
+                   "  (select count(*) from user_info u where u.company_id = c.id and u.is_active = true), " +
+                   "  now() " +
+                   "from companies c " +
+                   "on duplicate key update product_count = values(product_count), order_count = values(order_count), " +
+                   "  revenue = values(revenue), active_user_count = values(active_user_count), refreshed_at = values(refreshed_at)",
+           nativeQuery = true)
+    int refreshAll();
+
+    // Platform-wide totals in one aggregate over the rollup table
+    @Query("select coalesce(sum(m.productCount), 0) as totalProducts, coalesce(sum(m.orderCount), 0) as totalOrders, " +
+           "coalesce(sum(m.revenue), 0) as totalRevenue, max(m.refreshedAt) as refreshedAt from TenantMetrics m")
+    PlatformTotals getPlatformTotals();
+
+    @Query("select m from TenantMetrics m join fetch m.company order by m.revenue desc, m.orderCount desc")
+    List<TenantMetrics> findTopTenants(Pageable pageable);
+
+    interface PlatformTotals {
+        Long getTotalProducts();
+        Long getTotalOrders();
+        BigDecimal getTotalRevenue();
+        LocalDateTime getRefreshedAt();
+    }
+}
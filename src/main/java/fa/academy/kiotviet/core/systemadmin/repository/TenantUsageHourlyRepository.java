@@ -0,0 +1,40 @@
+package fa.academy.kiotviet.core.systemadmin.repository;
+
+import fa.academy.kiotviet.core.systemadmin.domain.TenantUsageHourly;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for hourly tenant usage (system admin, cross-tenant).
+ */
+@Repository
+public interface TenantUsageHourlyRepository extends JpaRepository<TenantUsageHourly, Long> {
+
+    // Usage per tenant since the given hour, heaviest database consumers first
+    @Query("select u.companyId as companyId, c.name as companyName, sum(u.requestCount) as requestCount, " +
+           "sum(u.servletTimeMs) as servletTimeMs, sum(u.sqlCount) as sqlCount, sum(u.sqlTimeMs) as sqlTimeMs, " +
+           "sum(u.storageBytes) as storageBytes " +
+           "from TenantUsageHourly u, fa.academy.kiotviet.core.tenant.domain.Company c " +
+           "where c.id = u.companyId and u.hourStart >= :since " +
+           "group by u.companyId, c.name " +
+           "order by sum(u.sqlTimeMs) desc, sum(u.servletTimeMs) desc")
+    List<TenantUsageSummary> summarizeSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    List<TenantUsageHourly> findByCompanyIdAndHourStartGreaterThanEqualOrderByHourStartAsc(Long companyId, LocalDateTime since);
+
+    interface TenantUsageSummary {
+        Long getCompanyId();
+        String getCompanyName();
+        Long getRequestCount();
+        Long getServletTimeMs();
+        Long getSqlCount();
+        Long getSqlTimeMs();
+        Long getStorageBytes();
+    }
+}
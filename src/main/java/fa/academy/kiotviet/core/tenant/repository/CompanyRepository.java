@@ -13,4 +13,5 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     boolean existsByEmail(String email);
     Optional<Company> findByEmail(String email);
     Optional<Company> findByIdAndIsActiveTrue(Long id);
+    long countByIsActiveTrue();
 }
@@ -6,11 +6,12 @@ import fa.academy.kiotviet.application.dto.company.response.CompanyLogoResponse;
 import fa.academy.kiotviet.core.shared.exception.ResourceNotFoundException;
 import fa.academy.kiotviet.core.tenant.domain.Company;
 import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
-import fa.academy.kiotviet.infrastructure.storage.FileStorageService;
+import fa.academy.kiotviet.infrastructure.storage.ImageProcessingQueue;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.text.Normalizer;
@@ -21,7 +22,8 @@ import java.time.LocalDateTime;
 public class CompanyServiceImpl implements CompanyService {
 
     private final CompanyRepository companyRepository;
-    private final FileStorageService fileStorageService;
+    private final ImageProcessingQueue imageProcessingQueue;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.company.domain-template:https://%s.kiotviet.vn}")
     private String domainTemplate;
@@ -68,14 +70,20 @@ public class CompanyServiceImpl implements CompanyService {
         return toDto(saved);
     }
 
+    /**
+     * Not transactional: waiting on the image pool must not hold a connection, so the logo is
+     * processed first and the URL stored in a short transaction of its own.
+     */
     @Override
-    @Transactional
     public CompanyLogoResponse uploadLogo(Long companyId, MultipartFile file) {
-        Company company = requireCompany(companyId);
-        String logoUrl = fileStorageService.storeCompanyLogo(companyId, file);
-        company.setLogoUrl(logoUrl);
-        company.setUpdatedAt(LocalDateTime.now());
-        companyRepository.save(company);
+        requireCompany(companyId);
+        String logoUrl = imageProcessingQueue.processCompanyLogo(companyId, file);
+        transactionTemplate.executeWithoutResult(status -> {
+            Company company = requireCompany(companyId);
+            company.setLogoUrl(logoUrl);
+            company.setUpdatedAt(LocalDateTime.now());
+            companyRepository.save(company);
+        });
         return new CompanyLogoResponse(logoUrl);
     }
 
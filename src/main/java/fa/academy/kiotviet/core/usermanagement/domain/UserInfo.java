@@ -69,6 +69,12 @@ public class UserInfo {
     @Column(name = "permissions", columnDefinition = "TEXT")
     private String permissions;
 
+    /**
+     * {@link UserPermission} bitset derived from {@link #permissions} on every save; used for authorization checks.
+     */
+    @Column(name = "permission_bits", nullable = false)
+    private Long permissionBits = 0L;
+
     @Column(name = "created_at", updatable = false)
     private java.time.LocalDateTime createdAt;
 
@@ -79,11 +85,13 @@ public class UserInfo {
     protected void onCreate() {
         createdAt = java.time.LocalDateTime.now();
         updatedAt = java.time.LocalDateTime.now();
+        permissionBits = UserPermission.toBits(permissions);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = java.time.LocalDateTime.now();
+        permissionBits = UserPermission.toBits(permissions);
     }
 
     public enum UserRole {
@@ -118,19 +126,59 @@ public class UserInfo {
     }
 
     public enum UserPermission {
-        PRODUCT_MANAGE("Product Management (View, Create, Edit, Delete)"),
-        ORDER_MANAGE("Order Management (Selling, Returns)"),
-        PURCHASE_MANAGE("Purchase Management"),
-        INVENTORY_MANAGE("Inventory Control");
+        // Bit positions are persisted in user_info.permission_bits: never reuse or renumber them
+        PRODUCT_MANAGE(0, "Product Management (View, Create, Edit, Delete)"),
+        ORDER_MANAGE(1, "Order Management (Selling, Returns)"),
+        PURCHASE_MANAGE(2, "Purchase Management"),
+        INVENTORY_MANAGE(3, "Inventory Control");
 
+        private final int bit;
         private final String description;
 
-        UserPermission(String description) {
+        UserPermission(int bit, String description) {
+            this.bit = bit;
             this.description = description;
         }
 
         public String getDescription() {
             return description;
         }
+
+        public long mask() {
+            return 1L << bit;
+        }
+
+        public boolean isGrantedIn(long permissionBits) {
+            return (permissionBits & mask()) != 0;
+        }
+
+        /**
+         * Compile a comma-separated permission list into a bitset; unknown names are ignored.
+         */
+        public static long toBits(String permissions) {
+            if (permissions == null || permissions.isBlank()) {
+                return 0L;
+            }
+            long bits = 0L;
+            for (String name : permissions.split(",")) {
+                UserPermission permission = fromName(name.trim());
+                if (permission != null) {
+                    bits |= permission.mask();
+                }
+            }
+            return bits;
+        }
+
+        /**
+         * @return the permission with this exact name, or null if there is none
+         */
+        public static UserPermission fromName(String name) {
+            for (UserPermission permission : values()) {
+                if (permission.name().equals(name)) {
+                    return permission;
+                }
+            }
+            return null;
+        }
     }
 }
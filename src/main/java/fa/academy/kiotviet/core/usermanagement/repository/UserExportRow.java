@@ -0,0 +1,28 @@
+package fa.academy.kiotviet.core.usermanagement.repository;
+
+import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the user export, selected as a projection so streamed rows are never managed
+ * entities.
+ */
+public record UserExportRow(
+        String fullName,
+        String username,
+        String phone,
+        UserInfo.UserRole role,
+        Boolean isActive,
+        LocalDate birthday,
+        String email) {
+
+    public static final String[] HEADER = {"Display Name", "Username", "Phone", "Role", "Status", "Birthday", "Email"};
+
+    public Object[] cells() {
+        return new Object[] {
+            fullName, username, phone, role.getDisplayName(),
+            Boolean.TRUE.equals(isActive) ? "Active" : "Inactive", birthday, email
+        };
+    }
+}
@@ -50,5 +50,7 @@ public interface UserInfoRepository extends JpaRepository<UserInfo, Long>, JpaSp
 
     long countByCompanyIdAndIsActiveTrue(Long companyId);
 
+    long countByIsActiveTrue();
+
     List<UserInfo> findAllByCompanyIdAndIsActive(Long companyId, Boolean isActive);
 }
@@ -10,11 +10,17 @@ import fa.academy.kiotviet.core.usermanagement.repository.UserAuthRepository;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
 import fa.academy.kiotviet.core.usermanagement.repository.UserTokenRepository;
 import fa.academy.kiotviet.infrastructure.security.JwtUtil;
+import fa.academy.kiotviet.infrastructure.security.LoginFailureTracker;
+import fa.academy.kiotviet.infrastructure.security.LoginRateLimiter;
+import fa.academy.kiotviet.infrastructure.security.PasswordHashingExecutor;
+import fa.academy.kiotviet.infrastructure.security.TokenRevocationService;
+import fa.academy.kiotviet.infrastructure.security.VerifiedToken;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -31,28 +37,68 @@ import java.util.UUID;
 @Slf4j
 public class AuthService {
 
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+
     private final UserInfoRepository userInfoRepository;
     private final UserAuthRepository userAuthRepository;
     private final UserTokenRepository userTokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginRateLimiter loginRateLimiter;
+    private final LoginFailureTracker loginFailureTracker;
     private final JwtUtil jwtUtil;
     private final TwoFactorService twoFactorService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Authenticate user with username and password.
      *
+     * <p>Not transactional: the credentials are read in one short transaction and the outcome is
+     * written in another, so no database connection is held while the password hash is checked on
+     * the bounded hashing pool.
+     *
      * @param request Login request with credentials
+     * @param httpRequest Current HTTP request, used for per-IP rate limiting
      * @return Authentication response with tokens
      */
-    @Transactional
-    public LoginResult login(LoginRequest request) {
+    public LoginResult login(LoginRequest request, HttpServletRequest httpRequest) {
+        // Per-IP and per-username token buckets, checked before any database or hashing work
+        loginRateLimiter.checkLogin(getClientIp(httpRequest), request.getUsername());
+
+        LoginCredentials credentials = transactionTemplate.execute(status -> loadCredentials(request.getUsername()));
+
+        // Verify password
+        if (!passwordHashingExecutor.matches(request.getPassword() + credentials.salt(), credentials.passwordHash())) {
+            recordFailedAttempt(credentials.userId());
+            throw new IllegalArgumentException("Invalid username or password");
+        }
+
+        return transactionTemplate.execute(status -> {
+            // Reset failed attempts on successful login
+            resetFailedAttempts(credentials);
+
+            // If 2FA enabled: start login challenge and return MFA_REQUIRED
+            if (credentials.twoFactorEnabled()) {
+                String challengeId = twoFactorService.startLoginChallenge(credentials.userId());
+                if (challengeId == null) {
+                    // Fallback: if cannot send code, fail login gracefully
+                    throw new IllegalArgumentException("Unable to initiate 2FA challenge");
+                }
+                return LoginResult.mfa(challengeId);
+            }
+
+            // Otherwise, issue tokens
+            UserInfo user = userInfoRepository.findById(credentials.userId())
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid username or password"));
+            return LoginResult.success(generateAuthResponse(user, "Login"));
+        });
+    }
+
+    private LoginCredentials loadCredentials(String username) {
         // Find user by username
-        UserInfo user = userInfoRepository.findByUsername(request.getUsername())
+        UserInfo user = userInfoRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid username or password"));
 
-        var result = userAuthRepository.findByUserId(user.getId());
-        log.debug("{}", result);
-
         // Get user authentication details
         UserAuth userAuth = userAuthRepository.findByUserId(user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid authentication details"));
@@ -61,31 +107,12 @@ public class AuthService {
         validateUserAndCompanyStatus(user);
 
         // Check account lockout
-        if (userAuth.getFailedAttempts() >= 5) {
+        if (userAuth.getFailedAttempts() >= MAX_FAILED_ATTEMPTS) {
             throw new IllegalArgumentException("Account is locked due to too many failed login attempts");
         }
 
-        // Verify password
-        if (!passwordEncoder.matches(request.getPassword() + userAuth.getSalt(), userAuth.getPasswordHash())) {
-            incrementFailedAttempts(userAuth);
-            throw new IllegalArgumentException("Invalid username or password");
-        }
-
-        // Reset failed attempts on successful login
-        resetFailedAttempts(userAuth);
-
-        // If 2FA enabled: start login challenge and return MFA_REQUIRED
-        if (Boolean.TRUE.equals(userAuth.getTwoFactorEnabled())) {
-            String challengeId = twoFactorService.startLoginChallenge(user.getId());
-            if (challengeId == null) {
-                // Fallback: if cannot send code, fail login gracefully
-                throw new IllegalArgumentException("Unable to initiate 2FA challenge");
-            }
-            return LoginResult.mfa(challengeId);
-        }
-
-        // Otherwise, issue tokens
-        return LoginResult.success(generateAuthResponse(user, "Login"));
+        return new LoginCredentials(user.getId(), userAuth.getSalt(), userAuth.getPasswordHash(),
+                userAuth.getFailedAttempts(), Boolean.TRUE.equals(userAuth.getTwoFactorEnabled()));
     }
 
     /**
@@ -124,13 +151,18 @@ public class AuthService {
     }
 
     /**
-     * Logout user by invalidating their refresh tokens.
+     * Logout user by invalidating their refresh tokens and revoking already-issued access tokens.
      *
-     * @param userId User ID to logout
+     * @param userId      User ID to logout
+     * @param accessToken Access token the logout was requested with, revoked by its ID; may be null
      */
     @Transactional
-    public void logout(Long userId) {
+    public void logout(Long userId, VerifiedToken accessToken) {
         userTokenRepository.deactivateAllUserTokens(userId);
+        tokenRevocationService.revokeAllForUser(userId);
+        if (accessToken != null) {
+            tokenRevocationService.revokeToken(accessToken.jti(), accessToken.expiresAt());
+        }
     }
 
     /**
@@ -176,18 +208,40 @@ public class AuthService {
         }
     }
 
-    private void incrementFailedAttempts(UserAuth userAuth) {
-        userAuth.setFailedAttempts(userAuth.getFailedAttempts() + 1);
-        userAuthRepository.save(userAuth);
+    /**
+     * Failures are counted in Redis; user_auth is written only when the count reaches the lockout threshold.
+     */
+    private void recordFailedAttempt(Long userId) {
+        int failures = loginFailureTracker.recordFailure(userId);
+        if (failures >= MAX_FAILED_ATTEMPTS) {
+            transactionTemplate.executeWithoutResult(status -> userAuthRepository.findByUserId(userId)
+                    .ifPresent(userAuth -> {
+                        userAuth.setFailedAttempts(MAX_FAILED_ATTEMPTS);
+                        userAuthRepository.save(userAuth);
+                    }));
+            loginFailureTracker.reset(userId);
+            log.warn("User {} locked out after {} failed login attempts", userId, failures);
+        }
     }
 
-    private void resetFailedAttempts(UserAuth userAuth) {
-        if (userAuth.getFailedAttempts() > 0) {
-            userAuth.setFailedAttempts(0);
-            userAuthRepository.save(userAuth);
+    private void resetFailedAttempts(LoginCredentials credentials) {
+        loginFailureTracker.reset(credentials.userId());
+        if (credentials.failedAttempts() > 0) {
+            userAuthRepository.findByUserId(credentials.userId()).ifPresent(userAuth -> {
+                userAuth.setFailedAttempts(0);
+                userAuthRepository.save(userAuth);
+            });
         }
     }
 
+    /**
+     * The peer address. X-Forwarded-For is applied by the container (server.forward-headers-strategy)
+     * only when the peer is a trusted proxy, so a client cannot pick its own rate-limit bucket.
+     */
+    private String getClientIp(HttpServletRequest request) {
+        return request != null ? request.getRemoteAddr() : null;
+    }
+
     private AuthResponse generateAuthResponse(UserInfo user, String deviceInfo) {
         String jti = UUID.randomUUID().toString();
         String accessToken = jwtUtil.generateToken(
@@ -245,4 +299,11 @@ public class AuthService {
     public TwoFactorService getTwoFactorService() {
         return twoFactorService;
     }
+
+    /**
+     * What the password check needs, read before it so no entity or connection is held across it.
+     */
+    private record LoginCredentials(Long userId, String salt, String passwordHash, int failedAttempts,
+                                    boolean twoFactorEnabled) {
+    }
 }
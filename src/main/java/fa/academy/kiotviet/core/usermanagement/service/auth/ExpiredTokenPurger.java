@@ -0,0 +1,125 @@
+package fa.academy.kiotviet.core.usermanagement.service.auth;
+
+import fa.academy.kiotviet.infrastructure.redis.RedisLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Deletes refresh tokens that are expired or deactivated, password reset tokens that are
+ * expired or used, and outbox e-mail that was sent or given up on more than
+ * {@code app.mail.outbox.retention} ago.
+ *
+ * <p>Rows are deleted in chunks of {@code app.auth.token-purge.chunk-size}, each chunk its own
+ * auto-committed statement with a pause in between, so no run holds row locks for long.
+ * A Redis lock ensures only one node purges at a time.
+ */
+@Component
+@Slf4j
+public class ExpiredTokenPurger {
+
+    private static final String LOCK_NAME = "auth-token-purge";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisLockService lockService;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final int maxChunksPerStatement;
+    private final Duration lockTtl;
+    private final Duration mailRetention;
+
+    public ExpiredTokenPurger(JdbcTemplate jdbcTemplate,
+                              RedisLockService lockService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.auth.token-purge.chunk-size:5000}") int chunkSize,
+                              @Value("${app.auth.token-purge.pause-ms:200}") long pauseMillis,
+                              @Value("${app.auth.token-purge.max-chunks:200}") int maxChunksPerStatement,
+                              @Value("${app.auth.token-purge.lock-ttl:30m}") Duration lockTtl,
+                              @Value("${app.mail.outbox.retention:7d}") Duration mailRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxChunksPerStatement = maxChunksPerStatement;
+        this.lockTtl = lockTtl;
+        this.mailRetention = mailRetention;
+    }
+
+    @Scheduled(cron = "${app.auth.token-purge.cron:0 30 3 * * *}")
+    public void purgeOnSchedule() {
+        purge();
+    }
+
+    /**
+     * Run one purge if no other node is running it.
+     *
+     * @return rows deleted per category, or empty if the lock was held elsewhere
+     */
+    public Optional<Map<String, Long>> purge() {
+        Optional<RedisLockService.Lock> lock = lockService.tryAcquire(LOCK_NAME, lockTtl);
+        if (lock.isEmpty()) {
+            log.debug("Token purge skipped: lock held by another node or Redis unavailable");
+            return Optional.empty();
+        }
+
+        try (RedisLockService.Lock ignored = lock.get()) {
+            LocalDateTime startedAt = LocalDateTime.now();
+            Timestamp now = Timestamp.valueOf(startedAt);
+            Timestamp mailCutoff = Timestamp.valueOf(startedAt.minus(mailRetention));
+            Map<String, Long> purged = new LinkedHashMap<>();
+            purged.put("user_tokens.expired",
+                deleteInChunks("DELETE FROM user_tokens WHERE expires_at < ? LIMIT ?", now));
+            purged.put("user_tokens.inactive",
+                deleteInChunks("DELETE FROM user_tokens WHERE is_active = FALSE LIMIT ?"));
+            purged.put("password_reset_tokens.expired",
+                deleteInChunks("DELETE FROM password_reset_tokens WHERE expires_at < ? LIMIT ?", now));
+            purged.put("password_reset_tokens.used",
+                deleteInChunks("DELETE FROM password_reset_tokens WHERE is_used = TRUE LIMIT ?"));
+            purged.put("mail_outbox.sent",
+                deleteInChunks("DELETE FROM mail_outbox WHERE status = 'SENT' AND created_at < ? LIMIT ?", mailCutoff));
+            purged.put("mail_outbox.failed",
+                deleteInChunks("DELETE FROM mail_outbox WHERE status = 'FAILED' AND created_at < ? LIMIT ?", mailCutoff));
+
+            purged.forEach((category, rows) ->
+                meterRegistry.counter("auth.token_purge.rows", "category", category).increment(rows));
+            log.info("Token purge finished: {}", purged);
+            return Optional.of(purged);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Token purge interrupted");
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Repeat a {@code DELETE ... LIMIT ?} (limit bound last) until a chunk comes back short.
+     */
+    private long deleteInChunks(String sql, Object... params) throws InterruptedException {
+        Object[] args = new Object[params.length + 1];
+        System.arraycopy(params, 0, args, 0, params.length);
+        args[params.length] = chunkSize;
+
+        long total = 0;
+        for (int chunk = 0; chunk < maxChunksPerStatement; chunk++) {
+            int deleted = jdbcTemplate.update(sql, args);
+            total += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+            Thread.sleep(pauseMillis);
+        }
+        return total;
+    }
+}
@@ -2,6 +2,7 @@ package fa.academy.kiotviet.core.usermanagement.service.auth;
 
 import fa.academy.kiotviet.application.dto.auth.request.ForgotPasswordRequest;
 import fa.academy.kiotviet.application.dto.auth.request.ResetPasswordRequest;
+import fa.academy.kiotviet.core.notification.MailService;
 import fa.academy.kiotviet.core.usermanagement.domain.PasswordResetToken;
 import fa.academy.kiotviet.core.usermanagement.domain.UserAuth;
 import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
@@ -9,15 +10,13 @@ import fa.academy.kiotviet.core.usermanagement.repository.PasswordResetTokenRepo
 import fa.academy.kiotviet.core.usermanagement.repository.UserAuthRepository;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
 import fa.academy.kiotviet.core.usermanagement.repository.UserTokenRepository;
+import fa.academy.kiotviet.infrastructure.security.TokenRevocationService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.SimpleMailMessage;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -36,7 +35,8 @@ public class PasswordResetService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final UserTokenRepository userTokenRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ObjectProvider<JavaMailSender> mailSenderProvider;
+    private final MailService mailService;
+    private final TokenRevocationService tokenRevocationService;
 
     private static final long RESET_TOKEN_TTL_SECONDS = 1800; // 30 minutes
 
@@ -76,16 +76,8 @@ public class PasswordResetService {
         String resetLink = buildAbsoluteResetLink(httpRequest, token);
         log.info("Password reset link for user {}: {}", identifier, resetLink);
 
-        JavaMailSender mailSender = mailSenderProvider.getIfAvailable();
-        if (mailSender != null) {
-            try {
-                sendResetEmail(mailSender, user.getEmail(), user.getFullName() != null ? user.getFullName() : user.getUsername(), resetLink);
-            } catch (Exception e) {
-                log.warn("Failed to send reset email to {}: {}", user.getEmail(), e.getMessage());
-            }
-        } else {
-            log.info("Mail sender not configured; only logging reset link.");
-        }
+        // Queued in the same transaction as the token; delivered by MailOutboxDispatcher
+        sendResetEmail(user.getEmail(), user.getFullName() != null ? user.getFullName() : user.getUsername(), resetLink);
     }
 
     @Transactional
@@ -112,8 +104,9 @@ public class PasswordResetService {
         resetToken.setUsedAt(LocalDateTime.now());
         passwordResetTokenRepository.save(resetToken);
 
-        // Invalidate existing refresh tokens (logout everywhere)
+        // Invalidate existing refresh and access tokens (logout everywhere)
         userTokenRepository.deactivateAllUserTokens(user.getId());
+        tokenRevocationService.revokeAllForUser(user.getId());
     }
 
     private String generateToken() {
@@ -164,18 +157,14 @@ public class PasswordResetService {
         return b;
     }
 
-    private void sendResetEmail(JavaMailSender mailSender, String to, String name, String link) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("Reset your Kiotviet password");
+    private void sendResetEmail(String to, String name, String link) {
         String greeting = (name != null && !name.isBlank()) ? ("Hi " + name + ",") : "Hello,";
-        message.setText(greeting + "\n\n" +
+        mailService.send(to, "Reset your Kiotviet password", greeting + "\n\n" +
                 "We received a request to reset your password. " +
                 "Click the link below to set a new password:\n\n" +
                 link + "\n\n" +
                 "If you did not request this, you can safely ignore this email. The link will expire in 30 minutes.\n\n" +
                 "Thanks,\nKiotviet Team");
-        mailSender.send(message);
     }
 
     private String getClientIp(HttpServletRequest request) {
@@ -0,0 +1,28 @@
+package fa.academy.kiotviet.core.usermanagement.service.auth;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Storage for outstanding 2FA codes. Entries expire on their own after the TTL given at save time.
+ * Implementations: Redis for multi-node deployments, in-memory for a single node
+ * (selected by {@code app.security.two-factor.store}).
+ */
+public interface TwoFactorChallengeStore {
+
+    void save(String key, Challenge challenge, Duration ttl);
+
+    Optional<Challenge> find(String key);
+
+    /**
+     * Atomically remove the challenge if its code matches, so a code can be redeemed only once.
+     *
+     * @return the redeemed challenge, or empty if missing, expired or the code does not match
+     */
+    Optional<Challenge> consumeIfMatches(String key, String code);
+
+    void delete(String key);
+
+    record Challenge(Long userId, String code, String destination) {
+    }
+}
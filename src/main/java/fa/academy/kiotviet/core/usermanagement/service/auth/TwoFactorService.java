@@ -1,20 +1,15 @@
 package fa.academy.kiotviet.core.usermanagement.service.auth;
+import fa.academy.kiotviet.core.notification.MailService;
 import fa.academy.kiotviet.core.usermanagement.domain.UserAuth;
 import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
 import fa.academy.kiotviet.core.usermanagement.repository.UserAuthRepository;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.SimpleMailMessage;
 
-import java.time.Instant;
-import java.util.Map;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -22,24 +17,12 @@ public class TwoFactorService {
 
     private final UserInfoRepository userInfoRepository;
     private final UserAuthRepository userAuthRepository;
-    private final ObjectProvider<JavaMailSender> mailSenderProvider;
-
-    @Value("${app.mail.from:}")
-    private String fromAddress;
-
-    private static class PendingCode {
-        final String phone;
-        final String code;
-        final Instant expiresAt;
-        PendingCode(String phone, String code, Instant expiresAt) {
-            this.phone = phone; this.code = code; this.expiresAt = expiresAt;
-        }
-    }
+    private final MailService mailService;
+    private final TwoFactorChallengeStore challengeStore;
+
+    private static final Duration CODE_TTL = Duration.ofMinutes(5);
 
-    private final Map<Long, PendingCode> pending = new ConcurrentHashMap<>();
     private final Random random = new Random();
-    private final Map<String, PendingCode> loginChallenges = new ConcurrentHashMap<>();
-    private final Map<String, Long> challengeToUser = new ConcurrentHashMap<>();
 
     public void sendSetupCodeEmail(Long userId) {
         Optional<UserInfo> userOpt = userInfoRepository.findById(userId);
@@ -48,15 +31,12 @@ public class TwoFactorService {
         String to = user.getEmail();
         if (to == null || to.isBlank()) return;
         String code = String.format("%06d", random.nextInt(1_000_000));
-        pending.put(userId, new PendingCode(to, code, Instant.now().plusSeconds(300)));
+        challengeStore.save(setupKey(userId), new TwoFactorChallengeStore.Challenge(userId, code, to), CODE_TTL);
         sendEmail(to, "Your Kiotviet verification code", "Your verification code is: " + code + "\nThis code expires in 5 minutes.");
     }
 
     public boolean verifySetupCode(Long userId, String code) {
-        PendingCode p = pending.get(userId);
-        if (p == null) return false;
-        if (Instant.now().isAfter(p.expiresAt)) { pending.remove(userId); return false; }
-        if (!p.code.equals(code)) return false;
+        if (code == null || challengeStore.consumeIfMatches(setupKey(userId), code).isEmpty()) return false;
 
         Optional<UserInfo> userOpt = userInfoRepository.findById(userId);
         if (userOpt.isEmpty()) return false;
@@ -70,8 +50,6 @@ public class TwoFactorService {
         // store email as secret placeholder for now
         auth.setTwoFactorSecret(user.getEmail());
         userAuthRepository.save(auth);
-
-        pending.remove(userId);
         return true;
     }
 
@@ -84,36 +62,33 @@ public class TwoFactorService {
         if (to == null || to.isBlank()) return null;
         String code = String.format("%06d", random.nextInt(1_000_000));
         String challengeId = java.util.UUID.randomUUID().toString();
-        loginChallenges.put(challengeId, new PendingCode(to, code, Instant.now().plusSeconds(300)));
-        challengeToUser.put(challengeId, userId);
+        challengeStore.save(loginKey(challengeId), new TwoFactorChallengeStore.Challenge(userId, code, to), CODE_TTL);
         sendEmail(to, "Your Kiotviet login code", "Your login verification code is: " + code + "\nThis code expires in 5 minutes.");
         return challengeId;
     }
 
     public Long verifyLoginCode(String challengeId, String code) {
-        PendingCode p = loginChallenges.get(challengeId);
-        if (p == null) return null;
-        if (Instant.now().isAfter(p.expiresAt)) { cleanupChallenge(challengeId); return null; }
-        if (!p.code.equals(code)) return null;
-        Long userId = challengeToUser.get(challengeId);
-        cleanupChallenge(challengeId);
-        return userId;
+        return challengeStore.consumeIfMatches(loginKey(challengeId), code)
+                .map(TwoFactorChallengeStore.Challenge::userId)
+                .orElse(null);
     }
 
     public boolean resendLoginCode(String challengeId) {
-        PendingCode p = loginChallenges.get(challengeId);
-        Long userId = challengeToUser.get(challengeId);
-        if (p == null || userId == null) return false;
-        Optional<UserInfo> userOpt = userInfoRepository.findById(userId);
+        TwoFactorChallengeStore.Challenge challenge = challengeStore.find(loginKey(challengeId)).orElse(null);
+        if (challenge == null) return false;
+        Optional<UserInfo> userOpt = userInfoRepository.findById(challenge.userId());
         if (userOpt.isEmpty()) return false;
         String to = userOpt.get().getEmail();
-        sendEmail(to, "Your Kiotviet login code", "Your login verification code is: " + p.code + "\nThis code expires in 5 minutes.");
+        sendEmail(to, "Your Kiotviet login code", "Your login verification code is: " + challenge.code() + "\nThis code expires in 5 minutes.");
         return true;
     }
 
-    private void cleanupChallenge(String challengeId) {
-        loginChallenges.remove(challengeId);
-        challengeToUser.remove(challengeId);
+    private static String setupKey(Long userId) {
+        return "setup:" + userId;
+    }
+
+    private static String loginKey(String challengeId) {
+        return "login:" + challengeId;
     }
 
     public boolean disable(Long userId) {
@@ -123,7 +98,7 @@ public class TwoFactorService {
         auth.setTwoFactorEnabled(false);
         auth.setTwoFactorSecret(null);
         userAuthRepository.save(auth);
-        pending.remove(userId);
+        challengeStore.delete(setupKey(userId));
         return true;
     }
 
@@ -150,19 +125,8 @@ public class TwoFactorService {
     }
 
     private void sendEmail(String to, String subject, String body) {
-        JavaMailSender mailSender = mailSenderProvider.getIfAvailable();
-        if (mailSender != null) {
-            try {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(to);
-                message.setSubject(subject);
-                message.setText(body);
-                if (fromAddress != null && !fromAddress.isBlank()) {
-                    message.setFrom(fromAddress);
-                }
-                mailSender.send(message);
-            } catch (Exception ignored) { }
-        }
+        // Queued in the outbox; delivered (with retries) by MailOutboxDispatcher
+        mailService.send(to, subject, body);
         // Always log for development visibility
         System.out.println("[EMAIL] to " + to + " => " + body.replace('\n',' '));
     }
@@ -13,26 +13,28 @@ import fa.academy.kiotviet.core.usermanagement.domain.UserAuth;
 import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
 import fa.academy.kiotviet.core.usermanagement.domain.UserInfo.UserRole;
 import fa.academy.kiotviet.core.usermanagement.repository.UserAuthRepository;
+import fa.academy.kiotviet.core.usermanagement.repository.UserExportRow;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
+import fa.academy.kiotviet.infrastructure.persistence.StreamingQueries;
+import fa.academy.kiotviet.infrastructure.security.PrincipalCache;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetFormat;
+import fa.academy.kiotviet.infrastructure.spreadsheet.SpreadsheetWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.security.SecureRandom;
-import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -46,6 +48,8 @@ public class UserManagementService {
     private final UserAuthRepository userAuthRepository;
     private final CompanyRepository companyRepository;
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final EntityManager entityManager;
 
     @Transactional(readOnly = true)
     public Page<UserInfo> searchUsers(Long companyId, String search, UserRole role, Boolean active, Pageable pageable) {
@@ -90,6 +94,7 @@ public class UserManagementService {
             request.getAddress(), request.getNote(), request.getPermissions());
 
         UserInfo saved = userInfoRepository.save(user);
+        principalCache.evictUser(userId);
         if (StringUtils.hasText(request.getPassword())) {
             persistPassword(saved, request.getPassword());
         }
@@ -109,6 +114,7 @@ public class UserManagementService {
         }
         UserInfo user = getUserOrThrow(userId, companyId);
         userInfoRepository.delete(user);
+        principalCache.evictUser(userId);
     }
 
     @Transactional
@@ -125,6 +131,7 @@ public class UserManagementService {
             throw new ResourceNotFoundException("One or more users not found", "USER_NOT_FOUND");
         }
         userInfoRepository.deleteAll(users);
+        principalCache.evictUsers(ids);
     }
 
     @Transactional
@@ -141,18 +148,31 @@ public class UserManagementService {
 
         users.forEach(user -> user.setIsActive(newStatus));
         userInfoRepository.saveAll(users);
+        principalCache.evictUsers(request.getIds());
     }
 
+    /**
+     * Write the users matching the list filters, ordered by name, to {@code out}, streaming rows
+     * from a forward-only cursor into the file.
+     */
     @Transactional(readOnly = true)
-    public ExportResult exportUsers(Long companyId, String search, UserRole role, Boolean active, ExportFormat format) {
-        List<UserInfo> users = userInfoRepository.findAll(
-            UserSpecifications.withFilters(companyId, normalize(search), role, active),
-            Sort.by(Sort.Direction.ASC, "fullName"));
-
-        return switch (format) {
-            case XLSX -> buildXlsx(users);
-            case CSV -> buildCsv(users);
-        };
+    public void exportUsers(Long companyId, String search, UserRole role, Boolean active,
+                            SpreadsheetFormat format, OutputStream out) throws IOException {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserExportRow> query = cb.createQuery(UserExportRow.class);
+        Root<UserInfo> root = query.from(UserInfo.class);
+        query.select(cb.construct(UserExportRow.class,
+                root.get("fullName"), root.get("username"), root.get("phone"), root.get("role"),
+                root.get("isActive"), root.get("birthday"), root.get("email")))
+            .where(UserSpecifications.withFilters(companyId, normalize(search), role, active).toPredicate(root, query, cb))
+            .orderBy(cb.asc(root.get("fullName")));
+
+        try (Stream<UserExportRow> rows = StreamingQueries.stream(entityManager.createQuery(query));
+             SpreadsheetWriter writer = SpreadsheetWriter.open(format, out, "Users", UserExportRow.HEADER)) {
+            for (UserExportRow row : (Iterable<UserExportRow>) rows::iterator) {
+                writer.row(row.cells());
+            }
+        }
     }
 
     private void applyCommonFields(
@@ -263,86 +283,4 @@ public class UserManagementService {
         new SecureRandom().nextBytes(saltBytes);
         return Base64.getEncoder().encodeToString(saltBytes);
     }
-
-    private ExportResult buildCsv(List<UserInfo> users) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("Display Name,Username,Phone,Role,Status").append("\n");
-        for (UserInfo user : users) {
-            builder.append(safeCsv(user.getFullName())).append(',')
-                .append(safeCsv(user.getUsername())).append(',')
-                .append(safeCsv(user.getPhone())).append(',')
-                .append(safeCsv(user.getRole().getDisplayName())).append(',')
-                .append(user.getIsActive() ? "Active" : "Inactive").append('\n');
-        }
-        byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
-        return new ExportResult(bytes, "text/csv",
-            "users-" + UUID.randomUUID() + ".csv");
-    }
-
-    private ExportResult buildXlsx(List<UserInfo> users) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            XSSFSheet sheet = workbook.createSheet("Users");
-            createHeaderRow(sheet);
-            int rowIndex = 1;
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-            for (UserInfo user : users) {
-                Row row = sheet.createRow(rowIndex++);
-                createCell(row, 0, user.getFullName());
-                createCell(row, 1, user.getUsername());
-                createCell(row, 2, user.getPhone());
-                createCell(row, 3, user.getRole().getDisplayName());
-                createCell(row, 4, user.getIsActive() ? "Active" : "Inactive");
-                createCell(row, 5, user.getBirthday() != null ? user.getBirthday().format(formatter) : "");
-                createCell(row, 6, user.getEmail());
-            }
-
-            for (int i = 0; i <= 6; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            workbook.write(out);
-            return new ExportResult(out.toByteArray(),
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
-                "users-" + UUID.randomUUID() + ".xlsx");
-        } catch (Exception ex) {
-            throw new BusinessRuleException("Failed to export users", "EXPORT_FAILED");
-        }
-    }
-
-    private void createHeaderRow(XSSFSheet sheet) {
-        Row header = sheet.createRow(0);
-        String[] headers = {"Display Name", "Username", "Phone", "Role", "Status", "Birthday", "Email"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = header.createCell(i);
-            cell.setCellValue(headers[i]);
-        }
-    }
-
-    private void createCell(Row row, int column, String value) {
-        Cell cell = row.createCell(column);
-        cell.setCellValue(value != null ? value : "");
-    }
-
-    private String safeCsv(String value) {
-        if (value == null) {
-            return "";
-        }
-        String escaped = value.replace("\"", "\"\"");
-        if (escaped.contains(",") || escaped.contains("\"")) {
-            return "\"" + escaped + "\"";
-        }
-        return escaped;
-    }
-
-    public enum ExportFormat {
-        CSV, XLSX
-    }
-
-    @Value
-    public static class ExportResult {
-        byte[] data;
-        String contentType;
-        String fileName;
-    }
 }
@@ -2,6 +2,7 @@ package fa.academy.kiotviet.core.usermanagement.service.user;
 
 import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
 import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
+import fa.academy.kiotviet.infrastructure.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +17,7 @@ import java.util.Optional;
 public class UserService {
 
     private final UserInfoRepository userInfoRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Find user by username.
@@ -46,7 +48,9 @@ public class UserService {
      * @return Saved user entity
      */
     public UserInfo save(UserInfo user) {
-        return userInfoRepository.save(user);
+        UserInfo saved = userInfoRepository.save(user);
+        principalCache.evictUser(saved.getId());
+        return saved;
     }
 
     /**
@@ -0,0 +1,36 @@
+package fa.academy.kiotviet.infrastructure.metering;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records request count and servlet time per tenant.
+ * Registered right after the JWT filter so the tenant is already resolved.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantMeteringFilter extends OncePerRequestFilter {
+
+    private final TenantUsageMeter usageMeter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        // Resolve before the chain runs; the security context is cleared on the way out
+        Long companyId = TenantUsageMeter.currentCompanyId();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            usageMeter.recordRequest(companyId, System.nanoTime() - start);
+        }
+    }
+}
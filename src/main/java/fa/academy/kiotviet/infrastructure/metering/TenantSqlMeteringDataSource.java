@@ -0,0 +1,89 @@
+package fa.academy.kiotviet.infrastructure.metering;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource that attributes JDBC statement count and execution time to the current tenant.
+ *
+ * Metering at the connection level covers Hibernate and {@code JdbcTemplate} alike (imports,
+ * bulk updates, exports). Each {@code execute*} call, including {@code executeBatch}, counts as
+ * one statement; time spent reading a streamed result set is not included.
+ */
+public class TenantSqlMeteringDataSource extends DelegatingDataSource {
+
+    public TenantSqlMeteringDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return metered(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return metered(super.getConnection(username, password));
+    }
+
+    private static Connection metered(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getReturnType().isInterface()
+                            && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return metered(statement, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private static Object metered(Statement statement, Class<?> statementType) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        TenantUsageMeter meter = TenantUsageMeter.get();
+                        if (meter != null) {
+                            meter.recordSql(TenantUsageMeter.currentCompanyId(), System.nanoTime() - start);
+                        }
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package fa.academy.kiotviet.infrastructure.metering;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a {@link TenantSqlMeteringDataSource}, so every
+ * statement is metered whichever API issued it.
+ */
+@Component
+public class TenantSqlMeteringPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof TenantSqlMeteringDataSource)) {
+            return new TenantSqlMeteringDataSource(dataSource);
+        }
+        return bean;
+    }
+}
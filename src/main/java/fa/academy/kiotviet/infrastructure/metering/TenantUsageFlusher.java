@@ -0,0 +1,69 @@
+package fa.academy.kiotviet.infrastructure.metering;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Periodically drains {@link TenantUsageMeter} and adds the deltas to tenant_usage_hourly
+ * with a single JDBC batch per flush.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenantUsageFlusher {
+
+    private static final String UPSERT_SQL =
+            "insert into tenant_usage_hourly " +
+            "(company_id, hour_start, request_count, servlet_time_ms, sql_count, sql_time_ms, storage_bytes) " +
+            "values (?, ?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update request_count = request_count + values(request_count), " +
+            "servlet_time_ms = servlet_time_ms + values(servlet_time_ms), " +
+            "sql_count = sql_count + values(sql_count), " +
+            "sql_time_ms = sql_time_ms + values(sql_time_ms), " +
+            "storage_bytes = storage_bytes + values(storage_bytes)";
+
+    private final TenantUsageMeter usageMeter;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${app.metering.flush-interval-ms:60000}",
+            initialDelayString = "${app.metering.flush-interval-ms:60000}")
+    public void flush() {
+        List<TenantUsageMeter.UsageSnapshot> snapshots = usageMeter.drain();
+        if (snapshots.isEmpty()) return;
+
+        Timestamp hourStart = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, snapshots, snapshots.size(), (ps, s) -> {
+                ps.setLong(1, s.companyId());
+                ps.setTimestamp(2, hourStart);
+                ps.setLong(3, s.requests());
+                ps.setLong(4, nanosToMillis(s.servletNanos()));
+                ps.setLong(5, s.sqlStatements());
+                ps.setLong(6, nanosToMillis(s.sqlNanos()));
+                ps.setLong(7, s.storageBytes());
+            });
+            log.debug("Flushed usage for {} tenants", snapshots.size());
+        } catch (Exception e) {
+            // Metering must never affect request handling; drop this window and keep going
+            log.warn("Failed to flush tenant usage for {} tenants: {}", snapshots.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private long nanosToMillis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+}
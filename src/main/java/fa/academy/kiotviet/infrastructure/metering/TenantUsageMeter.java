@@ -0,0 +1,143 @@
+package fa.academy.kiotviet.infrastructure.metering;
+
+import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local, lock-free per-tenant usage counters.
+ *
+ * Hot paths only touch {@link LongAdder}s; {@link TenantUsageFlusher} periodically drains
+ * the counters and persists them to tenant_usage_hourly.
+ *
+ * Usage is attributed to the company of the authenticated principal, or to the company a
+ * background job runs for (see {@link #attributeTo}). Platform jobs that serve no single
+ * tenant, such as the usage flush itself, the token purge and the mail outbox dispatch, are
+ * not metered.
+ */
+@Component
+public class TenantUsageMeter {
+
+    private static volatile TenantUsageMeter instance;
+    private static final ThreadLocal<Long> JOB_COMPANY = new ThreadLocal<>();
+
+    private final ConcurrentMap<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void register() {
+        instance = this;
+    }
+
+    /**
+     * Meter instance for collaborators that are not Spring-managed (e.g. Hibernate session listeners).
+     */
+    static TenantUsageMeter get() {
+        return instance;
+    }
+
+    public void recordRequest(Long companyId, long elapsedNanos) {
+        if (companyId == null) return;
+        Counters c = countersFor(companyId);
+        c.requests.increment();
+        c.servletNanos.add(elapsedNanos);
+    }
+
+    public void recordSql(Long companyId, long elapsedNanos) {
+        if (companyId == null) return;
+        Counters c = countersFor(companyId);
+        c.sqlStatements.increment();
+        c.sqlNanos.add(elapsedNanos);
+    }
+
+    public void recordStorage(Long companyId, long bytes) {
+        if (companyId == null || bytes <= 0) return;
+        countersFor(companyId).storageBytes.add(bytes);
+    }
+
+    /**
+     * Reset all counters and return what was accumulated since the previous drain.
+     * Increments racing with the drain are carried over to the next one, never lost.
+     */
+    public List<UsageSnapshot> drain() {
+        List<UsageSnapshot> snapshots = new ArrayList<>();
+        counters.forEach((companyId, c) -> {
+            UsageSnapshot snapshot = new UsageSnapshot(
+                    companyId,
+                    c.requests.sumThenReset(),
+                    c.servletNanos.sumThenReset(),
+                    c.sqlStatements.sumThenReset(),
+                    c.sqlNanos.sumThenReset(),
+                    c.storageBytes.sumThenReset());
+            if (!snapshot.isEmpty()) {
+                snapshots.add(snapshot);
+            }
+        });
+        return snapshots;
+    }
+
+    /**
+     * Attribute usage on the current thread to a company until the returned scope is closed,
+     * for background jobs that run without an authenticated principal.
+     */
+    public static Scope attributeTo(Long companyId) {
+        Long previous = JOB_COMPANY.get();
+        JOB_COMPANY.set(companyId);
+        return () -> {
+            if (previous != null) {
+                JOB_COMPANY.set(previous);
+            } else {
+                JOB_COMPANY.remove();
+            }
+        };
+    }
+
+    /**
+     * Company usage on the current thread is attributed to, or null.
+     */
+    public static Long currentCompanyId() {
+        Long jobCompanyId = JOB_COMPANY.get();
+        if (jobCompanyId != null) {
+            return jobCompanyId;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof JwtAuthenticationFilter.UserPrincipal principal) {
+            return principal.getCompanyId();
+        }
+        return null;
+    }
+
+    private Counters countersFor(Long companyId) {
+        return counters.computeIfAbsent(companyId, id -> new Counters());
+    }
+
+    private static final class Counters {
+        final LongAdder requests = new LongAdder();
+        final LongAdder servletNanos = new LongAdder();
+        final LongAdder sqlStatements = new LongAdder();
+        final LongAdder sqlNanos = new LongAdder();
+        final LongAdder storageBytes = new LongAdder();
+    }
+
+    /**
+     * Ends an {@link #attributeTo} scope.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public record UsageSnapshot(Long companyId, long requests, long servletNanos,
+                                long sqlStatements, long sqlNanos, long storageBytes) {
+        boolean isEmpty() {
+            return requests == 0 && servletNanos == 0 && sqlStatements == 0 && sqlNanos == 0 && storageBytes == 0;
+        }
+    }
+}
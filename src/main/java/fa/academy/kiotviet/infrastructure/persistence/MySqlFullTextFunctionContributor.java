@@ -0,0 +1,22 @@
+package fa.academy.kiotviet.infrastructure.persistence;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code match_against(column, query)} for JPQL and Criteria queries, rendered as MySQL
+ * {@code MATCH(column) AGAINST(query IN BOOLEAN MODE)}. The result is the relevance score,
+ * 0 for rows that do not match. Registered through META-INF/services.
+ */
+public class MySqlFullTextFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                "match_against",
+                "match(?1) against(?2 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+}
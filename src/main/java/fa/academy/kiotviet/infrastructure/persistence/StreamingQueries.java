@@ -0,0 +1,33 @@
+package fa.academy.kiotviet.infrastructure.persistence;
+
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+/**
+ * Forward-only, row-at-a-time reads for exports over result sets of any size.
+ *
+ * <p>MySQL Connector/J reads the whole result into memory unless the fetch size is
+ * {@link Integer#MIN_VALUE}, which makes it stream rows off the socket as they are consumed.
+ * The connection stays busy until the stream is closed, so callers run inside a transaction,
+ * close the stream, and select DTO projections (or detach entities) to keep the persistence
+ * context from growing.
+ */
+public final class StreamingQueries {
+
+    /**
+     * Fetch size hint value for Spring Data {@code @QueryHint}s.
+     */
+    public static final String MYSQL_STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    private StreamingQueries() {
+    }
+
+    public static <T> Stream<T> stream(TypedQuery<T> query) {
+        return query
+            .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+}
@@ -0,0 +1,58 @@
+package fa.academy.kiotviet.infrastructure.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs Redis operations for caches that have a local fallback.
+ * After a failure Redis is skipped for a cool-down period, so an outage costs one timeout
+ * per window instead of one per request.
+ */
+@Component
+@Slf4j
+public class RedisGuard {
+
+    private final long cooldownMillis;
+    private volatile long unavailableUntil;
+
+    public RedisGuard(@Value("${app.redis.failure-cooldown-ms:30000}") long cooldownMillis) {
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    public boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    /**
+     * @return the operation's result, or {@code fallback} if Redis is cooling down or the call fails
+     */
+    public <T> T execute(Supplier<T> operation, T fallback) {
+        if (!isAvailable()) {
+            return fallback;
+        }
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return fallback;
+        }
+    }
+
+    public void run(Runnable operation) {
+        execute(() -> {
+            operation.run();
+            return null;
+        }, null);
+    }
+
+    private void markUnavailable(RuntimeException e) {
+        boolean wasAvailable = isAvailable();
+        unavailableUntil = System.currentTimeMillis() + cooldownMillis;
+        if (wasAvailable) {
+            log.warn("Redis unavailable, using local fallback for {} ms: {}", cooldownMillis, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package fa.academy.kiotviet.infrastructure.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cluster-wide mutual exclusion for scheduled jobs: SET NX PX with a per-holder token,
+ * released only by the holder. The TTL bounds how long a crashed holder blocks others.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisLockService {
+
+    private static final String KEY_PREFIX = "lock:";
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * @return the held lock, or empty if another node holds it or Redis is unreachable
+     */
+    public Optional<Lock> tryAcquire(String name, Duration ttl) {
+        String key = KEY_PREFIX + name;
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+            return Boolean.TRUE.equals(acquired) ? Optional.of(new Lock(key, token)) : Optional.empty();
+        } catch (RuntimeException e) {
+            log.warn("Cannot acquire lock {}: {}", name, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public final class Lock implements AutoCloseable {
+        private final String key;
+        private final String token;
+
+        private Lock(String key, String token) {
+            this.key = key;
+            this.token = token;
+        }
+
+        @Override
+        public void close() {
+            try {
+                redisTemplate.execute(RELEASE, List.of(key), token);
+            } catch (RuntimeException e) {
+                // The TTL releases it eventually
+                log.warn("Cannot release lock {}: {}", key, e.getMessage());
+            }
+        }
+    }
+}
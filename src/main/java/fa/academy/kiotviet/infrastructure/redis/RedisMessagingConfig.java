@@ -0,0 +1,21 @@
+package fa.academy.kiotviet.infrastructure.redis;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Shared pub/sub container for node-to-node cache invalidation messages.
+ * Subscriptions are re-established automatically once Redis becomes reachable again.
+ */
+@Configuration
+public class RedisMessagingConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
@@ -0,0 +1,121 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import fa.academy.kiotviet.core.usermanagement.service.auth.TwoFactorChallengeStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-node 2FA challenge store. Expired entries are removed by a hashed time wheel:
+ * each key is filed under the slot of its expiry tick and the slot is swept when the wheel
+ * reaches it, so memory stays proportional to live challenges without scanning the whole map.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.two-factor.store", havingValue = "memory")
+public class InMemoryTwoFactorChallengeStore implements TwoFactorChallengeStore {
+
+    private static final long TICK_MILLIS = 1000L;
+    private static final int WHEEL_SIZE = 512;
+
+    private record Entry(Challenge challenge, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String>[] wheel;
+    private long lastSweptTick = -1;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryTwoFactorChallengeStore() {
+        wheel = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Override
+    public void save(String key, Challenge challenge, Duration ttl) {
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        entries.put(key, new Entry(challenge, expiresAt));
+        schedule(key, expiresAt);
+    }
+
+    @Override
+    public Optional<Challenge> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) return Optional.empty();
+        return Optional.of(entry.challenge());
+    }
+
+    @Override
+    public Optional<Challenge> consumeIfMatches(String key, String code) {
+        long now = System.currentTimeMillis();
+        AtomicReference<Challenge> redeemed = new AtomicReference<>();
+        entries.computeIfPresent(key, (k, entry) -> {
+            if (entry.isExpired(now)) return null;
+            if (!entry.challenge().code().equals(code)) return entry;
+            redeemed.set(entry.challenge());
+            return null;
+        });
+        return Optional.ofNullable(redeemed.get());
+    }
+
+    @Override
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Sweep every slot whose tick has fully elapsed since the last run. Keys whose expiry is a full
+     * revolution or more away are re-filed for their next pass; keys already removed or
+     * overwritten are simply dropped.
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        long lastCompleteTick = now / TICK_MILLIS - 1;
+        long fromTick = lastSweptTick < 0 ? lastCompleteTick : lastSweptTick + 1;
+        // A full revolution covers every slot; further back would only repeat work
+        fromTick = Math.max(fromTick, lastCompleteTick - WHEEL_SIZE + 1);
+
+        for (long tick = fromTick; tick <= lastCompleteTick; tick++) {
+            sweepSlot((int) (tick % WHEEL_SIZE), now);
+        }
+        lastSweptTick = lastCompleteTick;
+    }
+
+    private void sweepSlot(int slotIndex, long now) {
+        Queue<String> slot = wheel[slotIndex];
+        for (int i = slot.size(); i > 0; i--) {
+            String key = slot.poll();
+            if (key == null) break;
+            Entry entry = entries.get(key);
+            if (entry == null) continue;
+            if (entry.isExpired(now)) {
+                entries.remove(key, entry);
+            } else if (slotOf(entry.expiresAtMillis()) == slotIndex) {
+                // Expires in a later revolution; check again next time round
+                slot.add(key);
+            }
+            // Otherwise the key was overwritten and is filed under its newer slot
+        }
+    }
+
+    private void schedule(String key, long expiresAtMillis) {
+        wheel[slotOf(expiresAtMillis)].add(key);
+    }
+
+    private static int slotOf(long epochMillis) {
+        return (int) ((epochMillis / TICK_MILLIS) % WHEEL_SIZE);
+    }
+}
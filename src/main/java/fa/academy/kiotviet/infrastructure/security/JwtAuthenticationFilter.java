@@ -1,9 +1,5 @@
 package fa.academy.kiotviet.infrastructure.security;
 
-import fa.academy.kiotviet.core.tenant.domain.Company;
-import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
-import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
-import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,7 +18,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -40,8 +35,13 @@ import lombok.NoArgsConstructor;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserInfoRepository userInfoRepository;
-    private final CompanyRepository companyRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Request attribute holding the {@link VerifiedToken} the request was authenticated with.
+     */
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".TOKEN";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -51,46 +51,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && !jwtUtil.isTokenExpired(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
-                Long userId = jwtUtil.extractUserId(jwt);
-                Long companyId = jwtUtil.extractCompanyId(jwt);
-                String role = jwtUtil.extractRole(jwt);
+            // Single parse/verify per token; hot tokens are served from the verified-claims cache
+            VerifiedToken token = StringUtils.hasText(jwt) ? jwtUtil.verifyAccessToken(jwt) : null;
 
-                // Verify user exists and is active
-                UserInfo user = userInfoRepository.findById(userId)
-                    .filter(UserInfo::getIsActive)
-                    .orElse(null);
+            // Local Bloom-filter check; revoked tokens (logout, password reset) proceed unauthenticated
+            if (token != null && tokenRevocationService.isRevoked(token)) {
+                log.debug("Rejected revoked access token for user ID: {}", token.userId());
+                token = null;
+            }
+
+            if (token != null) {
+                String username = token.username();
+                Long userId = token.userId();
+                Long companyId = token.companyId();
+                String role = token.role();
+
+                // Verify user exists and is active (served from the principal cache, no SQL on a hit)
+                PrincipalCache.CachedUser user = principalCache.getUser(userId);
+                if (user != null && !user.active()) {
+                    user = null;
+                }
 
                 // Check if company is suspended (block login if suspended)
-                if (companyId != null && companyId > 0) {
-                    Company company = companyRepository.findById(companyId).orElse(null);
-                    if (company != null && Boolean.TRUE.equals(company.getIsSuspended())) {
-                        log.warn("Company suspended, blocking login for user: {} (Company ID: {})", username, companyId);
-                        // Clear any existing authentication and block request
-                        SecurityContextHolder.clearContext();
-                        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                        response.setContentType("application/json");
-                        response.getWriter().write("{\"error\":\"Forbidden\",\"message\":\"Company account is suspended\"}");
-                        return; // Stop filter chain processing
-                    }
+                if (companyId != null && companyId > 0 && principalCache.isCompanySuspended(companyId)) {
+                    log.warn("Company suspended, blocking login for user: {} (Company ID: {})", username, companyId);
+                    // Clear any existing authentication and block request
+                    SecurityContextHolder.clearContext();
+                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    response.setContentType("application/json");
+                    response.getWriter().write("{\"error\":\"Forbidden\",\"message\":\"Company account is suspended\"}");
+                    return; // Stop filter chain processing
                 }
 
-                if (user != null && username.equals(user.getUsername())) {
-                    // Build authorities
-                    List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                    // Add role as authority (e.g., ROLE_ADMIN)
-                    authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().name().toUpperCase()));
-                    
-                    // Add permissions
-                    // See fa.academy.kiotviet.core.usermanagement.domain.UserInfo.UserPermission for available permissions
-                    if (StringUtils.hasText(user.getPermissions())) {
-                        Arrays.stream(user.getPermissions().split(","))
-                            .filter(StringUtils::hasText)
-                            .map(String::trim)
-                            .map(SimpleGrantedAuthority::new)
-                            .forEach(authorities::add);
-                    }
+                if (user != null && username.equals(user.username())) {
+                    // Role and permissions are pre-split in the cached principal
+                    List<SimpleGrantedAuthority> authorities = new ArrayList<>(user.authorities().size());
+                    user.authorities().forEach(authority -> authorities.add(new SimpleGrantedAuthority(authority)));
 
                     // Create authentication token with user info
                     UserPrincipal userPrincipal = new UserPrincipal(
@@ -98,9 +94,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         companyId,
                         username,
                         role,
-                        user.getFullName() != null ? user.getFullName() : "",
-                        user.getEmail() != null ? user.getEmail() : "",
-                        authorities
+                        user.fullName(),
+                        user.email(),
+                        authorities,
+                        user.permissionBits()
                     );
                     UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
@@ -112,6 +109,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     // Set authentication in context
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, token);
 
                     log.debug("Set authentication for user: {} (ID: {}, Company: {})",
                              username, userId, companyId);
@@ -157,6 +155,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         private String fullName;
         private String email;
         private Collection<? extends GrantedAuthority> authorities;
+        // UserInfo.UserPermission bitset, checked by PermissionBitsEvaluator
+        private long permissionBits;
 
         @Override
         public boolean isAccountNonExpired() {
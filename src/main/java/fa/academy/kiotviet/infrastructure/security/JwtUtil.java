@@ -1,19 +1,31 @@
 package fa.academy.kiotviet.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -23,8 +35,44 @@ public class JwtUtil {
     @Value("${app.jwt.refresh-expiration}")
     private Long refreshExpiration;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    // Built once at startup; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Verified access tokens keyed by SHA-256 of the token, each entry expiring with its token
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                    long remainingMillis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                    return Math.max(0L, remainingMillis) * 1_000_000L;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(Long userId, Long companyId, String username, String role) {
@@ -35,11 +83,15 @@ public class JwtUtil {
             "role", role
         );
 
+        long now = System.currentTimeMillis();
         return Jwts.builder()
             .claims(claims)
+            // Millisecond issue time: the standard iat claim is whole seconds, too coarse for revocation epochs
+            .claim(ISSUED_AT_MILLIS_CLAIM, now)
+            .id(UUID.randomUUID().toString())
             .subject(username)
-            .issuedAt(new Date())
-            .expiration(new Date(System.currentTimeMillis() + jwtExpiration * 1000))
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + jwtExpiration * 1000))
             .signWith(getSigningKey())
             .compact();
     }
@@ -57,10 +109,54 @@ public class JwtUtil {
             .compact();
     }
 
+    /**
+     * Verify an access token and return its claims, parsing and checking the signature at most once
+     * per token lifetime on this node.
+     *
+     * @param token compact JWT from the Authorization header
+     * @return verified claims, or null if the token is malformed, forged, expired or a refresh token
+     */
+    public VerifiedToken verifyAccessToken(String token) {
+        String key = hashToken(token);
+        Instant now = Instant.now();
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached.isExpired(now) ? null : cached;
+        }
+
+        Claims claims;
+        try {
+            claims = extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if ("refresh".equals(claims.get("type", String.class)) || claims.getExpiration() == null) {
+            return null;
+        }
+
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        Instant issuedAt = issuedAtMillis != null
+            ? Instant.ofEpochMilli(issuedAtMillis)
+            : claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : Instant.EPOCH;
+
+        VerifiedToken verified = new VerifiedToken(
+            claims.getId(),
+            claims.get("userId", Long.class),
+            claims.get("companyId", Long.class),
+            claims.getSubject(),
+            claims.get("role", String.class),
+            issuedAt,
+            claims.getExpiration().toInstant());
+        if (verified.isExpired(now)) {
+            return null;
+        }
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
+        return parser
             .parseSignedClaims(token)
             .getPayload();
     }
@@ -114,4 +210,16 @@ public class JwtUtil {
     public Long getAccessTokenExpiration() {
         return jwtExpiration;
     }
-}
\ No newline at end of file
+
+    /**
+     * SHA-256 of the token; a collision-resistant key so cached entries cannot be reused by a forged token.
+     */
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
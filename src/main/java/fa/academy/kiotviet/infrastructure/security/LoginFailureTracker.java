@@ -0,0 +1,63 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.infrastructure.redis.RedisGuard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consecutive failed-login counters, kept in Redis (or locally while Redis is unavailable)
+ * so failed attempts do not write to user_auth. Callers persist only the lockout itself.
+ */
+@Component
+public class LoginFailureTracker {
+
+    private static final String KEY_PREFIX = "auth:login-failures:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final Duration window;
+    private final Cache<Long, AtomicInteger> localCounters;
+
+    public LoginFailureTracker(StringRedisTemplate redisTemplate,
+                               RedisGuard redisGuard,
+                               @Value("${app.security.login-failures.window:15m}") Duration window) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.window = window;
+        this.localCounters = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(window)
+            .build();
+    }
+
+    /**
+     * Count a failed attempt.
+     *
+     * @return consecutive failures within the window, including this one
+     */
+    public int recordFailure(Long userId) {
+        String key = KEY_PREFIX + userId;
+        Long count = redisGuard.execute(() -> {
+            Long value = redisTemplate.opsForValue().increment(key);
+            if (value != null && value == 1L) {
+                redisTemplate.expire(key, window);
+            }
+            return value;
+        }, null);
+        if (count != null) {
+            return count.intValue();
+        }
+        return localCounters.get(userId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void reset(Long userId) {
+        localCounters.invalidate(userId);
+        redisGuard.run(() -> redisTemplate.delete(KEY_PREFIX + userId));
+    }
+}
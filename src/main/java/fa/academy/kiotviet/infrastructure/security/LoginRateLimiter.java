@@ -0,0 +1,133 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.core.shared.exception.TooManyRequestsException;
+import fa.academy.kiotviet.infrastructure.redis.RedisGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Token-bucket rate limiting of login attempts per client IP and per username.
+ *
+ * <p>Buckets live in Redis and are updated by a Lua script, so limits hold across nodes.
+ * While Redis is unavailable each node falls back to its own in-memory buckets.
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    private static final String KEY_PREFIX = "auth:ratelimit:";
+
+    // Refill, take one token if available, store; returns 1 when allowed
+    private static final RedisScript<Long> TAKE_TOKEN = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local refillPerMs = tonumber(ARGV[2])
+            local now = tonumber(ARGV[3])
+            local tokens = tonumber(redis.call('HGET', KEYS[1], 't'))
+            local ts = tonumber(redis.call('HGET', KEYS[1], 'ts'))
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * refillPerMs)
+            local allowed = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            end
+            redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return allowed
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final BucketSpec ipSpec;
+    private final BucketSpec usernameSpec;
+    private final Cache<String, LocalBucket> localBuckets;
+
+    public LoginRateLimiter(StringRedisTemplate redisTemplate,
+                            RedisGuard redisGuard,
+                            @Value("${app.security.login-rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${app.security.login-rate-limit.ip.refill-per-minute:10}") int ipRefillPerMinute,
+                            @Value("${app.security.login-rate-limit.username.capacity:10}") int usernameCapacity,
+                            @Value("${app.security.login-rate-limit.username.refill-per-minute:3}") int usernameRefillPerMinute) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.ipSpec = new BucketSpec("ip:", ipCapacity, ipRefillPerMinute);
+        this.usernameSpec = new BucketSpec("user:", usernameCapacity, usernameRefillPerMinute);
+        this.localBuckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+    }
+
+    /**
+     * Take one token from both the IP and the username bucket.
+     *
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void checkLogin(String clientIp, String username) {
+        boolean ipAllowed = !StringUtils.hasText(clientIp) || tryTake(ipSpec, clientIp);
+        boolean userAllowed = !StringUtils.hasText(username) || tryTake(usernameSpec, username.trim().toLowerCase(Locale.ROOT));
+        if (!ipAllowed || !userAllowed) {
+            log.warn("Login rate limit exceeded (ip={}, username={})", clientIp, username);
+            throw new TooManyRequestsException("Too many login attempts, please try again later", "LOGIN_RATE_LIMITED");
+        }
+    }
+
+    private boolean tryTake(BucketSpec spec, String id) {
+        String key = KEY_PREFIX + spec.prefix + id;
+        long now = System.currentTimeMillis();
+        Long allowed = redisGuard.execute(() -> redisTemplate.execute(TAKE_TOKEN, List.of(key),
+            Integer.toString(spec.capacity),
+            Double.toString(spec.refillPerMilli()),
+            Long.toString(now),
+            Long.toString(spec.idleTtlMillis())), null);
+        if (allowed != null) {
+            return allowed == 1L;
+        }
+        return localBuckets.get(key, k -> new LocalBucket(spec.capacity, now)).tryTake(spec, now);
+    }
+
+    private record BucketSpec(String prefix, int capacity, int refillPerMinute) {
+        double refillPerMilli() {
+            return refillPerMinute / 60_000.0;
+        }
+
+        // Time for an empty bucket to refill completely; after that the key carries no information
+        long idleTtlMillis() {
+            return (long) Math.ceil(capacity / Math.max(refillPerMilli(), 1e-9)) + 1_000L;
+        }
+    }
+
+    private static final class LocalBucket {
+        private double tokens;
+        private long updatedAt;
+
+        LocalBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        synchronized boolean tryTake(BucketSpec spec, long now) {
+            tokens = Math.min(spec.capacity, tokens + Math.max(0, now - updatedAt) * spec.refillPerMilli());
+            updatedAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import fa.academy.kiotviet.core.usermanagement.domain.UserInfo.UserPermission;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+
+/**
+ * Answers {@code hasPermission(null, 'PRODUCT_MANAGE')} with a single bit test against the
+ * principal's compiled {@link UserPermission} bitset instead of scanning granted authorities.
+ * Principals that are not JWT principals (e.g. test users) fall back to an authority lookup.
+ */
+@Component
+public class PermissionBitsEvaluator implements PermissionEvaluator {
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        if (authentication == null || permission == null) {
+            return false;
+        }
+        UserPermission required = permission instanceof UserPermission p ? p : UserPermission.fromName(permission.toString());
+        if (required == null) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof JwtAuthenticationFilter.UserPrincipal principal) {
+            return required.isGrantedIn(principal.getPermissionBits());
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (required.name().equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return hasPermission(authentication, null, permission);
+    }
+}
@@ -0,0 +1,271 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.core.tenant.domain.Company;
+import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
+import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
+import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
+import fa.academy.kiotviet.infrastructure.redis.RedisGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-level cache of the user and company attributes the JWT filter authorizes with:
+ * a per-node Caffeine near cache in front of Redis, loading from the database on a miss.
+ *
+ * <p>Services that change a user's active flag, role or permissions, or a company's suspension,
+ * must call {@link #evictUser(Long)} / {@link #evictCompany(Long)}. Eviction clears this node and
+ * Redis immediately and again after the surrounding transaction commits, and is then published
+ * to the other nodes over Redis pub/sub.
+ *
+ * <p>Redis deletes and publishes that cannot be made (Redis cooling down or failing) are kept and
+ * retried every {@code retry-interval-ms}; until then this node does not read those entries from
+ * Redis. A node that misses a message still drops its entry after {@code local-ttl}.
+ */
+@Component
+@Slf4j
+public class PrincipalCache implements MessageListener {
+
+    static final String EVICTION_CHANNEL = "auth:principal-evictions";
+
+    // Versioned: bump when CachedUser changes shape so stale JSON is never read
+    private static final String USER_KEY_PREFIX = "auth:principal:v2:user:";
+    private static final String COMPANY_KEY_PREFIX = "auth:principal:company:";
+
+    private final UserInfoRepository userInfoRepository;
+    private final CompanyRepository companyRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisGuard redisGuard;
+    private final Duration redisTtl;
+
+    private final Cache<Long, CachedUser> users;
+    private final Cache<Long, Boolean> suspendedCompanies;
+
+    // Evictions not yet applied to Redis and the other nodes
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingCompanies = ConcurrentHashMap.newKeySet();
+
+    public PrincipalCache(UserInfoRepository userInfoRepository,
+                          CompanyRepository companyRepository,
+                          StringRedisTemplate redisTemplate,
+                          ObjectMapper objectMapper,
+                          RedisGuard redisGuard,
+                          RedisMessageListenerContainer listenerContainer,
+                          @Value("${app.security.principal-cache.local-ttl:30s}") Duration localTtl,
+                          @Value("${app.security.principal-cache.redis-ttl:10m}") Duration redisTtl,
+                          @Value("${app.security.principal-cache.max-size:50000}") long maxSize) {
+        this.userInfoRepository = userInfoRepository;
+        this.companyRepository = companyRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisGuard = redisGuard;
+        this.redisTtl = redisTtl;
+        this.users = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(localTtl).build();
+        this.suspendedCompanies = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(localTtl).build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICTION_CHANNEL));
+    }
+
+    /**
+     * @return the cached user, or null if the user does not exist
+     */
+    public CachedUser getUser(Long userId) {
+        return users.get(userId, this::loadUser);
+    }
+
+    public boolean isCompanySuspended(Long companyId) {
+        Boolean suspended = suspendedCompanies.get(companyId, this::loadCompanySuspended);
+        return Boolean.TRUE.equals(suspended);
+    }
+
+    public void evictUser(Long userId) {
+        if (userId == null) return;
+        evictUsers(List.of(userId));
+    }
+
+    public void evictUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) return;
+        evictNowAndAfterCommit(new Eviction(List.copyOf(userIds), List.of()));
+    }
+
+    public void evictCompany(Long companyId) {
+        if (companyId == null) return;
+        evictNowAndAfterCommit(new Eviction(List.of(), List.of(companyId)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            evictLocally(objectMapper.readValue(message.getBody(), Eviction.class));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable principal eviction message: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.principal-cache.retry-interval-ms:5000}")
+    public void retryPendingEvictions() {
+        if ((pendingUsers.isEmpty() && pendingCompanies.isEmpty()) || !redisGuard.isAvailable()) return;
+        Eviction eviction = new Eviction(List.copyOf(pendingUsers), List.copyOf(pendingCompanies));
+        if (evictRemotely(eviction, true)) {
+            pendingUsers.removeAll(eviction.userIds());
+            pendingCompanies.removeAll(eviction.companyIds());
+            log.info("Applied {} deferred principal evictions", eviction.userIds().size() + eviction.companyIds().size());
+        }
+    }
+
+    private CachedUser loadUser(Long userId) {
+        // Redis may still hold the entry an eviction could not delete
+        String json = pendingUsers.contains(userId) ? null
+            : redisGuard.execute(() -> redisTemplate.opsForValue().get(USER_KEY_PREFIX + userId), null);
+        if (json != null) {
+            try {
+                return objectMapper.readValue(json, CachedUser.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Discarding unreadable cached principal for user {}: {}", userId, e.getMessage());
+            }
+        }
+
+        CachedUser user = userInfoRepository.findById(userId).map(CachedUser::from).orElse(null);
+        if (user != null) {
+            try {
+                String value = objectMapper.writeValueAsString(user);
+                redisGuard.run(() -> redisTemplate.opsForValue().set(USER_KEY_PREFIX + userId, value, redisTtl));
+            } catch (JsonProcessingException e) {
+                log.warn("Cannot cache principal for user {}: {}", userId, e.getMessage());
+            }
+        }
+        return user;
+    }
+
+    private Boolean loadCompanySuspended(Long companyId) {
+        String value = pendingCompanies.contains(companyId) ? null
+            : redisGuard.execute(() -> redisTemplate.opsForValue().get(COMPANY_KEY_PREFIX + companyId), null);
+        if (value != null) {
+            return "1".equals(value);
+        }
+
+        boolean suspended = companyRepository.findById(companyId)
+            .map(Company::getIsSuspended)
+            .map(Boolean.TRUE::equals)
+            .orElse(false);
+        redisGuard.run(() -> redisTemplate.opsForValue().set(COMPANY_KEY_PREFIX + companyId, suspended ? "1" : "0", redisTtl));
+        return suspended;
+    }
+
+    /**
+     * Evicting only before commit lets a concurrent request re-cache the old row; evicting only
+     * after commit leaves the old value visible to this transaction's own follow-up reads. Other
+     * nodes are told once the change is visible to them.
+     */
+    private void evictNowAndAfterCommit(Eviction eviction) {
+        evictLocally(eviction);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictRemotely(eviction, false);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocally(eviction);
+                    evictOrDefer(eviction);
+                }
+            });
+        } else {
+            evictOrDefer(eviction);
+        }
+    }
+
+    private void evictLocally(Eviction eviction) {
+        users.invalidateAll(eviction.userIds());
+        suspendedCompanies.invalidateAll(eviction.companyIds());
+    }
+
+    private void evictOrDefer(Eviction eviction) {
+        if (!evictRemotely(eviction, true)) {
+            pendingUsers.addAll(eviction.userIds());
+            pendingCompanies.addAll(eviction.companyIds());
+        }
+    }
+
+    /**
+     * @return whether Redis was updated (and the other nodes told, if {@code publish})
+     */
+    private boolean evictRemotely(Eviction eviction, boolean publish) {
+        List<String> keys = new ArrayList<>();
+        eviction.userIds().forEach(id -> keys.add(USER_KEY_PREFIX + id));
+        eviction.companyIds().forEach(id -> keys.add(COMPANY_KEY_PREFIX + id));
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(eviction);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize principal eviction", e);
+        }
+        return redisGuard.execute(() -> {
+            redisTemplate.delete(keys);
+            if (publish) {
+                redisTemplate.convertAndSend(EVICTION_CHANNEL, message);
+            }
+            return true;
+        }, false);
+    }
+
+    /**
+     * Principals to drop, as published to the other nodes.
+     */
+    record Eviction(List<Long> userIds, List<Long> companyIds) {
+    }
+
+    /**
+     * Authorization-relevant snapshot of a user; authorities are pre-split so requests never parse the permissions CSV,
+     * and {@code permissionBits} is the compiled {@link UserInfo.UserPermission} bitset.
+     */
+    public record CachedUser(
+            Long userId,
+            String username,
+            String fullName,
+            String email,
+            boolean active,
+            List<String> authorities,
+            long permissionBits) {
+
+        static CachedUser from(UserInfo user) {
+            List<String> authorities = new ArrayList<>();
+            authorities.add("ROLE_" + user.getRole().name().toUpperCase());
+            // See fa.academy.kiotviet.core.usermanagement.domain.UserInfo.UserPermission for available permissions
+            if (StringUtils.hasText(user.getPermissions())) {
+                Arrays.stream(user.getPermissions().split(","))
+                    .filter(StringUtils::hasText)
+                    .map(String::trim)
+                    .forEach(authorities::add);
+            }
+            return new CachedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getFullName() != null ? user.getFullName() : "",
+                user.getEmail() != null ? user.getEmail() : "",
+                Boolean.TRUE.equals(user.getIsActive()),
+                List.copyOf(authorities),
+                user.getPermissionBits() != null ? user.getPermissionBits() : 0L);
+        }
+    }
+}
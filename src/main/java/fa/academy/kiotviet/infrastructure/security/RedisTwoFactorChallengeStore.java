@@ -0,0 +1,68 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import fa.academy.kiotviet.core.usermanagement.service.auth.TwoFactorChallengeStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cluster-wide 2FA challenge store: one Redis string per challenge with a native TTL,
+ * redeemed by a Lua compare-and-delete.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.two-factor.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RedisTwoFactorChallengeStore implements TwoFactorChallengeStore {
+
+    private static final String KEY_PREFIX = "auth:2fa:";
+
+    // Value layout: userId|code|destination (destination last, it may contain anything)
+    private static final RedisScript<String> CONSUME_IF_MATCHES = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then return nil end
+            local code = string.match(value, '^[^|]*|([^|]*)|')
+            if code ~= ARGV[1] then return nil end
+            redis.call('DEL', KEYS[1])
+            return value
+            """, String.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void save(String key, Challenge challenge, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + key, encode(challenge), ttl);
+    }
+
+    @Override
+    public Optional<Challenge> find(String key) {
+        return Optional.ofNullable(redisTemplate.opsForValue().get(KEY_PREFIX + key)).map(this::decode);
+    }
+
+    @Override
+    public Optional<Challenge> consumeIfMatches(String key, String code) {
+        if (code == null || code.indexOf('|') >= 0) return Optional.empty();
+        String value = redisTemplate.execute(CONSUME_IF_MATCHES, List.of(KEY_PREFIX + key), code);
+        return Optional.ofNullable(value).map(this::decode);
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.delete(KEY_PREFIX + key);
+    }
+
+    private String encode(Challenge challenge) {
+        return challenge.userId() + "|" + challenge.code() + "|" + challenge.destination();
+    }
+
+    private Challenge decode(String value) {
+        String[] parts = value.split("\\|", 3);
+        return new Challenge(Long.valueOf(parts[0]), parts[1], parts.length > 2 ? parts[2] : null);
+    }
+}
@@ -0,0 +1,220 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import fa.academy.kiotviet.infrastructure.redis.RedisGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation of already-issued access tokens.
+ *
+ * <p>Revocations are stored in Redis with a TTL equal to the remaining token life, either per token
+ * ({@code jti}) or per user as an epoch: every token of that user issued at or before the epoch is revoked.
+ * Each node mirrors the Redis entries in memory behind a Bloom filter rebuilt every
+ * {@code app.security.revocation.refresh-interval-ms}, so {@link #isRevoked(VerifiedToken)} never touches
+ * the network and the common "not revoked" answer costs a few hashes. Revocations made on this node
+ * apply immediately; other nodes see them after their next rebuild.
+ *
+ * <p>A user epoch is taken from the revoking node's clock and compared with the {@code iat} set by the
+ * issuing node, so tokens issued up to {@code app.security.revocation.clock-skew} before the epoch are
+ * left valid rather than rejecting a login made right after the revocation on a node whose clock is
+ * behind. Callers revoke the token in hand by its {@code jti}, which is exact.
+ */
+@Component
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String JTI_KEY_PREFIX = "auth:revoked:jti:";
+    private static final String USER_KEY_PREFIX = "auth:revoked:user:";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final Duration accessTokenLifetime;
+    private final long clockSkewMillis;
+
+    // Revocations made on this node, re-applied on every rebuild until they expire
+    private final Map<String, Long> localJtis = new ConcurrentHashMap<>();
+    private final Map<Long, Epoch> localUserEpochs = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.empty(MIN_CAPACITY);
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  RedisGuard redisGuard,
+                                  @Value("${app.jwt.expiration}") long accessTokenExpirationSeconds,
+                                  @Value("${app.security.revocation.clock-skew:2s}") Duration clockSkew) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.accessTokenLifetime = Duration.ofSeconds(accessTokenExpirationSeconds);
+        this.clockSkewMillis = clockSkew.toMillis();
+    }
+
+    /**
+     * @return true if the token itself or all of its user's tokens issued before the epoch (less the
+     * clock-skew allowance) have been revoked
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        Snapshot current = snapshot;
+        if (token.jti() != null && current.bloom.mightContain(jtiMember(token.jti()))
+                && current.jtis.contains(token.jti())) {
+            return true;
+        }
+        if (token.userId() != null && current.bloom.mightContain(userMember(token.userId()))) {
+            Long epoch = current.userEpochs.get(token.userId());
+            return epoch != null && token.issuedAt().toEpochMilli() <= epoch - clockSkewMillis;
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single access token until it expires, e.g. the token presented on logout.
+     */
+    public void revokeToken(String jti, Instant expiresAt) {
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (jti == null || ttl.isNegative() || ttl.isZero()) return;
+
+        long expiresAtMillis = expiresAt.toEpochMilli();
+        localJtis.put(jti, expiresAtMillis);
+        snapshot.addJti(jti);
+        redisGuard.run(() -> redisTemplate.opsForValue().set(JTI_KEY_PREFIX + jti, "1", ttl));
+    }
+
+    /**
+     * Revoke every access token issued to the user up to now, e.g. on logout or password reset.
+     */
+    public void revokeAllForUser(Long userId) {
+        if (userId == null) return;
+
+        long epochMillis = System.currentTimeMillis();
+        Epoch epoch = new Epoch(epochMillis, epochMillis + accessTokenLifetime.toMillis());
+        localUserEpochs.merge(userId, epoch, (a, b) -> a.epochMillis >= b.epochMillis ? a : b);
+        snapshot.addUserEpoch(userId, epochMillis);
+        redisGuard.run(() -> redisTemplate.opsForValue()
+            .set(USER_KEY_PREFIX + userId, Long.toString(epochMillis), accessTokenLifetime));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Re-mirror Redis into a freshly sized Bloom filter. If Redis is unreachable the current
+     * mirror is kept and only local revocations are refreshed.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:10000}",
+            initialDelayString = "${app.security.revocation.refresh-interval-ms:10000}")
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        localJtis.values().removeIf(expiresAt -> expiresAt <= now);
+        localUserEpochs.values().removeIf(epoch -> epoch.expiresAtMillis <= now);
+
+        RemoteEntries remote = redisGuard.execute(this::loadRemote, null);
+
+        Snapshot previous = snapshot;
+        Collection<String> jtis = remote != null ? remote.jtis : previous.jtis;
+        Map<Long, Long> userEpochs = remote != null ? remote.userEpochs : previous.userEpochs;
+
+        int entries = jtis.size() + userEpochs.size() + localJtis.size() + localUserEpochs.size();
+        Snapshot next = Snapshot.empty(Math.max(MIN_CAPACITY, 2 * entries));
+        jtis.forEach(next::addJti);
+        userEpochs.forEach(next::addUserEpoch);
+        snapshot = next;
+
+        // Re-apply after the swap so revocations made during the rebuild are not lost
+        localJtis.keySet().forEach(next::addJti);
+        localUserEpochs.forEach((userId, epoch) -> next.addUserEpoch(userId, epoch.epochMillis));
+
+        if (remote != null) {
+            log.debug("Token revocation mirror rebuilt: {} tokens, {} user epochs", next.jtis.size(), next.userEpochs.size());
+        }
+    }
+
+    private RemoteEntries loadRemote() {
+        List<String> jtis = new ArrayList<>();
+        List<String> userKeys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match("auth:revoked:*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> {
+                if (key.startsWith(JTI_KEY_PREFIX)) {
+                    jtis.add(key.substring(JTI_KEY_PREFIX.length()));
+                } else if (key.startsWith(USER_KEY_PREFIX)) {
+                    userKeys.add(key);
+                }
+            });
+        }
+
+        Map<Long, Long> userEpochs = new ConcurrentHashMap<>();
+        if (!userKeys.isEmpty()) {
+            List<String> values = redisTemplate.opsForValue().multiGet(userKeys);
+            for (int i = 0; i < userKeys.size(); i++) {
+                String value = values != null ? values.get(i) : null;
+                if (value == null) continue; // expired between SCAN and MGET
+                try {
+                    userEpochs.put(Long.parseLong(userKeys.get(i).substring(USER_KEY_PREFIX.length())), Long.parseLong(value));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring malformed revocation entry {}", userKeys.get(i));
+                }
+            }
+        }
+        return new RemoteEntries(jtis, userEpochs);
+    }
+
+    private static String jtiMember(String jti) {
+        return "j:" + jti;
+    }
+
+    private static String userMember(Long userId) {
+        return "u:" + userId;
+    }
+
+    private record Epoch(long epochMillis, long expiresAtMillis) {
+    }
+
+    private record RemoteEntries(List<String> jtis, Map<Long, Long> userEpochs) {
+    }
+
+    /**
+     * Bloom filter plus the exact entries it was built from; a Bloom hit is confirmed against the maps
+     * so false positives never reject a valid token.
+     */
+    private static final class Snapshot {
+        private final RevocationBloomFilter bloom;
+        private final Set<String> jtis = ConcurrentHashMap.newKeySet();
+        private final Map<Long, Long> userEpochs = new ConcurrentHashMap<>();
+
+        private Snapshot(RevocationBloomFilter bloom) {
+            this.bloom = bloom;
+        }
+
+        static Snapshot empty(int capacity) {
+            return new Snapshot(RevocationBloomFilter.create(capacity, FALSE_POSITIVE_RATE));
+        }
+
+        void addJti(String jti) {
+            jtis.add(jti);
+            bloom.put(jtiMember(jti));
+        }
+
+        void addUserEpoch(Long userId, Long epochMillis) {
+            userEpochs.merge(userId, epochMillis, Math::max);
+            bloom.put(userMember(userId));
+        }
+    }
+}
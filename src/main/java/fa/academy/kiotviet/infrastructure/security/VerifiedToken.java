@@ -0,0 +1,21 @@
+package fa.academy.kiotviet.infrastructure.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified access token's claims.
+ * Produced once per token by {@link JwtUtil#verifyAccessToken(String)}.
+ */
+public record VerifiedToken(
+        String jti,
+        Long userId,
+        Long companyId,
+        String username,
+        String role,
+        Instant issuedAt,
+        Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,55 @@
+package fa.academy.kiotviet.infrastructure.spreadsheet;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Spreadsheet file formats handled by {@link SpreadsheetReader} and {@link SpreadsheetWriter}.
+ */
+public enum SpreadsheetFormat {
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    SpreadsheetFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Format from a file name's extension, e.g. "products.XLSX" -> XLSX.
+     */
+    public static Optional<SpreadsheetFormat> fromFileName(String fileName) {
+        if (fileName == null) {
+            return Optional.empty();
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? Optional.empty() : fromExtension(fileName.substring(dot + 1));
+    }
+
+    /**
+     * Format from an extension or request parameter such as "csv" or "XLSX".
+     */
+    public static Optional<SpreadsheetFormat> fromExtension(String extension) {
+        if (extension == null) {
+            return Optional.empty();
+        }
+        String normalized = extension.trim().toLowerCase(Locale.ROOT);
+        for (SpreadsheetFormat format : values()) {
+            if (format.extension.equals(normalized)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
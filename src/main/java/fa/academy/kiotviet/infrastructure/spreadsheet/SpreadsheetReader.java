@@ -0,0 +1,242 @@
+package fa.academy.kiotviet.infrastructure.spreadsheet;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the first sheet of an .xlsx file, or a CSV file, row by row without loading it into
+ * memory: .xlsx goes through POI's SAX event model (only the shared strings table is held),
+ * CSV through a single-pass RFC 4180 parser. Rows are handed to a {@link RowHandler} as they
+ * are parsed.
+ */
+public final class SpreadsheetReader {
+
+    private static final int PROGRESS_EVERY_ROWS = 256;
+
+    private SpreadsheetReader() {
+    }
+
+    /**
+     * Receives rows in file order. Exceptions thrown by the handler stop the read and propagate.
+     */
+    public interface RowHandler {
+
+        /**
+         * @param rowNumber 1-based row number as shown by spreadsheet programs
+         * @param cells     cell text by column, "" for empty cells; only valid during the call
+         */
+        void row(int rowNumber, List<String> cells);
+
+        /**
+         * Fraction of the file read so far, from 0 to 1; not called when the size is unknown.
+         */
+        default void progress(double fraction) {
+        }
+    }
+
+    public static void read(Path file, SpreadsheetFormat format, RowHandler handler) throws IOException {
+        switch (format) {
+            case XLSX -> readXlsx(file, handler);
+            case CSV -> readCsv(file, handler);
+        }
+    }
+
+    private static void readXlsx(Path file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next();
+                 CountingInputStream counted = new CountingInputStream(sheet, sheets.getSheetPart().getSize())) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    styles, strings, new SheetRowCollector(handler, counted), new PlainNumberFormatter(), false));
+                parser.parse(new InputSource(counted));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Not a readable .xlsx file", e);
+        }
+    }
+
+    private static void readCsv(Path file, RowHandler handler) throws IOException {
+        try (CountingInputStream counted = new CountingInputStream(Files.newInputStream(file), Files.size(file));
+             Reader reader = new InputStreamReader(counted, StandardCharsets.UTF_8)) {
+            char[] buffer = new char[64 * 1024];
+            List<String> row = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean quoteInQuoted = false;
+            boolean first = true;
+            int rowNumber = 1;
+
+            int read;
+            while ((read = reader.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    char ch = buffer[i];
+                    if (first) {
+                        first = false;
+                        if (ch == '\uFEFF') {
+                            continue;
+                        }
+                    }
+                    if (quoteInQuoted) {
+                        quoteInQuoted = false;
+                        if (ch == '"') {
+                            field.append('"');
+                            continue;
+                        }
+                        quoted = false;
+                    }
+                    if (quoted) {
+                        if (ch == '"') {
+                            quoteInQuoted = true;
+                        } else {
+                            field.append(ch);
+                        }
+                    } else if (ch == '"' && field.isEmpty()) {
+                        quoted = true;
+                    } else if (ch == ',') {
+                        row.add(field.toString());
+                        field.setLength(0);
+                    } else if (ch == '\n') {
+                        row.add(field.toString());
+                        field.setLength(0);
+                        emit(handler, rowNumber++, row, counted);
+                    } else if (ch != '\r') {
+                        field.append(ch);
+                    }
+                }
+            }
+            if (!field.isEmpty() || !row.isEmpty()) {
+                row.add(field.toString());
+                emit(handler, rowNumber, row, counted);
+            }
+        }
+    }
+
+    private static void emit(RowHandler handler, int rowNumber, List<String> row, CountingInputStream counted) {
+        handler.row(rowNumber, row);
+        row.clear();
+        if (rowNumber % PROGRESS_EVERY_ROWS == 0) {
+            counted.report(handler);
+        }
+    }
+
+    /**
+     * Collects the sparse cell callbacks of one sheet row into a dense list.
+     */
+    private static final class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final CountingInputStream counted;
+        private final List<String> cells = new ArrayList<>();
+
+        SheetRowCollector(RowHandler handler, CountingInputStream counted) {
+            this.handler = handler;
+            this.counted = counted;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum + 1, cells);
+            if ((rowNum + 1) % PROGRESS_EVERY_ROWS == 0) {
+                counted.report(handler);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue == null ? "" : formattedValue);
+        }
+    }
+
+    /**
+     * Numbers as their plain value ("8934567890123", "12500.5") instead of the display format,
+     * which would turn barcodes into "8.93457E+12" and prices into "12,500.50". Dates keep
+     * their display format.
+     */
+    private static final class PlainNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString)) {
+                return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final long size;
+        private long count;
+
+        CountingInputStream(InputStream in, long size) {
+            super(in);
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        void report(RowHandler handler) {
+            if (size > 0) {
+                handler.progress(Math.min(1.0, (double) count / size));
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package fa.academy.kiotviet.infrastructure.spreadsheet;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a header and rows to an .xlsx or CSV stream one row at a time, so exports use the same
+ * memory for a thousand rows as for millions.
+ *
+ * <p>CSV goes straight to the stream. .xlsx uses POI's {@link SXSSFWorkbook}, which keeps a
+ * small window of rows in memory and spills the rest to compressed temp files until
+ * {@link #close()} zips the workbook into the stream; past Excel's row limit rows continue on a
+ * new sheet with the header repeated. Closing does not close the underlying stream.
+ *
+ * <p>Cell values may be {@code null}, strings, numbers, booleans, enums, {@link LocalDate} or
+ * {@link LocalDateTime}. Strings are written as text, never as formulas (see {@link #csvField}).
+ */
+public abstract class SpreadsheetWriter implements Closeable {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static SpreadsheetWriter open(SpreadsheetFormat format, OutputStream out, String sheetName, String... header)
+            throws IOException {
+        SpreadsheetWriter writer = switch (format) {
+            case XLSX -> new XlsxWriter(out, sheetName);
+            case CSV -> new CsvWriter(out);
+        };
+        writer.writeHeader(header);
+        return writer;
+    }
+
+    public abstract void row(Object... values) throws IOException;
+
+    /**
+     * A CSV field for user-entered text. Text a spreadsheet would evaluate as a formula (leading
+     * {@code = + - @}, tab or carriage return) gets a leading apostrophe; fields containing a
+     * separator, quote or line break are quoted.
+     */
+    public static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if ("=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        return quote(value);
+    }
+
+    private static String quote(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    protected abstract void writeHeader(String... header) throws IOException;
+
+    private static final class CsvWriter extends SpreadsheetWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            // BOM so Excel opens the file as UTF-8
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        protected void writeHeader(String... header) throws IOException {
+            row((Object[]) header);
+        }
+
+        @Override
+        public void row(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                // Numbers keep their sign; only text can smuggle in a formula
+                writer.write(value instanceof CharSequence ? csvField(value.toString()) : quote(text(value)));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String text(Object value) {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof BigDecimal decimal) {
+                return decimal.toPlainString();
+            }
+            if (value instanceof LocalDateTime dateTime) {
+                return dateTime.format(DATE_TIME);
+            }
+            if (value instanceof Enum<?> constant) {
+                return constant.name();
+            }
+            return value.toString();
+        }
+    }
+
+    private static final class XlsxWriter extends SpreadsheetWriter {
+
+        private static final int ROW_WINDOW = 100;
+        private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+        private final OutputStream out;
+        private final String sheetName;
+        private final SXSSFWorkbook workbook;
+        private final CellStyle headerStyle;
+        private final CellStyle dateStyle;
+        private final CellStyle dateTimeStyle;
+        private String[] header;
+        private Sheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+
+        XlsxWriter(OutputStream out, String sheetName) {
+            this.out = out;
+            this.sheetName = sheetName;
+            this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+            workbook.setCompressTempFiles(true);
+
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+            dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            dateTimeStyle = workbook.createCellStyle();
+            dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        }
+
+        @Override
+        protected void writeHeader(String... header) {
+            this.header = header;
+            newSheet();
+        }
+
+        @Override
+        public void row(Object... values) {
+            if (rowIndex >= MAX_ROWS) {
+                newSheet();
+            }
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(i);
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else if (value instanceof Boolean flag) {
+                    cell.setCellValue(flag);
+                } else if (value instanceof LocalDateTime dateTime) {
+                    cell.setCellValue(dateTime);
+                    cell.setCellStyle(dateTimeStyle);
+                } else if (value instanceof LocalDate date) {
+                    cell.setCellValue(date);
+                    cell.setCellStyle(dateStyle);
+                } else if (value instanceof Enum<?> constant) {
+                    cell.setCellValue(constant.name());
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                workbook.write(out);
+                out.flush();
+            } finally {
+                workbook.dispose();
+                workbook.close();
+            }
+        }
+
+        private void newSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + " (" + sheetCount + ")");
+            sheet.setDefaultColumnWidth(18);
+            Row row = sheet.createRow(0);
+            for (int i = 0; i < header.length; i++) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(header[i]);
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(0, 1);
+            rowIndex = 1;
+        }
+    }
+}
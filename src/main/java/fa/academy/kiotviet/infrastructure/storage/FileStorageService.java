@@ -1,37 +1,96 @@
 package fa.academy.kiotviet.infrastructure.storage;
 
+import fa.academy.kiotviet.infrastructure.metering.TenantUsageMeter;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @Slf4j
 public class FileStorageService {
 
     private static final long MAX_LOGO_SIZE = 2 * 1024 * 1024; // 2 MB
+    // Decoding allocates 4 bytes per pixel, so a small file can still claim a huge raster
+    private static final long MAX_IMAGE_PIXELS = 25_000_000;
+    private static final int TRANSFER_CHUNK = 64 * 1024;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
     private static final String UPLOADS_PREFIX = "/uploads";
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final Pattern PRODUCT_IMAGE_PATH =
+            Pattern.compile("/products/(\\d+)/[0-9a-f]{2}/([0-9a-f]{64})/(?:small|medium|large)\\.jpg$");
+    // Product images stored before content addressing, under a random name that is never rewritten
+    private static final Pattern LEGACY_PRODUCT_IMAGE_PATH =
+            Pattern.compile("products/\\d+/[0-9a-f-]{36}\\.png");
+
+    /**
+     * JPEG copies generated for each product image, by the longest side in pixels.
+     */
+    private enum ImageVariant {
+        SMALL(96),
+        MEDIUM(480),
+        LARGE(1280);
+
+        private final int maxSide;
+
+        ImageVariant(int maxSide) {
+            this.maxSide = maxSide;
+        }
+
+        int maxSide() {
+            return maxSide;
+        }
+
+        String fileName() {
+            return name().toLowerCase() + ".jpg";
+        }
+    }
 
     private final Path rootLocation;
     private final String publicBaseUrl;
+    private final TenantUsageMeter usageMeter;
 
     public FileStorageService(
             @Value("${app.storage.upload-dir:uploads}") String uploadDir,
-            @Value("${app.storage.public-base-url:}") String publicBaseUrl) {
+            @Value("${app.storage.public-base-url:}") String publicBaseUrl,
+            TenantUsageMeter usageMeter) {
         this.rootLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
         this.publicBaseUrl = publicBaseUrl == null ? "" : publicBaseUrl.trim();
+        this.usageMeter = usageMeter;
     }
 
     @PostConstruct
@@ -43,9 +102,50 @@ public class FileStorageService {
         }
     }
 
-    public String storeCompanyLogo(Long companyId, MultipartFile file) {
-        validateLogo(file);
+    /**
+     * Copies an image upload to a temporary file through a channel, hashing it and enforcing the
+     * size limit as it streams, then checks its signature and dimensions from the header without
+     * decoding the pixels. Decoding is left to the processing step; the caller deletes the file.
+     */
+    public StagedImage stageImage(MultipartFile file) {
+        validateUpload(file);
 
+        Path staged = null;
+        try {
+            staged = Files.createTempFile("image-upload-", ".tmp");
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (ReadableByteChannel in = Channels.newChannel(new DigestInputStream(file.getInputStream(), digest));
+                 FileChannel out = FileChannel.open(staged, StandardOpenOption.WRITE)) {
+                long copied;
+                // The declared size can be wrong, so the limit is checked on the bytes received
+                while ((copied = out.transferFrom(in, size, TRANSFER_CHUNK)) > 0) {
+                    size += copied;
+                    if (size > MAX_LOGO_SIZE) {
+                        throw new IllegalArgumentException("File must be 2 MB or smaller");
+                    }
+                }
+            }
+            String format = sniffFormat(staged);
+            int[] dimensions = readDimensions(staged, format);
+            if ((long) dimensions[0] * dimensions[1] > MAX_IMAGE_PIXELS) {
+                throw new IllegalArgumentException("Image must be at most " + MAX_IMAGE_PIXELS / 1_000_000 + " megapixels");
+            }
+            return new StagedImage(staged, HexFormat.of().formatHex(digest.digest()), size, format,
+                    dimensions[0], dimensions[1]);
+        } catch (IOException e) {
+            deleteQuietly(staged);
+            throw new IllegalStateException("Failed to stage uploaded image", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(staged);
+            throw e;
+        }
+    }
+
+    /**
+     * Stores a staged image ({@link #stageImage}) as the company logo.
+     */
+    public String storeCompanyLogo(Long companyId, StagedImage staged) {
         Path companyDir = rootLocation.resolve("company").resolve(String.valueOf(companyId));
         try {
             Files.createDirectories(companyDir);
@@ -55,7 +155,8 @@ public class FileStorageService {
 
         Path target = companyDir.resolve("logo.png");
         try {
-            saveImage(file, target);
+            saveImage(staged.path(), target);
+            usageMeter.recordStorage(companyId, Files.size(target));
         } catch (IOException e) {
             log.error("Failed to store company logo for id {}", companyId, e);
             throw new IllegalStateException("Failed to store company logo", e);
@@ -64,33 +165,210 @@ public class FileStorageService {
         return buildPublicUrl("/company/" + companyId + "/logo.png");
     }
 
-    public String storeProductImage(Long companyId, MultipartFile file) {
-        validateLogo(file); // Reuse validation for now (2MB, png/jpg)
-
-        Path productsDir = rootLocation.resolve("products").resolve(String.valueOf(companyId));
+    /**
+     * Stores a staged image ({@link #stageImage}) under its SHA-256 as small, medium and large
+     * JPEG variants. Variants are generated once per company and image; storing the same image
+     * again returns the stored URLs without decoding it or counting its storage twice.
+     */
+    public StoredImage storeProductImage(Long companyId, StagedImage staged) {
+        String hash = staged.contentHash();
+        String relativeDir = productImageDir(companyId, hash);
+        Path dir = rootLocation.resolve(relativeDir);
+        Path large = dir.resolve(ImageVariant.LARGE.fileName());
         try {
-            Files.createDirectories(productsDir);
+            // The large variant is moved into place last, so its presence means all variants are there
+            if (Files.exists(large)) {
+                log.debug("Product image {} already stored for company {}", hash, companyId);
+            } else {
+                Files.createDirectories(dir);
+                usageMeter.recordStorage(companyId, writeVariants(staged.path(), dir));
+            }
+            return storedImage(relativeDir, hash, Files.size(large));
         } catch (IOException e) {
-            throw new IllegalStateException("Could not create directory for product images", e);
+            log.error("Failed to store product image for company {}", companyId, e);
+            throw new IllegalStateException("Failed to store product image", e);
         }
+    }
 
-        String filename = UUID.randomUUID().toString() + ".png"; // Force PNG for consistency or keep original? 
-        // ImageIO.write(image, "png", ...) converts to PNG. So filename should be .png
-        
-        Path target = productsDir.resolve(filename);
+    /**
+     * The stored image behind a variant URL returned by {@link #storeProductImage}, if the URL is
+     * one of the company's content-addressed variants and the image is still on disk.
+     */
+    public Optional<StoredImage> findProductImage(Long companyId, String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = PRODUCT_IMAGE_PATH.matcher(url);
+        if (!matcher.find() || !String.valueOf(companyId).equals(matcher.group(1))) {
+            return Optional.empty();
+        }
+        String hash = matcher.group(2);
+        String relativeDir = productImageDir(companyId, hash);
         try {
-            saveImage(file, target);
+            long size = Files.size(rootLocation.resolve(relativeDir).resolve(ImageVariant.LARGE.fileName()));
+            return Optional.of(storedImage(relativeDir, hash, size));
         } catch (IOException e) {
-            log.error("Failed to store product image for company {}", companyId, e);
-            throw new IllegalStateException("Failed to store product image", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The file at a path below {@code /uploads}, if it is a regular file inside the upload
+     * directory. Variants still being written are not served.
+     */
+    public Optional<Path> findUpload(String relativePath) {
+        if (relativePath == null || relativePath.isBlank() || relativePath.endsWith(".tmp")) {
+            return Optional.empty();
+        }
+        Path file;
+        try {
+            file = rootLocation.resolve(relativePath).normalize();
+        } catch (InvalidPathException e) {
+            return Optional.empty();
+        }
+        if (!file.startsWith(rootLocation) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Whether the file at a path below {@code /uploads} is never rewritten, so its URL can be
+     * cached indefinitely: content-addressed product image variants and legacy product images.
+     */
+    public boolean isImmutable(String relativePath) {
+        return relativePath != null
+                && (PRODUCT_IMAGE_PATH.matcher("/" + relativePath).matches()
+                        || LEGACY_PRODUCT_IMAGE_PATH.matcher(relativePath).matches());
+    }
+
+    /**
+     * Decodes the upload once, writes every variant to a temporary file and then moves them into
+     * place smallest first. Returns the bytes written.
+     */
+    private long writeVariants(Path staged, Path dir) throws IOException {
+        BufferedImage source = ImageIO.read(staged.toFile());
+        if (source == null) {
+            throw new IllegalArgumentException("Invalid image file");
         }
 
-        return buildPublicUrl("/products/" + companyId + "/" + filename);
+        // Each variant is scaled from the next larger one, so work from the largest down
+        ImageVariant[] variants = ImageVariant.values();
+        Path[] temps = new Path[variants.length];
+        try {
+            BufferedImage image = flatten(source);
+            long written = 0;
+            for (int i = variants.length - 1; i >= 0; i--) {
+                image = scale(image, variants[i].maxSide());
+                temps[i] = Files.createTempFile(dir, variants[i].name().toLowerCase(), ".tmp");
+                writeJpeg(image, temps[i]);
+                written += Files.size(temps[i]);
+            }
+            for (int i = 0; i < variants.length; i++) {
+                Files.move(temps[i], dir.resolve(variants[i].fileName()),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                temps[i] = null;
+            }
+            return written;
+        } finally {
+            for (Path temp : temps) {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the image onto an opaque white RGB canvas, since JPEG has no alpha channel.
+     */
+    private static BufferedImage flatten(BufferedImage source) {
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Scales the image down so its longer side is at most {@code maxSide}, halving repeatedly
+     * before the final step so bilinear filtering does not skip source pixels. Never scales up.
+     */
+    private static BufferedImage scale(BufferedImage image, int maxSide) {
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest <= maxSide) {
+            return image;
+        }
+        double ratio = (double) maxSide / longest;
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private StoredImage storedImage(String relativeDir, String hash, long largeSize) {
+        String base = "/" + relativeDir + "/";
+        return new StoredImage(
+                hash,
+                buildPublicUrl(base + ImageVariant.SMALL.fileName()),
+                buildPublicUrl(base + ImageVariant.MEDIUM.fileName()),
+                buildPublicUrl(base + ImageVariant.LARGE.fileName()),
+                largeSize);
+    }
+
+    /**
+     * {@code products/{companyId}/{first two hex digits}/{hash}}; the fan-out keeps directories small.
+     */
+    private static String productImageDir(Long companyId, String hash) {
+        return "products/" + companyId + "/" + hash.substring(0, 2) + "/" + hash;
     }
 
-    private void saveImage(MultipartFile file, Path target) throws IOException {
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void saveImage(Path source, Path target) throws IOException {
         BufferedImage image;
-        try (InputStream inputStream = file.getInputStream()) {
+        try (InputStream inputStream = Files.newInputStream(source)) {
             image = ImageIO.read(inputStream);
         }
         if (image == null) {
@@ -105,30 +383,61 @@ public class FileStorageService {
         }
     }
 
-    private void validateLogo(MultipartFile file) {
+    static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void validateUpload(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is required");
         }
         if (file.getSize() > MAX_LOGO_SIZE) {
             throw new IllegalArgumentException("File must be 2 MB or smaller");
         }
-        String contentType = file.getContentType();
-        if (contentType != null) {
-            contentType = contentType.toLowerCase();
+    }
+
+    /**
+     * The image format from the file's leading bytes; the declared content type and file name
+     * are not trusted.
+     */
+    private static String sniffFormat(Path staged) throws IOException {
+        byte[] bytes;
+        try (InputStream input = Files.newInputStream(staged)) {
+            bytes = input.readNBytes(PNG_SIGNATURE.length);
+        }
+        if (startsWith(bytes, PNG_SIGNATURE)) {
+            return "png";
         }
-        boolean supportedType = contentType != null &&
-                (contentType.equals("image/png") || contentType.equals("image/jpeg") || contentType.equals("image/jpg"));
-        if (!supportedType && !hasSupportedExtension(file.getOriginalFilename())) {
-            throw new IllegalArgumentException("Only PNG or JPG images are allowed");
+        if (startsWith(bytes, JPEG_SIGNATURE)) {
+            return "jpeg";
         }
+        throw new IllegalArgumentException("Only PNG or JPG images are allowed");
     }
 
-    private boolean hasSupportedExtension(String filename) {
-        if (filename == null) {
-            return false;
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    /**
+     * Width and height from the image header; the pixel data is not read.
+     */
+    private static int[] readDimensions(Path staged, String format) throws IOException {
+        ImageReader reader = ImageIO.getImageReadersByFormatName(format).next();
+        try (ImageInputStream input = ImageIO.createImageInputStream(staged.toFile())) {
+            reader.setInput(input, true, true);
+            return new int[] {reader.getWidth(0), reader.getHeight(0)};
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid image file");
+        } finally {
+            reader.dispose();
         }
-        String lower = filename.toLowerCase();
-        return lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg");
     }
 
     private String buildPublicUrl(String relativePath) {
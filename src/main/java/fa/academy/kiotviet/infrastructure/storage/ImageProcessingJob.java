@@ -0,0 +1,57 @@
+package fa.academy.kiotviet.infrastructure.storage;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * State of one product image upload waiting for or going through processing. Written by the
+ * processing thread, read by status requests.
+ */
+@Getter
+public class ImageProcessingJob {
+
+    public enum Status { QUEUED, PROCESSING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long companyId;
+    private final String fileName;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final long queuedAtNanos = System.nanoTime();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile StoredImage image;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    ImageProcessingJob(Long companyId, String fileName) {
+        this.companyId = companyId;
+        this.fileName = fileName;
+    }
+
+    public boolean isActive() {
+        return status == Status.QUEUED || status == Status.PROCESSING;
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.PROCESSING;
+    }
+
+    void completed(StoredImage result) {
+        image = result;
+        finish(Status.COMPLETED, null);
+    }
+
+    void failed(String reason) {
+        finish(Status.FAILED, reason);
+    }
+
+    private void finish(Status result, String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        status = result;
+    }
+}
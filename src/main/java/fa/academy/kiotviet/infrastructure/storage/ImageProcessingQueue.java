@@ -0,0 +1,203 @@
+package fa.academy.kiotviet.infrastructure.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.academy.kiotviet.core.shared.exception.ResourceNotFoundException;
+import fa.academy.kiotviet.core.shared.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes, resizes and encodes uploaded images on a dedicated pool sized to the cores, so a burst
+ * of uploads cannot occupy servlet threads or every CPU with image work.
+ *
+ * <p>Uploads are staged to a temporary file on the request thread and queued. Product images are
+ * acknowledged at once with a job whose state is polled through {@link #find}; jobs are kept on
+ * the node that accepted the upload for {@code app.storage.image-processing.retention}. Company
+ * logos are awaited, since the caller stores the resulting URL. When the queue is full the upload
+ * fails fast with 429.
+ */
+@Component
+@Slf4j
+public class ImageProcessingQueue {
+
+    private final FileStorageService fileStorageService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ImageProcessingJob> jobs;
+    private final long timeoutMillis;
+    private final Counter rejected;
+
+    public ImageProcessingQueue(FileStorageService fileStorageService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.storage.image-processing.threads:0}") int threads,
+                                @Value("${app.storage.image-processing.queue-capacity:32}") int queueCapacity,
+                                @Value("${app.storage.image-processing.timeout-ms:30000}") long timeoutMillis,
+                                @Value("${app.storage.image-processing.retention:1h}") Duration retention) {
+        this.fileStorageService = fileStorageService;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-processing-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.jobs = Caffeine.newBuilder()
+            .expireAfterWrite(retention)
+            .build();
+
+        Gauge.builder("storage.image_processing.queue.depth", executor, e -> e.getQueue().size())
+            .description("Uploaded images waiting for a processing thread")
+            .register(meterRegistry);
+        Gauge.builder("storage.image_processing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+        this.rejected = Counter.builder("storage.image_processing.rejected")
+            .description("Image uploads shed because the processing pool was saturated")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Stage a product image and queue its processing.
+     *
+     * @throws TooManyRequestsException if the processing queue is full
+     */
+    public ImageProcessingJob submitProductImage(Long companyId, MultipartFile file) {
+        StagedImage staged = fileStorageService.stageImage(file);
+        ImageProcessingJob job = new ImageProcessingJob(companyId, file.getOriginalFilename());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, staged));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            FileStorageService.deleteQuietly(staged.path());
+            throw busy(e);
+        }
+        return job;
+    }
+
+    /**
+     * Stage a company logo, process it on the pool and return its URL.
+     *
+     * @throws TooManyRequestsException if the processing queue is full or the logo is not processed in time
+     */
+    public String processCompanyLogo(Long companyId, MultipartFile file) {
+        StagedImage staged = fileStorageService.stageImage(file);
+        long queuedAt = System.nanoTime();
+        Future<String> result;
+        try {
+            result = executor.submit(() -> {
+                recordQueueLatency("logo", queuedAt);
+                Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "failed";
+                try {
+                    String url = fileStorageService.storeCompanyLogo(companyId, staged);
+                    outcome = "completed";
+                    return url;
+                } catch (IllegalArgumentException e) {
+                    outcome = "rejected";
+                    throw e;
+                } finally {
+                    FileStorageService.deleteQuietly(staged.path());
+                    sample.stop(processingTimer("logo", outcome));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            FileStorageService.deleteQuietly(staged.path());
+            throw busy(e);
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A task cancelled before it started never deletes its staged file
+            result.cancel(true);
+            FileStorageService.deleteQuietly(staged.path());
+            throw busy(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            FileStorageService.deleteQuietly(staged.path());
+            throw busy(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to store company logo", e.getCause());
+        }
+    }
+
+    public ImageProcessingJob find(Long companyId, String jobId) {
+        ImageProcessingJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.getCompanyId().equals(companyId)) {
+            throw new ResourceNotFoundException("Image upload not found", "IMAGE_UPLOAD_NOT_FOUND");
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.invalidateAll();
+    }
+
+    private void run(ImageProcessingJob job, StagedImage staged) {
+        recordQueueLatency("product", job.getQueuedAtNanos());
+        job.started();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+        try {
+            job.completed(fileStorageService.storeProductImage(job.getCompanyId(), staged));
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            job.failed(e.getMessage());
+        } catch (Exception e) {
+            outcome = "failed";
+            log.error("Processing image upload {} for company {} failed", job.getId(), job.getCompanyId(), e);
+            job.failed("Image processing failed, please try again");
+        } finally {
+            FileStorageService.deleteQuietly(staged.path());
+            sample.stop(processingTimer("product", outcome));
+        }
+    }
+
+    private void recordQueueLatency(String kind, long queuedAtNanos) {
+        Timer.builder("storage.image_processing.queue.latency")
+            .description("Time uploaded images wait for a processing thread")
+            .tag("kind", kind)
+            .register(meterRegistry)
+            .record(System.nanoTime() - queuedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer processingTimer(String kind, String outcome) {
+        return meterRegistry.timer("storage.image_processing.duration", "kind", kind, "outcome", outcome);
+    }
+
+    private TooManyRequestsException busy(Exception cause) {
+        rejected.increment();
+        log.warn("Image processing pool saturated (queue depth {}): {}", executor.getQueue().size(), cause.getClass().getSimpleName());
+        return new TooManyRequestsException("Too many images are being processed, please retry shortly", "IMAGE_PROCESSING_BUSY", cause);
+    }
+}
@@ -0,0 +1,22 @@
+package fa.academy.kiotviet.infrastructure.storage;
+
+import java.nio.file.Path;
+
+/**
+ * An uploaded image copied to a temporary file and checked from its header, not yet decoded.
+ *
+ * @param path        temporary file, deleted by whoever processes it
+ * @param contentHash hex SHA-256 of the file, computed while it was copied
+ * @param size        bytes
+ * @param format      {@code png} or {@code jpeg}, from the file's signature
+ * @param width       pixels, from the image header
+ * @param height      pixels, from the image header
+ */
+public record StagedImage(
+        Path path,
+        String contentHash,
+        long size,
+        String format,
+        int width,
+        int height) {
+}
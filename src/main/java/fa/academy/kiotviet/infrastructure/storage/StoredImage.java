@@ -0,0 +1,18 @@
+package fa.academy.kiotviet.infrastructure.storage;
+
+/**
+ * A product image stored under its content hash, with the public URLs of its JPEG variants.
+ *
+ * @param contentHash hex SHA-256 of the uploaded bytes
+ * @param smallUrl    thumbnail for grids and lists
+ * @param mediumUrl   preview for detail panels and forms
+ * @param largeUrl    full-size display copy
+ * @param fileSize    bytes of the large variant
+ */
+public record StoredImage(
+        String contentHash,
+        String smallUrl,
+        String mediumUrl,
+        String largeUrl,
+        long fileSize) {
+}
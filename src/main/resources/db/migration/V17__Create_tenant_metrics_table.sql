@@ -0,0 +1,19 @@
+-- =============================================
+-- V17__Create_tenant_metrics_table.sql
+-- Purpose: Per-tenant metrics rollup for the system admin dashboard.
+--          Rows are refreshed by PlatformMetricsRollupService so the
+--          dashboard reads platform totals without scanning tenant tables.
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS tenant_metrics (
+    company_id BIGINT PRIMARY KEY,
+    product_count BIGINT NOT NULL DEFAULT 0,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(18, 2) NOT NULL DEFAULT 0.00,  -- Sum of paid_amount over COMPLETED orders
+    active_user_count BIGINT NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (company_id) REFERENCES companies (id) ON DELETE CASCADE,
+    INDEX idx_tenant_metrics_revenue (revenue),
+    INDEX idx_tenant_metrics_orders (order_count)
+);
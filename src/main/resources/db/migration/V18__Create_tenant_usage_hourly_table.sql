@@ -0,0 +1,21 @@
+-- =============================================
+-- V18__Create_tenant_usage_hourly_table.sql
+-- Purpose: Hourly per-tenant resource usage (requests, servlet time,
+--          SQL statements/time, stored bytes). Written in batches by
+--          TenantUsageFlusher from node-local counters.
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS tenant_usage_hourly (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    company_id BIGINT NOT NULL,
+    hour_start DATETIME NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    servlet_time_ms BIGINT NOT NULL DEFAULT 0,
+    sql_count BIGINT NOT NULL DEFAULT 0,
+    sql_time_ms BIGINT NOT NULL DEFAULT 0,
+    storage_bytes BIGINT NOT NULL DEFAULT 0,
+
+    FOREIGN KEY (company_id) REFERENCES companies (id) ON DELETE CASCADE,
+    UNIQUE KEY uk_usage_company_hour (company_id, hour_start),
+    INDEX idx_usage_hour (hour_start)
+);
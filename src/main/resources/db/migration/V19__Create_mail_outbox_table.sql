@@ -0,0 +1,25 @@
+-- =============================================
+-- V19__Create_mail_outbox_table.sql
+-- Purpose: Transactional outbox for outgoing e-mail (2FA codes, password
+--          resets, notifications). Rows are written in the caller's
+--          transaction and delivered by MailOutboxDispatcher in batches
+--          with retry and exponential backoff.
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    claimed_by VARCHAR(64) NULL,
+    claimed_until DATETIME NULL,
+    last_error VARCHAR(500) NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at DATETIME NULL,
+
+    INDEX idx_mail_outbox_due (status, next_attempt_at),
+    INDEX idx_mail_outbox_claim (claimed_by)
+);
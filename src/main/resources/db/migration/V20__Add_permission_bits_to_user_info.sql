@@ -0,0 +1,32 @@
+-- =============================================
+-- V20__Add_permission_bits_to_user_info.sql
+-- Purpose: Store UserInfo.UserPermission as a bitset next to the legacy
+--          comma-separated permissions column, and convert existing rows.
+--          Bit positions are fixed by UserPermission.bit():
+--            PRODUCT_MANAGE = 1, ORDER_MANAGE = 2,
+--            PURCHASE_MANAGE = 4, INVENTORY_MANAGE = 8
+-- =============================================
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'user_info'
+      AND COLUMN_NAME = 'permission_bits'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE user_info ADD COLUMN permission_bits BIGINT NOT NULL DEFAULT 0 AFTER permissions',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE user_info
+SET permission_bits =
+      IF(FIND_IN_SET('PRODUCT_MANAGE',   REPLACE(permissions, ' ', '')) > 0, 1, 0)
+    | IF(FIND_IN_SET('ORDER_MANAGE',     REPLACE(permissions, ' ', '')) > 0, 2, 0)
+    | IF(FIND_IN_SET('PURCHASE_MANAGE',  REPLACE(permissions, ' ', '')) > 0, 4, 0)
+    | IF(FIND_IN_SET('INVENTORY_MANAGE', REPLACE(permissions, ' ', '')) > 0, 8, 0)
+WHERE permissions IS NOT NULL AND permissions <> '';
@@ -0,0 +1,53 @@
+-- =============================================
+-- V21__Add_token_purge_indexes.sql
+-- Purpose: Indexes for the chunked purge of expired/inactive refresh tokens
+--          and expired/used password reset tokens (ExpiredTokenPurger).
+-- =============================================
+
+SET @idx_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'user_tokens'
+      AND INDEX_NAME = 'idx_user_tokens_expires'
+);
+
+SET @ddl := IF(@idx_exists = 0,
+               'CREATE INDEX idx_user_tokens_expires ON user_tokens (expires_at)',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'user_tokens'
+      AND INDEX_NAME = 'idx_user_tokens_active'
+);
+
+SET @ddl := IF(@idx_exists = 0,
+               'CREATE INDEX idx_user_tokens_active ON user_tokens (is_active)',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'password_reset_tokens'
+      AND INDEX_NAME = 'idx_pwreset_used'
+);
+
+SET @ddl := IF(@idx_exists = 0,
+               'CREATE INDEX idx_pwreset_used ON password_reset_tokens (is_used)',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,49 @@
+-- =============================================
+-- V22__Add_product_search_text.sql
+-- Purpose: Accent-insensitive product search. products.search_text holds the
+--          diacritic-folded, lower-cased name, SKU and barcode (maintained by
+--          Product.buildSearchText), indexed with the ngram FULLTEXT parser so
+--          Vietnamese text and partial codes match without '%q%' scans.
+--          Existing rows are filled by V23__Backfill_product_search_text (Java),
+--          because the folding cannot be expressed in SQL.
+-- =============================================
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'products'
+      AND COLUMN_NAME = 'search_text'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE products ADD COLUMN search_text VARCHAR(512) NULL AFTER barcode',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- The index keeps the stopword setting it is created with. The default InnoDB
+-- list (a, an, i, in, ...) drops every ngram containing a stopword, so bigrams
+-- such as "ca", "ua", "ai" and "an" would never be indexed: create it without.
+SET @saved_ft_stopword := @@SESSION.innodb_ft_enable_stopword;
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+SET @idx_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'products'
+      AND INDEX_NAME = 'ft_product_search_text'
+);
+
+SET @ddl := IF(@idx_exists = 0,
+               'ALTER TABLE products ADD FULLTEXT INDEX ft_product_search_text (search_text) WITH PARSER ngram',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET SESSION innodb_ft_enable_stopword = @saved_ft_stopword;
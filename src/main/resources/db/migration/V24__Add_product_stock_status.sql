@@ -0,0 +1,52 @@
+-- =============================================
+-- V24__Add_product_stock_status.sql
+-- Purpose: Persisted stock level per product (NOT_TRACKED, OUT_OF_STOCK,
+--          LOW_STOCK, IN_STOCK, OVERSTOCKED), derived from is_tracked, on_hand
+--          and the min/max levels on every write (Product.StockStatus), and
+--          indexed per company so stock alerts and dashboard counts are index
+--          lookups instead of comparing on_hand with the levels row by row.
+--          Existing rows are backfilled with the same rule in SQL.
+-- =============================================
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'products'
+      AND COLUMN_NAME = 'stock_status'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE products ADD COLUMN stock_status ENUM(''NOT_TRACKED'', ''OUT_OF_STOCK'', ''LOW_STOCK'', ''IN_STOCK'', ''OVERSTOCKED'') NOT NULL DEFAULT ''OUT_OF_STOCK'' AFTER is_tracked',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Keep updated_at: this is a derived column, not a product change
+UPDATE products
+SET stock_status = CASE
+        WHEN is_tracked IS NULL OR is_tracked = FALSE THEN 'NOT_TRACKED'
+        WHEN on_hand IS NULL OR on_hand <= 0 THEN 'OUT_OF_STOCK'
+        WHEN on_hand <= min_level THEN 'LOW_STOCK'
+        WHEN max_level > 0 AND on_hand > max_level THEN 'OVERSTOCKED'
+        ELSE 'IN_STOCK'
+    END,
+    updated_at = updated_at;
+
+SET @idx_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'products'
+      AND INDEX_NAME = 'idx_company_stock_status'
+);
+
+SET @ddl := IF(@idx_exists = 0,
+               'ALTER TABLE products ADD INDEX idx_company_stock_status (company_id, stock_status)',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,22 @@
+-- =============================================
+-- V25__Add_product_sync_index.sql
+-- Purpose: Catalog change feed for POS clients (GET /api/products/changes).
+--          Products changed after a (updated_at, id) cursor are read as a
+--          keyset range of this index instead of scanning the tenant.
+-- =============================================
+
+SET @idx_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'products'
+      AND INDEX_NAME = 'idx_company_updated'
+);
+
+SET @ddl := IF(@idx_exists = 0,
+               'ALTER TABLE products ADD INDEX idx_company_updated (company_id, updated_at, id)',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
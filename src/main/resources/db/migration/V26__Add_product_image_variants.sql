@@ -0,0 +1,89 @@
+-- =============================================
+-- V26__Add_product_image_variants.sql
+-- Purpose: Product images are stored under the SHA-256 of the upload with
+--          small, medium and large JPEG variants generated once. The primary
+--          image row records the hash and the variant URLs, and the small
+--          variant is copied to products.thumbnail_url so product lists show
+--          kilobyte-sized thumbnails without joining product_images.
+--          Existing images have no variants; their columns stay NULL.
+-- =============================================
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'product_images'
+      AND COLUMN_NAME = 'content_hash'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE product_images ADD COLUMN content_hash CHAR(64) NULL AFTER image_url',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'product_images'
+      AND COLUMN_NAME = 'small_url'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE product_images ADD COLUMN small_url VARCHAR(500) NULL AFTER content_hash',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'product_images'
+      AND COLUMN_NAME = 'medium_url'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE product_images ADD COLUMN medium_url VARCHAR(500) NULL AFTER small_url',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'product_images'
+      AND COLUMN_NAME = 'large_url'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE product_images ADD COLUMN large_url VARCHAR(500) NULL AFTER medium_url',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'products'
+      AND COLUMN_NAME = 'thumbnail_url'
+);
+
+SET @ddl := IF(@col_exists = 0,
+               'ALTER TABLE products ADD COLUMN thumbnail_url VARCHAR(255) NULL AFTER image',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,48 @@
+-- =============================================
+-- V27__Blank_sent_mail_outbox_bodies.sql
+-- Purpose: Stop keeping delivered e-mail in mail_outbox. Bodies carry
+--          password reset links and 2FA codes, so MailOutboxDispatcher
+--          clears them once a message is SENT or FAILED, and
+--          ExpiredTokenPurger deletes old SENT/FAILED rows.
+-- =============================================
+
+-- Allow body to be cleared
+SET @col_required := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'mail_outbox'
+      AND COLUMN_NAME = 'body'
+      AND IS_NULLABLE = 'NO'
+);
+
+SET @ddl := IF(@col_required = 1,
+               'ALTER TABLE mail_outbox MODIFY COLUMN body TEXT NULL',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Blank messages that are already done with
+UPDATE mail_outbox
+SET body = NULL
+WHERE status IN ('SENT', 'FAILED')
+  AND body IS NOT NULL;
+
+-- Index for the chunked purge of old SENT/FAILED rows
+SET @idx_exists := (
+    SELECT COUNT(*)
+    FROM INFORMATION_SCHEMA.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'mail_outbox'
+      AND INDEX_NAME = 'idx_mail_outbox_purge'
+);
+
+SET @ddl := IF(@idx_exists = 0,
+               'CREATE INDEX idx_mail_outbox_purge ON mail_outbox (status, created_at)',
+               'SELECT 1');
+
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
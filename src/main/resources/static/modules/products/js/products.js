@@ -106,6 +106,10 @@
         btnImportUpload: document.getElementById("btnImportUpload"),
         btnDownloadCsv: document.getElementById("btnDownloadCsv"),
         importErr: document.getElementById("importErr"),
+        importProgress: document.getElementById("importProgress"),
+        importProgressBar: document.getElementById("importProgressBar"),
+        importStatus: document.getElementById("importStatus"),
+        btnImportErrors: document.getElementById("btnImportErrors"),
     };
 
     const state = {
@@ -342,7 +346,9 @@
         if (els.tracked.value !== "") params.set("tracked", els.tracked.value);
         params.set("page", state.page);
         params.set("size", state.size);
-        if (state.sortBy) {
+        // While searching, the default recency sort gives way to relevance ranking
+        const defaultSort = state.sortBy === "updatedAt" && state.sortDir === "desc";
+        if (state.sortBy && !(params.has("search") && defaultSort)) {
             params.set("sortBy", state.sortBy);
             params.set("sortDir", state.sortDir);
         }
@@ -425,7 +431,7 @@
             <div style="width: 40px; height: 40px; background: #f8f9fa; border-radius: 4px; overflow: hidden; display: flex; align-items: center; justify-content: center;">
                 ${
                     p.image
-                        ? `<img src="${p.image}" style="width: 100%; height: 100%; object-fit: cover;">`
+                        ? `<img src="${p.thumbnailUrl || p.image}" loading="lazy" style="width: 100%; height: 100%; object-fit: cover;">`
                         : `<i class="fas fa-image text-muted"></i>`
                 }
             </div>
@@ -1998,43 +2004,116 @@
             els.productIsTracked.checked = true;
             els.productStatus.value = "ACTIVE";
         });
+    let importJobId = null;
+
+    function showImportError(message) {
+        if (els.importErr) {
+            els.importErr.textContent = message;
+            els.importErr.classList.remove("d-none");
+        }
+    }
+
+    function renderImportStatus(job) {
+        els.importProgress?.classList.remove("d-none");
+        if (els.importProgressBar) {
+            els.importProgressBar.style.width = `${job.progressPercent ?? 0}%`;
+        }
+        if (els.importStatus) {
+            const counts = `${job.processedRows} rows read, ${job.insertedRows} added, ${job.updatedRows} updated, ${job.failedRows} skipped`;
+            els.importStatus.textContent =
+                job.status === "FAILED" ? `${job.message || "Import failed"} (${counts})` : counts;
+        }
+        els.btnImportErrors?.classList.toggle("d-none", !job.errorReportAvailable);
+    }
+
+    async function pollImport(jobId) {
+        while (importJobId === jobId) {
+            const resp = await fetch(`${api.base}/import/${jobId}`, {
+                headers: api.headers(),
+            }).then(authGuard);
+            const body = await resp.json().catch(() => ({}));
+            if (!resp.ok) throw new Error(body?.message || "Could not read import status");
+            const job = body.data;
+            renderImportStatus(job);
+            if (job.status === "COMPLETED" || job.status === "FAILED") {
+                if (els.btnImportUpload) els.btnImportUpload.disabled = false;
+                if (job.status === "COMPLETED") {
+                    showAlert(`Import finished: ${job.insertedRows} added, ${job.updatedRows} updated`, "success");
+                }
+                fetchList();
+                return;
+            }
+            await new Promise((resolve) => setTimeout(resolve, 1000));
+        }
+    }
+
     els.btnImport?.addEventListener("click", () => {
         els.importErr?.classList.add("d-none");
         if (els.fileExcel) els.fileExcel.value = "";
+        if (!importJobId) els.importProgress?.classList.add("d-none");
         els.importModal?.show();
     });
     els.btnImportUpload?.addEventListener("click", async () => {
         const f = els.fileExcel?.files?.[0];
         if (!f) {
-            if (els.importErr) {
-                els.importErr.textContent = "Please choose a file";
-                els.importErr.classList.remove("d-none");
-            }
+            showImportError("Please choose a file");
             return;
         }
+        els.importErr?.classList.add("d-none");
+        els.btnImportErrors?.classList.add("d-none");
         const fd = new FormData();
         fd.append("file", f);
         try {
-            const resp = await fetch(`${api.base}/bulk`, {
+            els.btnImportUpload.disabled = true;
+            const resp = await fetch(`${api.base}/import`, {
                 method: "POST",
                 headers: { Authorization: api.headers().Authorization },
                 body: fd,
             }).then(authGuard);
+            const body = await resp.json().catch(() => ({}));
             if (!resp.ok) {
-                const body = await resp.json().catch(() => ({}));
                 throw new Error(body?.message || "Upload failed");
             }
-            els.importModal?.hide();
-            showAlert("Import started", "success");
-            fetchList();
+            importJobId = body.data.jobId;
+            renderImportStatus(body.data);
+            await pollImport(importJobId);
         } catch (e2) {
-            if (els.importErr) {
-                els.importErr.textContent = e2.message || "Upload failed";
-                els.importErr.classList.remove("d-none");
-            }
+            els.btnImportUpload.disabled = false;
+            showImportError(e2.message || "Upload failed");
+        }
+    });
+    els.btnImportErrors?.addEventListener("click", async () => {
+        if (!importJobId) return;
+        try {
+            const resp = await fetch(`${api.base}/import/${importJobId}/errors`, {
+                headers: { Authorization: api.headers().Authorization },
+            }).then(authGuard);
+            if (!resp.ok) throw new Error("Error report is not available");
+            const url = URL.createObjectURL(await resp.blob());
+            const a = document.createElement("a");
+            a.href = url;
+            a.download = `import-errors-${importJobId}.csv`;
+            a.click();
+            URL.revokeObjectURL(url);
+        } catch (e) {
+            showImportError(e.message);
         }
     });
 
+    async function waitForImage(jobId) {
+        for (;;) {
+            const resp = await fetch(`${api.base}/upload-image/${jobId}`, {
+                headers: api.headers(),
+            }).then(authGuard);
+            const body = await resp.json().catch(() => ({}));
+            if (!resp.ok) throw new Error(body?.message || "Could not read image upload status");
+            const image = body.data;
+            if (image.status === "COMPLETED") return image;
+            if (image.status === "FAILED") throw new Error(image.message || "Image upload failed");
+            await new Promise((resolve) => setTimeout(resolve, 500));
+        }
+    }
+
     // Image Upload Handler
     els.productImageFile?.addEventListener("change", async () => {
         const file = els.productImageFile.files[0];
@@ -2052,9 +2131,9 @@
 
             const body = await resp.json();
             if (resp.ok) {
-                const imageUrl = body.data;
-                els.productImageUrl.value = imageUrl;
-                els.productImagePreview.src = imageUrl;
+                const image = await waitForImage(body.data.jobId);
+                els.productImageUrl.value = image.url;
+                els.productImagePreview.src = image.mediumUrl || image.url;
                 els.productImagePreview.classList.remove("d-none");
                 els.productImagePlaceholder.classList.add("d-none");
                 els.btnRemoveImage.classList.remove("d-none");
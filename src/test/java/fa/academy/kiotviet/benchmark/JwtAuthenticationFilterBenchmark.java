@@ -0,0 +1,139 @@
+package fa.academy.kiotviet.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.academy.kiotviet.core.tenant.domain.Company;
+import fa.academy.kiotviet.core.tenant.repository.CompanyRepository;
+import fa.academy.kiotviet.core.usermanagement.domain.UserInfo;
+import fa.academy.kiotviet.core.usermanagement.repository.UserInfoRepository;
+import fa.academy.kiotviet.infrastructure.redis.RedisGuard;
+import fa.academy.kiotviet.infrastructure.security.JwtAuthenticationFilter;
+import fa.academy.kiotviet.infrastructure.security.JwtUtil;
+import fa.academy.kiotviet.infrastructure.security.PrincipalCache;
+import fa.academy.kiotviet.infrastructure.security.TokenRevocationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH benchmark of the JWT authentication filter path.
+ *
+ * <ul>
+ *   <li>{@code legacyFiveParses} - the previous behaviour: expiry check plus four claim extractions, each a full parse</li>
+ *   <li>{@code singleParse} - the single signature verification a cache miss pays</li>
+ *   <li>{@code cachedVerify} - a hot token served from the verified-claims cache</li>
+ *   <li>{@code filterChain} - the whole filter with a warm principal cache and repositories stubbed out</li>
+ * </ul>
+ *
+ * Not part of the unit test suite; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=fa.academy.kiotviet.benchmark.JwtAuthenticationFilterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET =
+        "BenchmarkJwtSecretKeyThatIsLongEnoughForHS512SigningPurposesOnly!0123456789abcdef";
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        token = jwtUtil.generateToken(42L, 7L, "bench_user", "admin");
+
+        UserInfo user = new UserInfo();
+        user.setId(42L);
+        user.setUsername("bench_user");
+        user.setRole(UserInfo.UserRole.admin);
+        user.setIsActive(true);
+        user.setPermissions("PRODUCT_VIEW,PRODUCT_EDIT,ORDER_VIEW,ORDER_CREATE");
+
+        UserInfoRepository userInfoRepository = mock(UserInfoRepository.class);
+        when(userInfoRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        CompanyRepository companyRepository = mock(CompanyRepository.class);
+        when(companyRepository.findById(anyLong())).thenReturn(Optional.of(Company.builder().id(7L).isSuspended(false).build()));
+
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        PrincipalCache principalCache = new PrincipalCache(userInfoRepository, companyRepository, redisTemplate,
+            new ObjectMapper(), new RedisGuard(30_000L), mock(RedisMessageListenerContainer.class),
+            Duration.ofSeconds(30), Duration.ofMinutes(10), 10_000L);
+
+        TokenRevocationService revocationService = new TokenRevocationService(redisTemplate, new RedisGuard(30_000L), 900L,
+            Duration.ofSeconds(2));
+
+        filter = new JwtAuthenticationFilter(jwtUtil, principalCache, revocationService);
+    }
+
+    @Benchmark
+    public void legacyFiveParses(Blackhole bh) {
+        bh.consume(jwtUtil.isTokenExpired(token));
+        bh.consume(jwtUtil.extractUsername(token));
+        bh.consume(jwtUtil.extractUserId(token));
+        bh.consume(jwtUtil.extractCompanyId(token));
+        bh.consume(jwtUtil.extractRole(token));
+    }
+
+    @Benchmark
+    public Object singleParse() {
+        return jwtUtil.extractClaims(token);
+    }
+
+    @Benchmark
+    public Object cachedVerify() {
+        return jwtUtil.verifyAccessToken(token);
+    }
+
+    @Benchmark
+    public Object filterChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    private static JwtUtil newJwtUtil() {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(util, "jwtExpiration", 900L);
+        ReflectionTestUtils.setField(util, "refreshExpiration", 604800L);
+        ReflectionTestUtils.setField(util, "verifiedCacheSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(util, "init");
+        return util;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
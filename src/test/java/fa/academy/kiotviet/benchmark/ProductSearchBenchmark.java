@@ -0,0 +1,194 @@
+package fa.academy.kiotviet.benchmark;
+
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the product list search against a migrated MySQL database, on one tenant
+ * with {@value #PRODUCTS} products (seeded on first run, reused afterwards).
+ *
+ * <ul>
+ *   <li>{@code legacyLike} - the previous search: {@code '%q%'} LIKE on lower(name/sku/barcode), page and count</li>
+ *   <li>{@code fullText} - MATCH on the folded, ngram-indexed search_text ranked by relevance, page and count</li>
+ *   <li>{@code shortLikeFallback} - the LIKE on search_text used for one-character queries</li>
+ * </ul>
+ *
+ * The legacy query is given the accented text; the full-text query gets what cashiers type.
+ * Not part of the unit test suite; needs the database from docker-compose (override with
+ * {@code -Dbench.jdbc.url/user/password}) and runs with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=fa.academy.kiotviet.benchmark.ProductSearchBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 200_000;
+    private static final String COMPANY_EMAIL = "search-benchmark@kiotviet.local";
+
+    private static final String[] WORDS = {
+        "Cà phê", "sữa", "đá", "Trà", "xanh", "đào", "Bánh", "mì", "quy", "bơ", "Nước", "cam", "ép",
+        "Mì", "gói", "tôm", "chua", "cay", "Sữa", "chua", "dâu", "Kẹo", "gừng", "Dầu", "ăn", "đậu", "nành",
+        "Gạo", "thơm", "Nước", "mắm", "Phở", "bò", "khô", "Bột", "giặt", "hương", "chanh"
+    };
+
+    private static final String LEGACY_SQL =
+        "SELECT p.id, p.name FROM products p WHERE p.company_id = ? AND (lower(p.name) LIKE ? " +
+        "OR lower(p.sku) LIKE ? OR lower(p.barcode) LIKE ?) ORDER BY p.name LIMIT 20";
+    private static final String LEGACY_COUNT_SQL =
+        "SELECT count(*) FROM products p WHERE p.company_id = ? AND (lower(p.name) LIKE ? " +
+        "OR lower(p.sku) LIKE ? OR lower(p.barcode) LIKE ?)";
+    private static final String FULL_TEXT_SQL =
+        "SELECT p.id, p.name FROM products p WHERE p.company_id = ? " +
+        "AND match(p.search_text) against(? in boolean mode) > 0 " +
+        "ORDER BY match(p.search_text) against(? in boolean mode) DESC, p.name LIMIT 20";
+    private static final String FULL_TEXT_COUNT_SQL =
+        "SELECT count(*) FROM products p WHERE p.company_id = ? AND match(p.search_text) against(? in boolean mode) > 0";
+    private static final String SHORT_SQL =
+        "SELECT p.id, p.name FROM products p WHERE p.company_id = ? AND p.search_text LIKE ? ORDER BY p.name LIMIT 20";
+
+    private Connection connection;
+    private long companyId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+            System.getProperty("bench.jdbc.url",
+                "jdbc:mysql://localhost:33006/kiotviet_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true"),
+            System.getProperty("bench.jdbc.user", "root"),
+            System.getProperty("bench.jdbc.password", "root1234"));
+        companyId = ensureCompany();
+        seedProducts();
+        assertFullTextMatches("+ca +phe +sua");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void legacyLike(Blackhole bh) throws SQLException {
+        String pattern = "%cà phê sữa%";
+        bh.consume(query(LEGACY_SQL, companyId, pattern, pattern, pattern));
+        bh.consume(query(LEGACY_COUNT_SQL, companyId, pattern, pattern, pattern));
+    }
+
+    @Benchmark
+    public void fullText(Blackhole bh) throws SQLException {
+        String terms = "+ca +phe +sua";
+        bh.consume(query(FULL_TEXT_SQL, companyId, terms, terms));
+        bh.consume(query(FULL_TEXT_COUNT_SQL, companyId, terms));
+    }
+
+    @Benchmark
+    public void shortLikeFallback(Blackhole bh) throws SQLException {
+        bh.consume(query(SHORT_SQL, companyId, "%m%"));
+    }
+
+    private int query(String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            int rows = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rows++;
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Bigrams such as "ca" and "ua" contain InnoDB stopwords, so an index built with stopwords
+     * on would silently return nothing and the full-text benchmark would measure empty scans.
+     */
+    private void assertFullTextMatches(String terms) throws SQLException {
+        if (query(FULL_TEXT_SQL, companyId, terms, terms) == 0) {
+            throw new IllegalStateException("Full-text search for '" + terms + "' returned no products; "
+                + "was ft_product_search_text built with innodb_ft_enable_stopword on?");
+        }
+    }
+
+    private long ensureCompany() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT id FROM companies WHERE email = ?")) {
+            ps.setString(1, COMPANY_EMAIL);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getLong(1);
+            }
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO companies (name, email) VALUES ('Search Benchmark', ?)", Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, COMPANY_EMAIL);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void seedProducts() throws SQLException {
+        int existing;
+        try (PreparedStatement ps = connection.prepareStatement("SELECT count(*) FROM products WHERE company_id = ?")) {
+            ps.setLong(1, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                existing = rs.getInt(1);
+            }
+        }
+        if (existing >= PRODUCTS) return;
+
+        Random random = new Random(42);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO products (company_id, sku, name, barcode, search_text, selling_price, cost_price, on_hand) " +
+                "VALUES (?, ?, ?, ?, ?, 20000, 10000, 10)")) {
+            for (int i = existing; i < PRODUCTS; i++) {
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + (100 + random.nextInt(900)) + "g";
+                String sku = String.format("BM%07d", i);
+                String barcode = String.format("893%010d", i);
+                ps.setLong(1, companyId);
+                ps.setString(2, sku);
+                ps.setString(3, name);
+                ps.setString(4, barcode);
+                ps.setString(5, Product.buildSearchText(name, sku, barcode));
+                ps.addBatch();
+                if (i % 5_000 == 4_999) {
+                    ps.executeBatch();
+                    connection.commit();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ProductSearchBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,237 @@
+package fa.academy.kiotviet.integration;
+
+import fa.academy.kiotviet.core.notification.domain.MailOutboxMessage;
+import fa.academy.kiotviet.core.notification.impl.MailOutboxDispatcher;
+import fa.academy.kiotviet.core.notification.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delivers outbox batches to a local fake SMTP sink: one connection per batch, rejected
+ * recipients retried with backoff, and bodies cleared once a message is done with.
+ */
+class MailOutboxDispatcherIntegrationTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private FakeSmtpSink sink;
+    private MailOutboxRepository repository;
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sink = new FakeSmtpSink();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(sink.port());
+
+        repository = mock(MailOutboxRepository.class);
+        when(repository.countByStatus(any())).thenReturn(0L);
+        dispatcher = new MailOutboxDispatcher(
+            repository,
+            new StaticListableBeanFactory(Map.of("mailSender", mailSender)).getBeanProvider(JavaMailSender.class),
+            new SimpleMeterRegistry(),
+            50, MAX_ATTEMPTS, Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(dispatcher, "fromAddress", "noreply@kiotviet.test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sink.close();
+    }
+
+    @Test
+    void deliversBatchOverOneConnectionAndClearsBodies() {
+        List<MailOutboxMessage> batch = List.of(
+            row(1L, "a@kiotviet.test", 0),
+            row(2L, "b@kiotviet.test", 0),
+            row(3L, "c@kiotviet.test", 0));
+        claim(batch);
+
+        dispatcher.dispatch();
+
+        assertThat(sink.connections()).isEqualTo(1);
+        assertThat(sink.recipients()).containsExactlyInAnyOrder("a@kiotviet.test", "b@kiotviet.test", "c@kiotviet.test");
+        assertThat(batch).allSatisfy(row -> {
+            assertThat(row.getStatus()).isEqualTo(MailOutboxMessage.Status.SENT);
+            assertThat(row.getBody()).isNull();
+            assertThat(row.getAttempts()).isEqualTo(1);
+            assertThat(row.getSentAt()).isNotNull();
+            assertThat(row.getClaimedBy()).isNull();
+        });
+        verify(repository).saveAll(any());
+    }
+
+    @Test
+    void retriesRejectedRecipientWithBackoff() {
+        MailOutboxMessage accepted = row(1L, "a@kiotviet.test", 0);
+        MailOutboxMessage rejected = row(2L, "reject@kiotviet.test", 0);
+        claim(List.of(accepted, rejected));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        assertThat(sink.connections()).isEqualTo(1);
+        assertThat(accepted.getStatus()).isEqualTo(MailOutboxMessage.Status.SENT);
+        assertThat(rejected.getStatus()).isEqualTo(MailOutboxMessage.Status.PENDING);
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(rejected.getLastError()).isNotBlank();
+        assertThat(rejected.getBody()).isNotNull();
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAndClearsBody() {
+        MailOutboxMessage rejected = row(1L, "reject@kiotviet.test", MAX_ATTEMPTS - 1);
+        claim(List.of(rejected));
+
+        dispatcher.dispatch();
+
+        assertThat(rejected.getStatus()).isEqualTo(MailOutboxMessage.Status.FAILED);
+        assertThat(rejected.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(rejected.getBody()).isNull();
+    }
+
+    private void claim(List<MailOutboxMessage> batch) {
+        when(repository.claimDue(anyString(), any(), any(), anyInt())).thenReturn(batch.size(), 0);
+        when(repository.findByClaimedByAndStatusOrderByIdAsc(anyString(), eq(MailOutboxMessage.Status.PENDING)))
+            .thenReturn(batch);
+    }
+
+    private static MailOutboxMessage row(Long id, String recipient, int attempts) {
+        MailOutboxMessage row = new MailOutboxMessage();
+        row.setId(id);
+        row.setRecipient(recipient);
+        row.setSubject("Your verification code");
+        row.setBody("Your code is 123456");
+        row.setAttempts(attempts);
+        row.setNextAttemptAt(LocalDateTime.now());
+        row.setClaimedBy("claimant");
+        return row;
+    }
+
+    /**
+     * Minimal SMTP server that accepts every message and rejects recipients starting with
+     * "reject".
+     */
+    private static final class FakeSmtpSink implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+        private final Thread acceptor;
+
+        FakeSmtpSink() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            acceptor = new Thread(this::acceptLoop, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        List<String> recipients() {
+            return recipients;
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    converse(socket);
+                } catch (IOException e) {
+                    // drop the connection and wait for the next one, unless the sink was closed
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1);
+            reply(out, "220 localhost fake SMTP");
+
+            List<String> envelope = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM")) {
+                    envelope.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                    if (address.startsWith("reject")) {
+                        reply(out, "550 No such user");
+                    } else {
+                        envelope.add(address);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // message content is not inspected
+                    }
+                    recipients.addAll(envelope);
+                    envelope.clear();
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    // RSET, NOOP
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
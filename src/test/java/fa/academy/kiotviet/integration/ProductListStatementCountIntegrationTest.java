@@ -0,0 +1,141 @@
+package fa.academy.kiotviet.integration;
+
+import fa.academy.kiotviet.application.dto.productcatalog.response.ProductDto;
+import fa.academy.kiotviet.core.productcatalog.domain.Brand;
+import fa.academy.kiotviet.core.productcatalog.domain.Category;
+import fa.academy.kiotviet.core.productcatalog.domain.Product;
+import fa.academy.kiotviet.core.productcatalog.service.ProductService;
+import fa.academy.kiotviet.core.suppliers.domain.Supplier;
+import fa.academy.kiotviet.core.tenant.domain.Company;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the product listing endpoints against N+1 lazy loading: each product gets its own
+ * category, supplier and brand, so a lazy load per row would show up as extra statements.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class ProductListStatementCountIntegrationTest {
+
+    private static final int PRODUCTS = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long companyId;
+
+    @BeforeEach
+    void setUp() {
+        Company company = Company.builder().name("Statement count test").build();
+        entityManager.persist(company);
+        companyId = company.getId();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Category category = Category.builder().company(company).name("Category " + i).path("/category-" + i).build();
+            Supplier supplier = Supplier.builder().company(company).name("Supplier " + i).build();
+            Brand brand = Brand.builder().company(company).name("Brand " + i).build();
+            entityManager.persist(category);
+            entityManager.persist(supplier);
+            entityManager.persist(brand);
+            entityManager.persist(Product.builder()
+                    .company(company)
+                    .sku("SC-" + i)
+                    .name("Statement count product " + i)
+                    .sellingPrice(new BigDecimal("150.00"))
+                    .costPrice(new BigDecimal("100.00"))
+                    // Even rows out of stock, odd rows overstocked
+                    .onHand(i % 2 == 0 ? 0 : 50)
+                    .minLevel(5)
+                    .maxLevel(i % 2 == 0 ? 0 : 20)
+                    .category(category)
+                    .supplier(supplier)
+                    .brand(brand)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listFetchesRelationsWithThePage() {
+        Page<ProductDto> page = productService.list(
+                companyId, null, null, null, null, null, null, null, null, null, null, 0, 10, "name", "asc");
+
+        assertHasRelations(page.getContent());
+        assertThat(page.getTotalElements()).isEqualTo(PRODUCTS);
+        // page + count
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void stockAndPriceListingsUseOneStatement() {
+        assertSingleStatement(productService.findLowStockProducts(companyId), PRODUCTS / 2);
+        assertSingleStatement(productService.findOutOfStockProducts(companyId), PRODUCTS / 2);
+        assertSingleStatement(productService.findOverstockedProducts(companyId), PRODUCTS / 2);
+        assertSingleStatement(productService.findByPriceRange(companyId, new BigDecimal("100"), new BigDecimal("200")), PRODUCTS);
+    }
+
+    @Test
+    void stockListingsLeaveOutUntrackedProducts() {
+        entityManager.persist(Product.builder()
+                .company(entityManager.getReference(Company.class, companyId))
+                .sku("SC-UNTRACKED")
+                .name("Untracked product")
+                .sellingPrice(new BigDecimal("150.00"))
+                .costPrice(new BigDecimal("100.00"))
+                .onHand(0)
+                .minLevel(5)
+                .isTracked(false)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(productService.findOutOfStockProducts(companyId))
+                .hasSize(PRODUCTS / 2)
+                .extracting(ProductDto::getSku).doesNotContain("SC-UNTRACKED");
+        assertThat(productService.findLowStockProducts(companyId))
+                .extracting(ProductDto::getSku).doesNotContain("SC-UNTRACKED");
+    }
+
+    private void assertSingleStatement(List<ProductDto> products, int expected) {
+        assertHasRelations(products);
+        assertThat(products).hasSize(expected);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private static void assertHasRelations(List<ProductDto> products) {
+        assertThat(products).isNotEmpty().allSatisfy(product -> {
+            assertThat(product.getCategory()).isNotNull();
+            assertThat(product.getSupplier()).isNotNull();
+            assertThat(product.getBrand()).isNotNull();
+        });
+    }
+}